@@ -4,6 +4,7 @@ import com.github.benmanes.caffeine.cache.Caffeine;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -13,13 +14,16 @@ import java.util.concurrent.TimeUnit;
 @EnableCaching
 public class CacheConfig {
 
+    // Caches are declared up front so actuator binds their Caffeine stats as cache.* metrics.
+    // Puts and evictions inside a transaction wait for its commit, otherwise a concurrent read
+    // could cache the copy counts from before the commit for the whole TTL.
     @Bean
     public CacheManager cacheManager() {
-        CaffeineCacheManager cacheManager = new CaffeineCacheManager("books", "availableBooks");
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager("books", "availableBooks", "bookIdsByIsbn");
         cacheManager.setCaffeine(Caffeine.newBuilder()
                 .maximumSize(1000)
                 .expireAfterWrite(10, TimeUnit.MINUTES)
                 .recordStats());
-        return cacheManager;
+        return new TransactionAwareCacheManagerProxy(cacheManager);
     }
 }
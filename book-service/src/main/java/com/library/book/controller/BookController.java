@@ -1,18 +1,24 @@
 package com.library.book.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.book.dto.AvailabilityChangeDTO;
+import com.library.book.dto.AvailabilityChangeResultDTO;
 import com.library.book.dto.BookDTO;
+import com.library.book.dto.CursorPageDTO;
 import com.library.book.service.BookService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 
@@ -22,9 +28,14 @@ import java.util.Map;
 @Tag(name = "Book Management", description = "APIs for managing books in the library system")
 public class BookController {
 
+    private static final int MAX_AVAILABILITY_BATCH = 5000;
+
     @Autowired
     private BookService bookService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @GetMapping
     @Operation(summary = "Get all books", description = "Retrieve a list of all books in the library")
     @ApiResponses(value = {
@@ -36,6 +47,41 @@ public class BookController {
         return ResponseEntity.ok(books);
     }
 
+    @GetMapping("/page")
+    @Operation(summary = "Get a page of books", description = "Retrieve books ordered by ID, starting after the given cursor")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved books"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<CursorPageDTO<BookDTO>> getBooksPage(
+            @Parameter(description = "Last book ID of the previous page") @RequestParam(required = false) Long after,
+            @Parameter(description = "Page size, at most 500") @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(bookService.getBooksPage(after, size));
+    }
+
+    @GetMapping(value = "/stream", produces = NdjsonWriter.CONTENT_TYPE)
+    @Operation(summary = "Stream all books", description = "Stream every book as newline delimited JSON")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully streamed books"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public void streamAllBooks(HttpServletResponse response) throws IOException {
+        response.setContentType(NdjsonWriter.CONTENT_TYPE);
+        bookService.streamAllBooks(new NdjsonWriter<>(objectMapper, response.getOutputStream()));
+    }
+
+    @GetMapping(params = "ids")
+    @Operation(summary = "Get books by IDs", description = "Retrieve several books in one call; unknown IDs are skipped")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved books"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<List<BookDTO>> getBooksByIds(
+            @Parameter(description = "Comma separated book IDs") @RequestParam List<Long> ids) {
+        List<BookDTO> books = bookService.getBooksByIds(ids);
+        return ResponseEntity.ok(books);
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get a book by ID", description = "Retrieve a specific book by its ID")
     @ApiResponses(value = {
@@ -151,4 +197,34 @@ public class BookController {
         return ResponseEntity.badRequest()
                 .body(Map.of("error", "Unable to update book availability"));
     }
+
+    @PutMapping("/availability/batch")
+    @Operation(summary = "Update availability of many books", description = "Apply several availability changes in one transaction and report the outcome of each")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Changes applied, see each result for its outcome"),
+        @ApiResponse(responseCode = "400", description = "Bad request"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<?> updateBookAvailabilityBatch(
+            @RequestBody List<AvailabilityChangeDTO> changes,
+            @Parameter(description = "Roll back every change if any one of them fails")
+            @RequestParam(defaultValue = "false") boolean allOrNothing) {
+        if (changes == null || changes.isEmpty()) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "At least one change is required"));
+        }
+        if (changes.size() > MAX_AVAILABILITY_BATCH) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "At most " + MAX_AVAILABILITY_BATCH + " changes are allowed per request"));
+        }
+        boolean incomplete = changes.stream()
+                .anyMatch(change -> change == null || change.getBookId() == null || change.getChange() == null);
+        if (incomplete) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Every change needs a bookId and a change value"));
+        }
+
+        List<AvailabilityChangeResultDTO> results = bookService.updateBookAvailabilityBatch(changes, allOrNothing);
+        return ResponseEntity.ok(results);
+    }
 }
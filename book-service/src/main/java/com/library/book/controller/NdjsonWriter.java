@@ -0,0 +1,32 @@
+package com.library.book.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+// Writes one JSON document per line straight to the response body
+final class NdjsonWriter<T> implements Consumer<T> {
+
+    static final String CONTENT_TYPE = "application/x-ndjson";
+
+    private final ObjectMapper objectMapper;
+    private final OutputStream out;
+
+    NdjsonWriter(ObjectMapper objectMapper, OutputStream out) {
+        this.objectMapper = objectMapper;
+        this.out = out;
+    }
+
+    @Override
+    public void accept(T value) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(value));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
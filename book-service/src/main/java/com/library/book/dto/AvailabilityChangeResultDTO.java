@@ -0,0 +1,31 @@
+package com.library.book.dto;
+
+public class AvailabilityChangeResultDTO {
+    private Long bookId;
+    private Integer change;
+    private boolean success;
+    private String error;
+
+    // Constructors
+    public AvailabilityChangeResultDTO() {}
+
+    public AvailabilityChangeResultDTO(Long bookId, Integer change, boolean success, String error) {
+        this.bookId = bookId;
+        this.change = change;
+        this.success = success;
+        this.error = error;
+    }
+
+    // Getters and Setters
+    public Long getBookId() { return bookId; }
+    public void setBookId(Long bookId) { this.bookId = bookId; }
+
+    public Integer getChange() { return change; }
+    public void setChange(Integer change) { this.change = change; }
+
+    public boolean isSuccess() { return success; }
+    public void setSuccess(boolean success) { this.success = success; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
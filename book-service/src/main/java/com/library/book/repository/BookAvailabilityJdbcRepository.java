@@ -0,0 +1,51 @@
+package com.library.book.repository;
+
+import com.library.book.dto.AvailabilityChangeDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Plain JDBC so a whole set of availability deltas goes to MySQL as one batch
+@Repository
+public class BookAvailabilityJdbcRepository {
+
+    private static final String ADJUST_SQL =
+            "UPDATE books SET available_copies = available_copies + ? " +
+            "WHERE book_id = ? AND available_copies + ? BETWEEN 0 AND total_copies";
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    // Returns the affected-row count for each change, in order
+    public int[] adjustAvailableCopies(List<AvailabilityChangeDTO> changes) {
+        return jdbcTemplate.getJdbcTemplate().batchUpdate(ADJUST_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                AvailabilityChangeDTO change = changes.get(i);
+                ps.setInt(1, change.getChange());
+                ps.setLong(2, change.getBookId());
+                ps.setInt(3, change.getChange());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return changes.size();
+            }
+        });
+    }
+
+    public Set<Long> findExistingIds(Collection<Long> bookIds) {
+        List<Long> ids = jdbcTemplate.queryForList("SELECT book_id FROM books WHERE book_id IN (:ids)",
+                new MapSqlParameterSource("ids", bookIds), Long.class);
+        return new HashSet<>(ids);
+    }
+}
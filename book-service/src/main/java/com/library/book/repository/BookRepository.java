@@ -1,18 +1,30 @@
 package com.library.book.repository;
 
 import com.library.book.entity.Book;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface BookRepository extends JpaRepository<Book, Long> {
     
     Optional<Book> findByIsbn(String isbn);
+
+    // Only the ID is cached per ISBN, the book itself lives in the "books" cache
+    @Cacheable(value = "bookIdsByIsbn", unless = "#result == null")
+    @Query("SELECT b.bookId FROM Book b WHERE b.isbn = :isbn")
+    Optional<Long> findBookIdByIsbn(@Param("isbn") String isbn);
     
     List<Book> findByTitleContainingIgnoreCase(String title);
     
@@ -29,4 +41,19 @@ public interface BookRepository extends JpaRepository<Book, Long> {
                                    @Param("genre") String genre);
     
     List<Book> findByAvailableCopiesGreaterThan(Integer copies);
+
+    // Single conditional statement, the row lock taken by UPDATE serialises concurrent borrows and returns
+    @Modifying
+    @Query("UPDATE Book b SET b.availableCopies = b.availableCopies + :change " +
+           "WHERE b.bookId = :bookId AND b.availableCopies + :change BETWEEN 0 AND b.totalCopies")
+    int adjustAvailableCopies(@Param("bookId") Long bookId, @Param("change") int change);
+
+    List<Book> findByBookIdGreaterThanOrderByBookIdAsc(Long bookId, Limit limit);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT b FROM Book b ORDER BY b.bookId")
+    Stream<Book> streamAll();
 }
@@ -1,39 +1,102 @@
 package com.library.book.service;
 
+import com.library.book.dto.AvailabilityChangeDTO;
+import com.library.book.dto.AvailabilityChangeResultDTO;
 import com.library.book.dto.BookDTO;
+import com.library.book.dto.CursorPageDTO;
 import com.library.book.entity.Book;
+import com.library.book.repository.BookAvailabilityJdbcRepository;
 import com.library.book.repository.BookRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
 public class BookService {
 
+    private static final int MAX_PAGE_SIZE = 500;
+
     @Autowired
     private BookRepository bookRepository;
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private BookAvailabilityJdbcRepository bookAvailabilityJdbcRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
     public List<BookDTO> getAllBooks() {
         return bookRepository.findAll().stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public CursorPageDTO<BookDTO> getBooksPage(Long after, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // Fetch one extra row to learn whether another page exists
+        List<Book> rows = bookRepository.findByBookIdGreaterThanOrderByBookIdAsc(
+                after == null ? 0L : after, Limit.of(pageSize + 1));
+        boolean hasMore = rows.size() > pageSize;
+        List<BookDTO> items = rows.stream()
+                .limit(pageSize)
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+        Long nextCursor = hasMore ? items.get(items.size() - 1).getBookId() : null;
+        return new CursorPageDTO<>(items, nextCursor, hasMore);
+    }
+
+    @Transactional(readOnly = true)
+    public void streamAllBooks(Consumer<BookDTO> sink) {
+        try (Stream<Book> books = bookRepository.streamAll()) {
+            books.forEach(book -> {
+                sink.accept(convertToDTO(book));
+                // Keep the persistence context from growing with the result set
+                entityManager.detach(book);
+            });
+        }
+    }
+
+    @Cacheable(value = "books", key = "#id", unless = "#result == null")
     public Optional<BookDTO> getBookById(Long id) {
         return bookRepository.findById(id)
                 .map(this::convertToDTO);
     }
 
+    public List<BookDTO> getBooksByIds(Collection<Long> ids) {
+        return bookRepository.findAllById(ids).stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
     public Optional<BookDTO> getBookByIsbn(String isbn) {
-        return bookRepository.findByIsbn(isbn)
-                .map(this::convertToDTO);
+        return bookRepository.findBookIdByIsbn(isbn)
+                .flatMap(this::findCachedBook);
     }
 
     public List<BookDTO> searchBooks(String title, String author, String genre) {
@@ -42,30 +105,46 @@ public class BookService {
                 .collect(Collectors.toList());
     }
 
+    @Cacheable(value = "availableBooks", key = "'all'")
     public List<BookDTO> getAvailableBooks() {
         return bookRepository.findByAvailableCopiesGreaterThan(0).stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
 
-    @CachePut(value = "books", key = "#result.bookId")
+    @Caching(
+            put = @CachePut(value = "books", key = "#result.bookId"),
+            evict = {
+                    @CacheEvict(value = "availableBooks", key = "'all'"),
+                    @CacheEvict(value = "bookIdsByIsbn", key = "#bookDTO.isbn", condition = "#bookDTO.isbn != null")
+            })
     public BookDTO createBook(BookDTO bookDTO) {
         Book book = convertToEntity(bookDTO);
         Book savedBook = bookRepository.save(book);
         return convertToDTO(savedBook);
     }
 
+    @Caching(
+            put = @CachePut(value = "books", key = "#id", unless = "#result == null"),
+            evict = @CacheEvict(value = "availableBooks", key = "'all'"))
     public Optional<BookDTO> updateBook(Long id, BookDTO bookDTO) {
         return bookRepository.findById(id)
                 .map(existingBook -> {
+                    if (!Objects.equals(existingBook.getIsbn(), bookDTO.getIsbn())) {
+                        evictIsbn(existingBook.getIsbn());
+                    }
                     updateBookFields(existingBook, bookDTO);
                     Book updatedBook = bookRepository.save(existingBook);
                     return convertToDTO(updatedBook);
                 });
     }
 
-    @CacheEvict(value = {"books", "availableBooks"}, allEntries = true)
+    @Caching(evict = {
+            @CacheEvict(value = "books", key = "#id"),
+            @CacheEvict(value = "availableBooks", key = "'all'")
+    })
     public boolean deleteBook(Long id) {
+        // A stale ISBN entry still resolves to nothing once the book is gone; createBook clears it on reuse
         if (bookRepository.existsById(id)) {
             bookRepository.deleteById(id);
             return true;
@@ -73,18 +152,89 @@ public class BookService {
         return false;
     }
 
+    @Caching(evict = {
+            @CacheEvict(value = "books", key = "#bookId"),
+            @CacheEvict(value = "availableBooks", key = "'all'")
+    })
     public boolean updateBookAvailability(Long bookId, int change) {
-        Optional<Book> bookOpt = bookRepository.findById(bookId);
-        if (bookOpt.isPresent()) {
-            Book book = bookOpt.get();
-            int newAvailableCopies = book.getAvailableCopies() + change;
-            if (newAvailableCopies >= 0 && newAvailableCopies <= book.getTotalCopies()) {
-                book.setAvailableCopies(newAvailableCopies);
-                bookRepository.save(book);
-                return true;
+        // No row is touched when the book is missing or the change would leave the 0..totalCopies range
+        return bookRepository.adjustAvailableCopies(bookId, change) == 1;
+    }
+
+    public List<AvailabilityChangeResultDTO> updateBookAvailabilityBatch(List<AvailabilityChangeDTO> changes,
+                                                                         boolean allOrNothing) {
+        int[] counts = bookAvailabilityJdbcRepository.adjustAvailableCopies(changes);
+
+        Set<Long> failedIds = new HashSet<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 1) {
+                failedIds.add(changes.get(i).getBookId());
             }
         }
-        return false;
+        // Only failures need a second look, to tell a missing book from an out-of-range change
+        Set<Long> existingIds = failedIds.isEmpty()
+                ? Set.of()
+                : bookAvailabilityJdbcRepository.findExistingIds(failedIds);
+
+        boolean rolledBack = allOrNothing && !failedIds.isEmpty();
+        if (rolledBack) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+        }
+
+        List<AvailabilityChangeResultDTO> results = new ArrayList<>(changes.size());
+        for (int i = 0; i < counts.length; i++) {
+            AvailabilityChangeDTO change = changes.get(i);
+            String error = null;
+            if (counts[i] != 1) {
+                error = existingIds.contains(change.getBookId())
+                        ? "Unable to update book availability"
+                        : "Book not found with ID: " + change.getBookId();
+            } else if (rolledBack) {
+                error = "Rolled back because another change in the batch failed";
+            } else {
+                evictBook(change.getBookId());
+            }
+            results.add(new AvailabilityChangeResultDTO(change.getBookId(), change.getChange(), error == null, error));
+        }
+        if (!rolledBack) {
+            evictAvailableBooks();
+        }
+        return results;
+    }
+
+    // Calls from inside the service bypass the caching proxy, so the books cache is consulted directly
+    private Optional<BookDTO> findCachedBook(Long id) {
+        Cache books = cacheManager.getCache("books");
+        BookDTO cached = books != null ? books.get(id, BookDTO.class) : null;
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<BookDTO> loaded = bookRepository.findById(id).map(this::convertToDTO);
+        if (books != null) {
+            loaded.ifPresent(book -> books.put(id, book));
+        }
+        return loaded;
+    }
+
+    private void evictBook(Long id) {
+        Cache books = cacheManager.getCache("books");
+        if (books != null) {
+            books.evict(id);
+        }
+    }
+
+    private void evictAvailableBooks() {
+        Cache availableBooks = cacheManager.getCache("availableBooks");
+        if (availableBooks != null) {
+            availableBooks.evict("all");
+        }
+    }
+
+    private void evictIsbn(String isbn) {
+        Cache bookIdsByIsbn = cacheManager.getCache("bookIdsByIsbn");
+        if (bookIdsByIsbn != null && isbn != null) {
+            bookIdsByIsbn.evict(isbn);
+        }
     }
 
     private BookDTO convertToDTO(Book book) {
@@ -0,0 +1,54 @@
+package com.library.book.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheConfigTest {
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void evictionWaitsForCommit() {
+        Cache books = cacheManager().getCache("books");
+        books.put(1L, "before");
+
+        TransactionSynchronizationManager.initSynchronization();
+        books.evict(1L);
+
+        // A read inside the writing transaction, or a concurrent one, still finds the entry
+        assertNotNull(books.get(1L));
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertNull(books.get(1L));
+    }
+
+    @Test
+    void evictionIsDroppedOnRollback() {
+        Cache books = cacheManager().getCache("books");
+        books.put(1L, "before");
+
+        TransactionSynchronizationManager.initSynchronization();
+        books.evict(1L);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertNotNull(books.get(1L));
+    }
+
+    private CacheManager cacheManager() {
+        CacheManager cacheManager = new CacheConfig().cacheManager();
+        ((TransactionAwareCacheManagerProxy) cacheManager).afterPropertiesSet();
+        return cacheManager;
+    }
+}
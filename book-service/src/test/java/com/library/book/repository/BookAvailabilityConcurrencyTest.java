@@ -0,0 +1,161 @@
+package com.library.book.repository;
+
+import com.library.book.entity.Book;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Hammers a single book from many threads, each attempt in its own transaction,
+ * and compares the conditional UPDATE against the old read-modify-write path.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BookAvailabilityConcurrencyTest {
+
+    private static final Logger log = LoggerFactory.getLogger(BookAvailabilityConcurrencyTest.class);
+
+    private static final int THREADS = 8;
+    private static final int ATTEMPTS_PER_THREAD = 50;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        bookRepository.deleteAll();
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    void conditionalUpdateNeverOversells() throws Exception {
+        int copies = 200;
+        Long bookId = createBook(copies);
+        AtomicInteger successes = new AtomicInteger();
+
+        long elapsed = hammer(() -> {
+            if (transactionTemplate.execute(status -> bookRepository.adjustAvailableCopies(bookId, -1)) == 1) {
+                successes.incrementAndGet();
+            }
+        });
+
+        assertEquals(copies, successes.get());
+        assertEquals(0, bookRepository.findById(bookId).orElseThrow().getAvailableCopies());
+        logThroughput("conditional update", elapsed);
+    }
+
+    @Test
+    void conditionalUpdateLosesNoUpdates() throws Exception {
+        int copies = 10;
+        Long bookId = createBook(copies);
+        AtomicInteger net = new AtomicInteger();
+
+        long elapsed = hammer(() -> {
+            if (transactionTemplate.execute(status -> bookRepository.adjustAvailableCopies(bookId, -1)) == 1) {
+                net.decrementAndGet();
+                if (transactionTemplate.execute(status -> bookRepository.adjustAvailableCopies(bookId, 1)) == 1) {
+                    net.incrementAndGet();
+                }
+            }
+        });
+
+        assertEquals(0, net.get());
+        assertEquals(copies, bookRepository.findById(bookId).orElseThrow().getAvailableCopies());
+        logThroughput("conditional update (borrow + return)", elapsed);
+    }
+
+    @Test
+    void readModifyWriteBaseline() throws Exception {
+        int copies = 200;
+        Long bookId = createBook(copies);
+        AtomicInteger successes = new AtomicInteger();
+
+        // The path updateBookAvailability used before, kept here only as a comparison point
+        long elapsed = hammer(() -> {
+            boolean updated = transactionTemplate.execute(status -> {
+                Book book = bookRepository.findById(bookId).orElseThrow();
+                int newAvailableCopies = book.getAvailableCopies() - 1;
+                if (newAvailableCopies >= 0 && newAvailableCopies <= book.getTotalCopies()) {
+                    book.setAvailableCopies(newAvailableCopies);
+                    bookRepository.save(book);
+                    return true;
+                }
+                return false;
+            });
+            if (updated) {
+                successes.incrementAndGet();
+            }
+        });
+
+        int remaining = bookRepository.findById(bookId).orElseThrow().getAvailableCopies();
+        int lostUpdates = successes.get() - (copies - remaining);
+        log.info("read-modify-write: {} reported successes, {} lost updates", successes.get(), lostUpdates);
+        assertTrue(lostUpdates >= 0);
+        logThroughput("read-modify-write", elapsed);
+    }
+
+    private Long createBook(int copies) {
+        Book book = new Book();
+        book.setTitle("Popular Title");
+        book.setAuthor("Author");
+        book.setAvailableCopies(copies);
+        book.setTotalCopies(copies);
+        return bookRepository.save(book).getBookId();
+    }
+
+    private long hammer(Runnable attempt) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                    attempt.run();
+                }
+                return null;
+            }));
+        }
+        long began = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        long elapsed = System.nanoTime() - began;
+        executor.shutdown();
+        return elapsed;
+    }
+
+    private void logThroughput(String label, long elapsedNanos) {
+        int operations = THREADS * ATTEMPTS_PER_THREAD;
+        double perSecond = operations / (elapsedNanos / 1_000_000_000.0);
+        log.info("{}: {} attempts in {} ms ({} ops/s)", label, operations,
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos), Math.round(perSecond));
+    }
+}
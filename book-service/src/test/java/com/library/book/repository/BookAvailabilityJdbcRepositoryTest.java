@@ -0,0 +1,57 @@
+package com.library.book.repository;
+
+import com.library.book.dto.AvailabilityChangeDTO;
+import com.library.book.entity.Book;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@Import(BookAvailabilityJdbcRepository.class)
+class BookAvailabilityJdbcRepositoryTest {
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BookAvailabilityJdbcRepository bookAvailabilityJdbcRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void adjustAvailableCopies_AppliesInRangeChangesOnly() {
+        Long first = createBook(2, 3);
+        Long second = createBook(0, 1);
+
+        int[] counts = bookAvailabilityJdbcRepository.adjustAvailableCopies(List.of(
+                new AvailabilityChangeDTO(first, -1),
+                new AvailabilityChangeDTO(second, -1),
+                new AvailabilityChangeDTO(first, 3),
+                new AvailabilityChangeDTO(999L, 1)));
+
+        assertArrayEquals(new int[] {1, 0, 0, 0}, counts);
+        entityManager.clear();
+        assertEquals(1, bookRepository.findById(first).orElseThrow().getAvailableCopies());
+        assertEquals(Set.of(first, second), bookAvailabilityJdbcRepository.findExistingIds(List.of(first, second, 999L)));
+    }
+
+    private Long createBook(int available, int total) {
+        Book book = new Book();
+        book.setTitle("Title");
+        book.setAuthor("Author");
+        book.setAvailableCopies(available);
+        book.setTotalCopies(total);
+        return bookRepository.saveAndFlush(book).getBookId();
+    }
+}
@@ -1,22 +1,34 @@
 package com.library.book.service;
 
+import com.library.book.dto.AvailabilityChangeDTO;
+import com.library.book.dto.AvailabilityChangeResultDTO;
 import com.library.book.dto.BookDTO;
 import com.library.book.entity.Book;
+import com.library.book.repository.BookAvailabilityJdbcRepository;
 import com.library.book.repository.BookRepository;
+import com.library.book.dto.CursorPageDTO;
+import org.springframework.data.domain.Limit;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
 import java.util.Optional;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 class BookServiceTest {
     @Mock
     private BookRepository bookRepository;
+    @Mock
+    private BookAvailabilityJdbcRepository bookAvailabilityJdbcRepository;
+    @Mock
+    private CacheManager cacheManager;
     @InjectMocks
     private BookService bookService;
 
@@ -106,23 +118,110 @@ class BookServiceTest {
 
     @Test
     void testUpdateBookAvailability_Success() {
-        Book book = new Book();
-        book.setBookId(1L);
-        book.setAvailableCopies(2);
-        book.setTotalCopies(3);
-        when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
-        when(bookRepository.save(any(Book.class))).thenReturn(book);
+        when(bookRepository.adjustAvailableCopies(1L, -1)).thenReturn(1);
         assertTrue(bookService.updateBookAvailability(1L, -1));
-        assertEquals(1, book.getAvailableCopies());
+        verify(bookRepository, never()).findById(1L);
+        verify(bookRepository, never()).save(any(Book.class));
     }
 
     @Test
     void testUpdateBookAvailability_Invalid() {
+        when(bookRepository.adjustAvailableCopies(1L, -1)).thenReturn(0);
+        assertFalse(bookService.updateBookAvailability(1L, -1));
+    }
+
+    @Test
+    void testGetBooksPage_HasMore() {
+        Book first = new Book();
+        first.setBookId(11L);
+        Book second = new Book();
+        second.setBookId(12L);
+        Book third = new Book();
+        third.setBookId(13L);
+        when(bookRepository.findByBookIdGreaterThanOrderByBookIdAsc(10L, Limit.of(3)))
+                .thenReturn(List.of(first, second, third));
+        CursorPageDTO<BookDTO> page = bookService.getBooksPage(10L, 2);
+        assertEquals(2, page.getItems().size());
+        assertTrue(page.isHasMore());
+        assertEquals(12L, page.getNextCursor());
+    }
+
+    @Test
+    void testGetBooksPage_LastPage() {
         Book book = new Book();
         book.setBookId(1L);
-        book.setAvailableCopies(0);
-        book.setTotalCopies(1);
-        when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
-        assertFalse(bookService.updateBookAvailability(1L, -1));
+        when(bookRepository.findByBookIdGreaterThanOrderByBookIdAsc(0L, Limit.of(51)))
+                .thenReturn(List.of(book));
+        CursorPageDTO<BookDTO> page = bookService.getBooksPage(null, 50);
+        assertEquals(1, page.getItems().size());
+        assertFalse(page.isHasMore());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void testGetBookByIsbn_ServedFromBooksCache() {
+        ConcurrentMapCache books = new ConcurrentMapCache("books");
+        BookDTO cached = new BookDTO();
+        cached.setBookId(5L);
+        books.put(5L, cached);
+        when(cacheManager.getCache("books")).thenReturn(books);
+        when(bookRepository.findBookIdByIsbn("978-0")).thenReturn(Optional.of(5L));
+        Optional<BookDTO> result = bookService.getBookByIsbn("978-0");
+        assertTrue(result.isPresent());
+        assertSame(cached, result.get());
+        verify(bookRepository, never()).findById(5L);
+    }
+
+    @Test
+    void testGetBookByIsbn_LoadsAndCachesOnMiss() {
+        ConcurrentMapCache books = new ConcurrentMapCache("books");
+        Book book = new Book();
+        book.setBookId(6L);
+        when(cacheManager.getCache("books")).thenReturn(books);
+        when(bookRepository.findBookIdByIsbn("978-1")).thenReturn(Optional.of(6L));
+        when(bookRepository.findById(6L)).thenReturn(Optional.of(book));
+        assertTrue(bookService.getBookByIsbn("978-1").isPresent());
+        assertNotNull(books.get(6L));
+    }
+
+    @Test
+    void testUpdateBook_IsbnChangeEvictsOldIsbn() {
+        ConcurrentMapCache bookIdsByIsbn = new ConcurrentMapCache("bookIdsByIsbn");
+        bookIdsByIsbn.put("old-isbn", 1L);
+        when(cacheManager.getCache("bookIdsByIsbn")).thenReturn(bookIdsByIsbn);
+        Book existing = new Book();
+        existing.setBookId(1L);
+        existing.setIsbn("old-isbn");
+        BookDTO update = new BookDTO();
+        update.setIsbn("new-isbn");
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(existing));
+        when(bookRepository.save(any(Book.class))).thenReturn(existing);
+        bookService.updateBook(1L, update);
+        assertNull(bookIdsByIsbn.get("old-isbn"));
+    }
+
+    @Test
+    void testUpdateBookAvailabilityBatch_ReportsEachItem() {
+        List<AvailabilityChangeDTO> changes = List.of(
+                new AvailabilityChangeDTO(1L, -1),
+                new AvailabilityChangeDTO(2L, -1),
+                new AvailabilityChangeDTO(3L, -1));
+        when(bookAvailabilityJdbcRepository.adjustAvailableCopies(changes)).thenReturn(new int[] {1, 0, 0});
+        when(bookAvailabilityJdbcRepository.findExistingIds(Set.of(2L, 3L))).thenReturn(Set.of(2L));
+        List<AvailabilityChangeResultDTO> results = bookService.updateBookAvailabilityBatch(changes, false);
+        assertEquals(3, results.size());
+        assertTrue(results.get(0).isSuccess());
+        assertFalse(results.get(1).isSuccess());
+        assertEquals("Unable to update book availability", results.get(1).getError());
+        assertEquals("Book not found with ID: 3", results.get(2).getError());
+    }
+
+    @Test
+    void testUpdateBookAvailabilityBatch_AllSucceedSkipsExistenceCheck() {
+        List<AvailabilityChangeDTO> changes = List.of(new AvailabilityChangeDTO(1L, 1), new AvailabilityChangeDTO(1L, 1));
+        when(bookAvailabilityJdbcRepository.adjustAvailableCopies(changes)).thenReturn(new int[] {1, 1});
+        List<AvailabilityChangeResultDTO> results = bookService.updateBookAvailabilityBatch(changes, true);
+        assertTrue(results.stream().allMatch(AvailabilityChangeResultDTO::isSuccess));
+        verify(bookAvailabilityJdbcRepository, never()).findExistingIds(any());
     }
 }
@@ -1,13 +1,16 @@
 package com.library.fine.client;
 
 import com.library.fine.dto.BorrowingTransactionResponseDTO;
+import com.library.fine.dto.CursorPageDTO;
+import com.library.fine.dto.IdRangeDTO;
+import com.library.fine.dto.OverdueSweepResultDTO;
+import com.library.fine.dto.OverdueTransactionDTO;
 import org.springframework.cloud.openfeign.FeignClient;
-import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 
+import java.util.Collection;
 import java.util.List;
-import java.util.Map;
 
 @FeignClient(name = "transaction-service")
 public interface TransactionServiceClient {
@@ -18,7 +21,22 @@ public interface TransactionServiceClient {
     @GetMapping("/api/transactions")
     List<BorrowingTransactionResponseDTO> getAllTransactions();
 
+    @GetMapping("/api/transactions")
+    List<BorrowingTransactionResponseDTO> getTransactionsByIds(@RequestParam("ids") Collection<Long> transactionIds);
+
     @PostMapping("/api/transactions/update-overdue")
-    ResponseEntity<Map<String, String>> updateOverdueTransactions();
+    OverdueSweepResultDTO updateOverdueTransactions();
+
+    @GetMapping("/api/transactions/overdue/feed")
+    CursorPageDTO<OverdueTransactionDTO> getOverdueFeed(@RequestParam(value = "after", required = false) Long after,
+                                                       @RequestParam("size") int size);
+
+    @GetMapping("/api/transactions/overdue/feed")
+    CursorPageDTO<OverdueTransactionDTO> getOverdueFeed(@RequestParam("after") Long after,
+                                                       @RequestParam("until") Long until,
+                                                       @RequestParam("size") int size);
+
+    @GetMapping("/api/transactions/overdue/range")
+    IdRangeDTO getOverdueIdRange();
 
 }
@@ -1,14 +1,24 @@
 package com.library.fine.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.fine.dto.CursorPageDTO;
 import com.library.fine.dto.FineResponseDTO;
+import com.library.fine.dto.PendingFineChangeDTO;
+import com.library.fine.dto.TransactionEventDTO;
+import com.library.fine.dto.TransactionEventResultDTO;
 import com.library.fine.entity.Fine.FineType;
 import com.library.fine.service.FineService;
+import com.library.fine.service.TransactionEventService;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -20,9 +30,31 @@ public class FineController {
     @Autowired
     private FineService fineService;
 
+    @Autowired
+    private TransactionEventService transactionEventService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @GetMapping
-    public ResponseEntity<List<FineResponseDTO>> getAllFines() {
-        return ResponseEntity.ok(fineService.getAllFines());
+    public ResponseEntity<List<FineResponseDTO>> getAllFines(
+            @RequestParam(defaultValue = "true") boolean includeTransaction) {
+        return ResponseEntity.ok(fineService.getAllFines(includeTransaction));
+    }
+
+    @GetMapping("/page")
+    public ResponseEntity<CursorPageDTO<FineResponseDTO>> getFinesPage(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(defaultValue = "true") boolean includeTransaction) {
+        return ResponseEntity.ok(fineService.getFinesPage(after, size, includeTransaction));
+    }
+
+    @GetMapping(value = "/stream", produces = NdjsonWriter.CONTENT_TYPE)
+    public void streamAllFines(@RequestParam(defaultValue = "true") boolean includeTransaction,
+                               HttpServletResponse response) throws IOException {
+        response.setContentType(NdjsonWriter.CONTENT_TYPE);
+        fineService.streamAllFines(new NdjsonWriter<>(objectMapper, response.getOutputStream()), includeTransaction);
     }
 
     @GetMapping("/collected")
@@ -35,6 +67,14 @@ public class FineController {
         return ResponseEntity.ok(fineService.getTotalPendingFines());
     }
 
+    @GetMapping("/pending/changes")
+    public ResponseEntity<CursorPageDTO<PendingFineChangeDTO>> getPendingFineChanges(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime changedAfter,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "100") int size) {
+        return ResponseEntity.ok(fineService.getPendingFineChanges(changedAfter, after, size));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<FineResponseDTO> getFineById(@PathVariable Long id) {
         return fineService.getFineById(id)
@@ -43,8 +83,9 @@ public class FineController {
     }
 
     @GetMapping("/member/{memberId}")
-    public ResponseEntity<List<FineResponseDTO>> getFinesByMemberId(@PathVariable Long memberId) {
-        return ResponseEntity.ok(fineService.getFinesByMemberId(memberId));
+    public ResponseEntity<List<FineResponseDTO>> getFinesByMemberId(@PathVariable Long memberId,
+            @RequestParam(defaultValue = "true") boolean includeTransaction) {
+        return ResponseEntity.ok(fineService.getFinesByMemberId(memberId, includeTransaction));
     }
 
     @GetMapping("/member/{memberId}/total")
@@ -104,6 +145,22 @@ public class FineController {
         }
     }
 
+    // Status changes relayed from the transaction-service outbox
+    @PostMapping("/events")
+    public ResponseEntity<TransactionEventResultDTO> receiveTransactionEvents(@RequestBody List<TransactionEventDTO> events) {
+        return ResponseEntity.ok(transactionEventService.applyEvents(events));
+    }
+
+    @PutMapping("/totals/reconcile")
+    public ResponseEntity<Map<String, Integer>> reconcileTotals() {
+        return ResponseEntity.ok(Map.of("correctedCount", fineService.reconcileTotals()));
+    }
+
+    @PutMapping("/accrue")
+    public ResponseEntity<Map<String, Integer>> accrueLateReturnFines() {
+        return ResponseEntity.ok(Map.of("updatedCount", fineService.accrueLateReturnFines()));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteFine(@PathVariable Long id) {
         if (fineService.deleteFine(id)) {
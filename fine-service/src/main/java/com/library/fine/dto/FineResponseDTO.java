@@ -1,8 +1,13 @@
 package com.library.fine.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 public class FineResponseDTO {
 
     private FineDTO fineDTO;
+
+    // Left out of the JSON when the caller asked for fines without their transaction
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private BorrowingTransactionResponseDTO borrowingTransactionResponseDTO;
 
     public FineResponseDTO() {
@@ -0,0 +1,21 @@
+package com.library.fine.dto;
+
+public class IdRangeDTO {
+    private Long minId;
+    private Long maxId;
+
+    // Constructors
+    public IdRangeDTO() {}
+
+    public IdRangeDTO(Long minId, Long maxId) {
+        this.minId = minId;
+        this.maxId = maxId;
+    }
+
+    // Getters and Setters
+    public Long getMinId() { return minId; }
+    public void setMinId(Long minId) { this.minId = minId; }
+
+    public Long getMaxId() { return maxId; }
+    public void setMaxId(Long maxId) { this.maxId = maxId; }
+}
@@ -0,0 +1,33 @@
+package com.library.fine.dto;
+
+import java.time.LocalDate;
+
+public class OverdueTransactionDTO {
+    private Long transactionId;
+    private Long bookId;
+    private Long memberId;
+    private LocalDate dueDate;
+
+    // Constructors
+    public OverdueTransactionDTO() {}
+
+    public OverdueTransactionDTO(Long transactionId, Long bookId, Long memberId, LocalDate dueDate) {
+        this.transactionId = transactionId;
+        this.bookId = bookId;
+        this.memberId = memberId;
+        this.dueDate = dueDate;
+    }
+
+    // Getters and Setters
+    public Long getTransactionId() { return transactionId; }
+    public void setTransactionId(Long transactionId) { this.transactionId = transactionId; }
+
+    public Long getBookId() { return bookId; }
+    public void setBookId(Long bookId) { this.bookId = bookId; }
+
+    public Long getMemberId() { return memberId; }
+    public void setMemberId(Long memberId) { this.memberId = memberId; }
+
+    public LocalDate getDueDate() { return dueDate; }
+    public void setDueDate(LocalDate dueDate) { this.dueDate = dueDate; }
+}
@@ -0,0 +1,55 @@
+package com.library.fine.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+public class TransactionEventDTO {
+    private Long eventId;
+    private String eventType;
+    private Long transactionId;
+    private Long memberId;
+    private Long bookId;
+    private LocalDate dueDate;
+    private LocalDate returnDate;
+    private LocalDateTime occurredAt;
+
+    // Constructors
+    public TransactionEventDTO() {}
+
+    public TransactionEventDTO(Long eventId, String eventType, Long transactionId, Long memberId, Long bookId,
+                               LocalDate dueDate, LocalDate returnDate, LocalDateTime occurredAt) {
+        this.eventId = eventId;
+        this.eventType = eventType;
+        this.transactionId = transactionId;
+        this.memberId = memberId;
+        this.bookId = bookId;
+        this.dueDate = dueDate;
+        this.returnDate = returnDate;
+        this.occurredAt = occurredAt;
+    }
+
+    // Getters and Setters
+    public Long getEventId() { return eventId; }
+    public void setEventId(Long eventId) { this.eventId = eventId; }
+
+    public String getEventType() { return eventType; }
+    public void setEventType(String eventType) { this.eventType = eventType; }
+
+    public Long getTransactionId() { return transactionId; }
+    public void setTransactionId(Long transactionId) { this.transactionId = transactionId; }
+
+    public Long getMemberId() { return memberId; }
+    public void setMemberId(Long memberId) { this.memberId = memberId; }
+
+    public Long getBookId() { return bookId; }
+    public void setBookId(Long bookId) { this.bookId = bookId; }
+
+    public LocalDate getDueDate() { return dueDate; }
+    public void setDueDate(LocalDate dueDate) { this.dueDate = dueDate; }
+
+    public LocalDate getReturnDate() { return returnDate; }
+    public void setReturnDate(LocalDate returnDate) { this.returnDate = returnDate; }
+
+    public LocalDateTime getOccurredAt() { return occurredAt; }
+    public void setOccurredAt(LocalDateTime occurredAt) { this.occurredAt = occurredAt; }
+}
@@ -0,0 +1,25 @@
+package com.library.fine.dto;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Outcome of one relayed batch: events applied, and the error of each event that could not be
+public class TransactionEventResultDTO {
+    private int appliedCount;
+    private Map<Long, String> failures = new HashMap<>();
+
+    // Constructors
+    public TransactionEventResultDTO() {}
+
+    public TransactionEventResultDTO(int appliedCount, Map<Long, String> failures) {
+        this.appliedCount = appliedCount;
+        this.failures = failures;
+    }
+
+    // Getters and Setters
+    public int getAppliedCount() { return appliedCount; }
+    public void setAppliedCount(int appliedCount) { this.appliedCount = appliedCount; }
+
+    public Map<Long, String> getFailures() { return failures; }
+    public void setFailures(Map<Long, String> failures) { this.failures = failures; }
+}
@@ -0,0 +1,53 @@
+package com.library.fine.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Cluster-wide lease on a scheduled job; only the instance in locked_by runs it until locked_until
+@Entity
+@Table(name = "job_locks")
+public class JobLock {
+    @Id
+    @Column(name = "job_name", length = 100)
+    private String jobName;
+
+    @Column(name = "locked_by")
+    private String lockedBy;
+
+    @Column(name = "locked_at")
+    private LocalDateTime lockedAt;
+
+    @Column(name = "locked_until", nullable = false)
+    private LocalDateTime lockedUntil;
+
+    // Scheduled window of the last run that succeeded, e.g. the date of a nightly job
+    @Column(name = "completed_window", length = 50)
+    private String completedWindow;
+
+    // Constructors
+    public JobLock() {
+    }
+
+    public JobLock(String jobName, String lockedBy, LocalDateTime lockedAt, LocalDateTime lockedUntil) {
+        this.jobName = jobName;
+        this.lockedBy = lockedBy;
+        this.lockedAt = lockedAt;
+        this.lockedUntil = lockedUntil;
+    }
+
+    // Getters and Setters
+    public String getJobName() { return jobName; }
+    public void setJobName(String jobName) { this.jobName = jobName; }
+
+    public String getLockedBy() { return lockedBy; }
+    public void setLockedBy(String lockedBy) { this.lockedBy = lockedBy; }
+
+    public LocalDateTime getLockedAt() { return lockedAt; }
+    public void setLockedAt(LocalDateTime lockedAt) { this.lockedAt = lockedAt; }
+
+    public LocalDateTime getLockedUntil() { return lockedUntil; }
+    public void setLockedUntil(LocalDateTime lockedUntil) { this.lockedUntil = lockedUntil; }
+
+    public String getCompletedWindow() { return completedWindow; }
+    public void setCompletedWindow(String completedWindow) { this.completedWindow = completedWindow; }
+}
@@ -0,0 +1,110 @@
+package com.library.fine.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// One ID range of a partitioned job run and how far it got; the ranges of a run stay fixed until it completes
+@Entity
+@Table(name = "job_partitions")
+public class JobPartition {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "partition_id")
+    private Long partitionId;
+
+    @Column(name = "job_name", length = 100, nullable = false)
+    private String jobName;
+
+    @Column(name = "partition_no", nullable = false)
+    private int partitionNo;
+
+    @Column(name = "run_date")
+    private LocalDate runDate;
+
+    // Exclusive lower and inclusive upper bound of the IDs this partition covers
+    @Column(name = "from_id", nullable = false)
+    private long fromId;
+
+    @Column(name = "to_id", nullable = false)
+    private long toId;
+
+    @Column(name = "last_id")
+    private Long lastId;
+
+    @Column(name = "processed", nullable = false)
+    private int processed;
+
+    @Column(name = "completed", nullable = false)
+    private boolean completed;
+
+    // Instance working on this range and until when, renewed with every checkpoint
+    @Column(name = "claimed_by")
+    private String claimedBy;
+
+    @Column(name = "claimed_until")
+    private LocalDateTime claimedUntil;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    // Constructors
+    public JobPartition() {
+    }
+
+    public JobPartition(String jobName, int partitionNo, LocalDate runDate, long fromId, long toId) {
+        this.jobName = jobName;
+        this.partitionNo = partitionNo;
+        this.runDate = runDate;
+        this.fromId = fromId;
+        this.toId = toId;
+    }
+
+    // Where the next page starts, after a crash this is the last committed page
+    public long resumeAfter() {
+        return lastId != null ? lastId : fromId;
+    }
+
+    // Getters and Setters
+    public Long getPartitionId() { return partitionId; }
+    public void setPartitionId(Long partitionId) { this.partitionId = partitionId; }
+
+    public String getJobName() { return jobName; }
+    public void setJobName(String jobName) { this.jobName = jobName; }
+
+    public int getPartitionNo() { return partitionNo; }
+    public void setPartitionNo(int partitionNo) { this.partitionNo = partitionNo; }
+
+    public LocalDate getRunDate() { return runDate; }
+    public void setRunDate(LocalDate runDate) { this.runDate = runDate; }
+
+    public long getFromId() { return fromId; }
+    public void setFromId(long fromId) { this.fromId = fromId; }
+
+    public long getToId() { return toId; }
+    public void setToId(long toId) { this.toId = toId; }
+
+    public Long getLastId() { return lastId; }
+    public void setLastId(Long lastId) { this.lastId = lastId; }
+
+    public int getProcessed() { return processed; }
+    public void setProcessed(int processed) { this.processed = processed; }
+
+    public boolean isCompleted() { return completed; }
+    public void setCompleted(boolean completed) { this.completed = completed; }
+
+    public String getClaimedBy() { return claimedBy; }
+    public void setClaimedBy(String claimedBy) { this.claimedBy = claimedBy; }
+
+    public LocalDateTime getClaimedUntil() { return claimedUntil; }
+    public void setClaimedUntil(LocalDateTime claimedUntil) { this.claimedUntil = claimedUntil; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
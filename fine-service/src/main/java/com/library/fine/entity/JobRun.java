@@ -0,0 +1,75 @@
+package com.library.fine.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// One execution of a scheduled job on one instance
+@Entity
+@Table(name = "job_runs")
+public class JobRun {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "run_id")
+    private Long runId;
+
+    @Column(name = "job_name", length = 100, nullable = false)
+    private String jobName;
+
+    @Column(name = "instance_id", nullable = false)
+    private String instanceId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 20, nullable = false)
+    private RunStatus status = RunStatus.RUNNING;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    @Column(name = "processed")
+    private Integer processed;
+
+    @Column(name = "error", length = 500)
+    private String error;
+
+    // Constructors
+    public JobRun() {
+    }
+
+    public JobRun(String jobName, String instanceId) {
+        this.jobName = jobName;
+        this.instanceId = instanceId;
+        this.startedAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getRunId() { return runId; }
+    public void setRunId(Long runId) { this.runId = runId; }
+
+    public String getJobName() { return jobName; }
+    public void setJobName(String jobName) { this.jobName = jobName; }
+
+    public String getInstanceId() { return instanceId; }
+    public void setInstanceId(String instanceId) { this.instanceId = instanceId; }
+
+    public RunStatus getStatus() { return status; }
+    public void setStatus(RunStatus status) { this.status = status; }
+
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(LocalDateTime finishedAt) { this.finishedAt = finishedAt; }
+
+    public Integer getProcessed() { return processed; }
+    public void setProcessed(Integer processed) { this.processed = processed; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+
+    public enum RunStatus {
+        RUNNING, SUCCEEDED, FAILED
+    }
+}
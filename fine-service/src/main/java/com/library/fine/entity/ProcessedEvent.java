@@ -0,0 +1,39 @@
+package com.library.fine.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Transaction events already applied, redeliveries of the same event ID are skipped
+@Entity
+@Table(name = "processed_events")
+public class ProcessedEvent {
+    @Id
+    @Column(name = "event_id")
+    private Long eventId;
+
+    @Column(name = "event_type", length = 30, nullable = false)
+    private String eventType;
+
+    @Column(name = "processed_at", nullable = false)
+    private LocalDateTime processedAt;
+
+    // Constructors
+    public ProcessedEvent() {
+    }
+
+    public ProcessedEvent(Long eventId, String eventType) {
+        this.eventId = eventId;
+        this.eventType = eventType;
+        this.processedAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getEventId() { return eventId; }
+    public void setEventId(Long eventId) { this.eventId = eventId; }
+
+    public String getEventType() { return eventType; }
+    public void setEventType(String eventType) { this.eventType = eventType; }
+
+    public LocalDateTime getProcessedAt() { return processedAt; }
+    public void setProcessedAt(LocalDateTime processedAt) { this.processedAt = processedAt; }
+}
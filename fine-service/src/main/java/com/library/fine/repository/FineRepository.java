@@ -1,15 +1,26 @@
 package com.library.fine.repository;
 
 import com.library.fine.entity.Fine;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface FineRepository extends JpaRepository<Fine, Long> {
@@ -22,9 +33,45 @@ public interface FineRepository extends JpaRepository<Fine, Long> {
 
     Optional<Fine> findByTransactionIdAndFineType(Long transactionId, Fine.FineType fineType);
 
+    // At most one row, guaranteed by the unique key on active fines
+    @Query("SELECT f FROM Fine f WHERE f.transactionId = :transactionId AND f.fineType = :fineType " +
+            "AND f.status <> 'CANCELLED'")
+    Optional<Fine> findActiveFine(@Param("transactionId") Long transactionId, @Param("fineType") Fine.FineType fineType);
+
+    // Locking read of the same row, so its amount is the one a following upsert replaces. With no
+    // active fine, InnoDB locks the key's gap instead and a concurrent insert of it waits for us.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT f FROM Fine f WHERE f.transactionId = :transactionId AND f.fineType = :fineType " +
+            "AND f.status <> 'CANCELLED'")
+    Optional<Fine> lockActiveFine(@Param("transactionId") Long transactionId, @Param("fineType") Fine.FineType fineType);
+
     @Query("SELECT COALESCE(SUM(f.amount), 0) FROM Fine f WHERE f.memberId = :memberId AND f.status = 'PENDING'")
     BigDecimal getTotalPendingFinesByMember(@Param("memberId") Long memberId);
 
+    @Query("SELECT COALESCE(SUM(f.amount), 0) FROM Fine f WHERE f.memberId = :memberId AND f.status = 'PAID'")
+    BigDecimal getTotalPaidFinesByMember(@Param("memberId") Long memberId);
+
+    // Source of truth for the fine_totals reconciliation
+    @Query("SELECT f.memberId AS memberId, " +
+            "SUM(CASE WHEN f.status = 'PENDING' THEN f.amount ELSE 0 END) AS pending, " +
+            "SUM(CASE WHEN f.status = 'PAID' THEN f.amount ELSE 0 END) AS paid " +
+            "FROM Fine f GROUP BY f.memberId")
+    List<MemberFineSums> sumAmountsByMember();
+
+    @Query("SELECT f.memberId AS memberId, " +
+            "SUM(CASE WHEN f.status = 'PENDING' THEN f.amount ELSE 0 END) AS pending, " +
+            "SUM(CASE WHEN f.status = 'PAID' THEN f.amount ELSE 0 END) AS paid " +
+            "FROM Fine f WHERE f.memberId IN :memberIds GROUP BY f.memberId")
+    List<MemberFineSums> sumAmountsByMembers(@Param("memberIds") Collection<Long> memberIds);
+
+    // Members with pending or paid fines written from changedSince on, read from the status/updated_at index
+    @Query("SELECT DISTINCT f.memberId FROM Fine f WHERE f.status IN ('PENDING', 'PAID') AND f.updatedAt >= :changedSince")
+    List<Long> findMemberIdsChangedSince(@Param("changedSince") LocalDateTime changedSince);
+
+    // The clock fines.updated_at is stamped with
+    @Query(value = "SELECT LOCALTIMESTAMP(6)", nativeQuery = true)
+    LocalDateTime currentTimestamp();
+
     @Query("SELECT f FROM Fine f WHERE f.memberId = :memberId AND f.status = 'PENDING'")
     List<Fine> findPendingFinesByMember(@Param("memberId") Long memberId);
 
@@ -33,4 +80,39 @@ public interface FineRepository extends JpaRepository<Fine, Long> {
 
     @Query("SELECT COALESCE(SUM(f.amount), 0) FROM Fine f WHERE f.status = 'PAID'")
     BigDecimal getTotalCollectedFines();
+
+    @Query("SELECT COALESCE(MAX(f.fineId), 0) FROM Fine f")
+    Long findMaxFineId();
+
+    // Recomputes pending late-return amounts in one fine_id window from the stored due date, return date and rate
+    @Modifying
+    @Query("UPDATE Fine f SET f.amount = f.dailyRate * ((COALESCE(f.returnDate, :today) - f.dueDate) by day) " +
+            "WHERE f.fineId > :fromId AND f.fineId <= :toId AND f.status = 'PENDING' AND f.fineType = 'LATE_RETURN' " +
+            "AND f.dailyRate IS NOT NULL AND f.dueDate < COALESCE(f.returnDate, :today)")
+    int accrueLateReturnFines(@Param("fromId") Long fromId, @Param("toId") Long toId, @Param("today") LocalDate today);
+
+    List<Fine> findByFineIdGreaterThanOrderByFineIdAsc(Long fineId, Limit limit);
+
+    // Pending fines changed after (changedAfter, afterId) and before changedBefore, in (updated_at, fine_id) order
+    @Query("SELECT f FROM Fine f WHERE f.status = 'PENDING' AND f.updatedAt >= :changedAfter " +
+           "AND f.updatedAt < :changedBefore " +
+           "AND (f.updatedAt > :changedAfter OR f.fineId > :afterId) " +
+           "ORDER BY f.updatedAt, f.fineId")
+    List<Fine> findPendingChangedAfter(@Param("changedAfter") LocalDateTime changedAfter,
+                                       @Param("afterId") Long afterId,
+                                       @Param("changedBefore") LocalDateTime changedBefore,
+                                       Limit limit);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT f FROM Fine f ORDER BY f.fineId")
+    Stream<Fine> streamAll();
+
+    interface MemberFineSums {
+        Long getMemberId();
+        BigDecimal getPending();
+        BigDecimal getPaid();
+    }
 }
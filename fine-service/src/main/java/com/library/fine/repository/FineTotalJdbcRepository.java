@@ -0,0 +1,38 @@
+package com.library.fine.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+// Adds deltas to fine_totals in place, so concurrent writers never overwrite each other's sums
+@Repository
+public class FineTotalJdbcRepository {
+
+    private static final String ADD_SQL =
+            "UPDATE fine_totals SET pending_amount = pending_amount + ?, paid_amount = paid_amount + ?, " +
+            "updated_at = ? WHERE member_id = ?";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO fine_totals (member_id, pending_amount, paid_amount, updated_at) VALUES (?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public void addToTotal(Long memberId, BigDecimal pendingDelta, BigDecimal paidDelta) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        if (jdbcTemplate.update(ADD_SQL, pendingDelta, paidDelta, now, memberId) > 0) {
+            return;
+        }
+        try {
+            jdbcTemplate.update(INSERT_SQL, memberId, pendingDelta, paidDelta, now);
+        } catch (DuplicateKeyException e) {
+            // Another transaction created the row first
+            jdbcTemplate.update(ADD_SQL, pendingDelta, paidDelta, now, memberId);
+        }
+    }
+}
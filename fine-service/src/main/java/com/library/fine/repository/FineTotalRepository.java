@@ -0,0 +1,28 @@
+package com.library.fine.repository;
+
+import com.library.fine.entity.FineTotal;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+@Repository
+public interface FineTotalRepository extends JpaRepository<FineTotal, Long> {
+
+    // Waits for in-flight fine changes of this member to commit before the row is rewritten
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM FineTotal t WHERE t.memberId = :memberId")
+    Optional<FineTotal> lockByMemberId(@Param("memberId") Long memberId);
+
+    // Totals over all members come from the per-member rows, far fewer than the fines they sum
+    @Query("SELECT COALESCE(SUM(t.pendingAmount), 0) FROM FineTotal t")
+    BigDecimal sumPendingAmounts();
+
+    @Query("SELECT COALESCE(SUM(t.paidAmount), 0) FROM FineTotal t")
+    BigDecimal sumPaidAmounts();
+}
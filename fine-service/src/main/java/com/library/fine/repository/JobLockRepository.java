@@ -0,0 +1,54 @@
+package com.library.fine.repository;
+
+import com.library.fine.entity.JobLock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+// Lease times come from the database clock, so clock skew between replicas cannot decide who holds a job
+@Repository
+public interface JobLockRepository extends JpaRepository<JobLock, String> {
+
+    // Takes over the lease once it expired, unless this window's run already completed; the row lock makes
+    // concurrent attempts queue up
+    @Modifying
+    @Query(value = "UPDATE job_locks SET locked_by = :owner, locked_at = LOCALTIMESTAMP(6), " +
+            "locked_until = TIMESTAMPADD(SECOND, :leaseSeconds, LOCALTIMESTAMP(6)) " +
+            "WHERE job_name = :jobName AND locked_until <= LOCALTIMESTAMP(6) " +
+            "AND (completed_window IS NULL OR completed_window <> :window)", nativeQuery = true)
+    int acquire(@Param("jobName") String jobName, @Param("owner") String owner, @Param("window") String window,
+                @Param("leaseSeconds") long leaseSeconds);
+
+    // First run of the job; a concurrent first insert loses on the primary key
+    @Modifying
+    @Query(value = "INSERT INTO job_locks (job_name, locked_by, locked_at, locked_until) " +
+            "VALUES (:jobName, :owner, LOCALTIMESTAMP(6), TIMESTAMPADD(SECOND, :leaseSeconds, LOCALTIMESTAMP(6)))",
+            nativeQuery = true)
+    int insertLease(@Param("jobName") String jobName, @Param("owner") String owner,
+                    @Param("leaseSeconds") long leaseSeconds);
+
+    // Extends the lease of a run still in progress; 0 when another instance took it over
+    @Modifying
+    @Query(value = "UPDATE job_locks SET locked_until = TIMESTAMPADD(SECOND, :leaseSeconds, LOCALTIMESTAMP(6)) " +
+            "WHERE job_name = :jobName AND locked_by = :owner", nativeQuery = true)
+    int renew(@Param("jobName") String jobName, @Param("owner") String owner,
+              @Param("leaseSeconds") long leaseSeconds);
+
+    // Ends a successful run; the window stays marked done, so a late replica does not run it again
+    @Modifying
+    @Query(value = "UPDATE job_locks SET locked_until = LOCALTIMESTAMP(6), completed_window = :window " +
+            "WHERE job_name = :jobName AND locked_by = :owner", nativeQuery = true)
+    int complete(@Param("jobName") String jobName, @Param("owner") String owner, @Param("window") String window);
+
+    // Ends a failed run; the window stays open for a retry
+    @Modifying
+    @Query(value = "UPDATE job_locks SET locked_until = LOCALTIMESTAMP(6) " +
+            "WHERE job_name = :jobName AND locked_by = :owner", nativeQuery = true)
+    int release(@Param("jobName") String jobName, @Param("owner") String owner);
+
+    @Query(value = "SELECT COUNT(*) FROM job_locks WHERE job_name = :jobName AND locked_by <> :owner " +
+            "AND locked_until > LOCALTIMESTAMP(6)", nativeQuery = true)
+    long countHeldElsewhere(@Param("jobName") String jobName, @Param("owner") String owner);
+}
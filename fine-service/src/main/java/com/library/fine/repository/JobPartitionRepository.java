@@ -0,0 +1,33 @@
+package com.library.fine.repository;
+
+import com.library.fine.entity.JobPartition;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface JobPartitionRepository extends JpaRepository<JobPartition, Long> {
+
+    List<JobPartition> findByJobNameOrderByPartitionNoAsc(String jobName);
+
+    // Succeeds for unfinished ranges nobody works on, or whose worker stopped renewing its claim
+    @Modifying
+    @Query("UPDATE JobPartition p SET p.claimedBy = :owner, p.claimedUntil = :until " +
+           "WHERE p.partitionId = :partitionId AND p.completed = false " +
+           "AND (p.claimedUntil IS NULL OR p.claimedUntil <= :now)")
+    int claim(@Param("partitionId") Long partitionId, @Param("owner") String owner,
+              @Param("now") LocalDateTime now, @Param("until") LocalDateTime until);
+
+    @Modifying
+    @Query("UPDATE JobPartition p SET p.claimedUntil = NULL WHERE p.partitionId = :partitionId AND p.claimedBy = :owner")
+    int releaseClaim(@Param("partitionId") Long partitionId, @Param("owner") String owner);
+
+    @Modifying
+    @Query("DELETE FROM JobPartition p WHERE p.jobName = :jobName")
+    int deleteByJobName(@Param("jobName") String jobName);
+}
@@ -0,0 +1,15 @@
+package com.library.fine.repository;
+
+import com.library.fine.entity.JobRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface JobRunRepository extends JpaRepository<JobRun, Long> {
+
+    List<JobRun> findTop20ByOrderByRunIdDesc();
+
+    List<JobRun> findTop20ByJobNameOrderByRunIdDesc(String jobName);
+}
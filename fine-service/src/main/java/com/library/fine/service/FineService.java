@@ -2,23 +2,42 @@ package com.library.fine.service;
 
 import com.library.fine.client.TransactionServiceClient;
 import com.library.fine.dto.BorrowingTransactionResponseDTO;
+import com.library.fine.dto.CursorPageDTO;
 import com.library.fine.dto.FineDTO;
 import com.library.fine.dto.FineResponseDTO;
+import com.library.fine.dto.PendingFineChangeDTO;
 import com.library.fine.entity.Fine;
 import com.library.fine.entity.Fine.FineType;
+import com.library.fine.repository.FineJdbcRepository;
 import com.library.fine.repository.FineRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
@@ -27,19 +46,152 @@ public class FineService {
     @Autowired
     private FineRepository fineRepository;
 
+    @Autowired
+    private FineJdbcRepository fineJdbcRepository;
+
+    @Autowired
+    private OverdueFineJob overdueFineJob;
+
+    @Autowired
+    private JobLockService jobLockService;
+
     @Autowired
     private TransactionServiceClient transactionServiceClient;
 
-    private static final BigDecimal DAILY_FINE_RATE = new BigDecimal("10.0"); // Rs.10 per day
+    @Autowired
+    private PlatformTransactionManager transactionManager;
 
-    public List<FineResponseDTO> getAllFines() {
-        return fineRepository.findAll().stream()
-                .map(fine -> {
-                    BorrowingTransactionResponseDTO transaction = transactionServiceClient
-                            .getTransactionById(fine.getTransactionId());
-                    return new FineResponseDTO(convertToDTO(fine), transaction);
-                })
+    @Autowired
+    private FineTotalsService fineTotalsService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    static final long DAILY_FINE_RATE_PAISE = 1000L; // Rs.10 per day
+
+    static final BigDecimal DAILY_FINE_RATE = Paise.toRupees(DAILY_FINE_RATE_PAISE);
+
+    private static final int MAX_PAGE_SIZE = 500;
+
+    // Watermark used when a feed reader has none yet, older than any fine
+    private static final LocalDateTime FEED_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    // Rows are mapped in chunks of this size while streaming
+    private static final int STREAM_CHUNK_SIZE = 500;
+
+    // Upper bound on IDs per bulk transaction lookup, keeps the query string well below URL limits
+    @Value("${fine.transaction-lookup.batch-size:200}")
+    private int transactionBatchSize = 200;
+
+    private int accrualChunkSize;
+
+    private Duration feedCommitLag = Duration.ofMinutes(5);
+
+    // fine_id window per accrual UPDATE, each window commits on its own
+    @Value("${fine.accrual.chunk-size:10000}")
+    void setAccrualChunkSize(int accrualChunkSize) {
+        this.accrualChunkSize = accrualChunkSize;
+    }
+
+    // updated_at is stamped when a statement runs, not when it commits. The feed leaves out rows younger
+    // than this, so a row stamped before a reader's watermark but committed after it is not skipped.
+    // Must exceed the longest fine-writing transaction, such as one accrual chunk.
+    @Value("${fine.pending-feed.commit-lag:PT5M}")
+    void setFeedCommitLag(Duration feedCommitLag) {
+        this.feedCommitLag = feedCommitLag;
+    }
+
+    public List<FineResponseDTO> getAllFines(boolean includeTransaction) {
+        return toResponses(fineRepository.findAll(), includeTransaction);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageDTO<FineResponseDTO> getFinesPage(Long after, int size, boolean includeTransaction) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // Fetch one extra row to learn whether another page exists
+        List<Fine> rows = fineRepository.findByFineIdGreaterThanOrderByFineIdAsc(
+                after == null ? 0L : after, Limit.of(pageSize + 1));
+        boolean hasMore = rows.size() > pageSize;
+        List<FineResponseDTO> items = toResponses(hasMore ? rows.subList(0, pageSize) : rows, includeTransaction);
+        Long nextCursor = hasMore ? rows.get(pageSize - 1).getFineId() : null;
+        return new CursorPageDTO<>(items, nextCursor, hasMore);
+    }
+
+    // Pending fines changed after (changedAfter, after), in change order; the caller keeps the last item as its watermark
+    @Transactional(readOnly = true)
+    public CursorPageDTO<PendingFineChangeDTO> getPendingFineChanges(LocalDateTime changedAfter, Long after, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        List<Fine> rows = fineRepository.findPendingChangedAfter(changedAfter == null ? FEED_START : changedAfter,
+                after == null ? 0L : after, LocalDateTime.now().minus(feedCommitLag), Limit.of(pageSize + 1));
+        boolean hasMore = rows.size() > pageSize;
+        List<Fine> page = hasMore ? rows.subList(0, pageSize) : rows;
+        Map<Long, BorrowingTransactionResponseDTO> transactions = fetchTransactions(page.stream()
+                .map(Fine::getTransactionId)
+                .collect(Collectors.toCollection(LinkedHashSet::new)));
+        List<PendingFineChangeDTO> items = page.stream()
+                .map(fine -> toPendingChange(fine, transactions.get(fine.getTransactionId())))
                 .collect(Collectors.toList());
+        Long nextCursor = hasMore ? rows.get(pageSize - 1).getFineId() : null;
+        return new CursorPageDTO<>(items, nextCursor, hasMore);
+    }
+
+    private PendingFineChangeDTO toPendingChange(Fine fine, BorrowingTransactionResponseDTO transaction) {
+        PendingFineChangeDTO dto = new PendingFineChangeDTO();
+        dto.setFineId(fine.getFineId());
+        dto.setMemberId(fine.getMemberId());
+        dto.setAmount(fine.getAmount());
+        dto.setFineType(fine.getFineType().name());
+        dto.setUpdatedAt(fine.getUpdatedAt());
+        if (transaction != null && transaction.getMember() != null) {
+            dto.setMemberName(transaction.getMember().getName());
+            dto.setMemberEmail(transaction.getMember().getEmail());
+        }
+        if (transaction != null && transaction.getBook() != null) {
+            dto.setBookTitle(transaction.getBook().getTitle());
+        }
+        return dto;
+    }
+
+    @Transactional(readOnly = true)
+    public void streamAllFines(Consumer<FineResponseDTO> sink, boolean includeTransaction) {
+        List<Fine> chunk = new ArrayList<>(STREAM_CHUNK_SIZE);
+        try (Stream<Fine> fines = fineRepository.streamAll()) {
+            fines.forEach(fine -> {
+                chunk.add(fine);
+                // Keep the persistence context from growing with the result set
+                entityManager.detach(fine);
+                if (chunk.size() == STREAM_CHUNK_SIZE) {
+                    toResponses(chunk, includeTransaction).forEach(sink);
+                    chunk.clear();
+                }
+            });
+        }
+        toResponses(chunk, includeTransaction).forEach(sink);
+    }
+
+    // Resolves each distinct transaction once through the bulk endpoint instead of one call per fine
+    private List<FineResponseDTO> toResponses(List<Fine> fines, boolean includeTransaction) {
+        Map<Long, BorrowingTransactionResponseDTO> transactions = includeTransaction
+                ? fetchTransactions(fines.stream()
+                        .map(Fine::getTransactionId)
+                        .collect(Collectors.toCollection(LinkedHashSet::new)))
+                : Map.of();
+        return fines.stream()
+                .map(fine -> new FineResponseDTO(convertToDTO(fine), transactions.get(fine.getTransactionId())))
+                .collect(Collectors.toList());
+    }
+
+    private Map<Long, BorrowingTransactionResponseDTO> fetchTransactions(Set<Long> transactionIds) {
+        Map<Long, BorrowingTransactionResponseDTO> byId = new HashMap<>();
+        List<Long> all = new ArrayList<>(transactionIds);
+        for (int from = 0; from < all.size(); from += transactionBatchSize) {
+            List<BorrowingTransactionResponseDTO> loaded = transactionServiceClient.getTransactionsByIds(
+                    all.subList(from, Math.min(from + transactionBatchSize, all.size())));
+            if (loaded != null) {
+                loaded.forEach(transaction -> byId.put(transaction.getTransactionId(), transaction));
+            }
+        }
+        return byId;
     }
 
     public Optional<FineResponseDTO> getFineById(Long id) {
@@ -52,26 +204,24 @@ public class FineService {
 
     }
 
-    public List<FineResponseDTO> getFinesByMemberId(Long memberId) {
-        return fineRepository.findByMemberId(memberId).stream()
-                .map(fine -> {
-                    BorrowingTransactionResponseDTO transaction = transactionServiceClient
-                            .getTransactionById(fine.getTransactionId());
-                    return new FineResponseDTO(convertToDTO(fine), transaction);
-                })
-                .collect(Collectors.toList());
+    public List<FineResponseDTO> getFinesByMemberId(Long memberId, boolean includeTransaction) {
+        return toResponses(fineRepository.findByMemberId(memberId), includeTransaction);
     }
 
     public BigDecimal getTotalPendingFines() {
-        return fineRepository.getTotalPendingFines();
+        return fineTotalsService.getPendingTotal();
     }
 
     public BigDecimal getTotalCollectedFines() {
-        return fineRepository.getTotalCollectedFines();
+        return fineTotalsService.getPaidTotal();
     }
 
     public BigDecimal getTotalPendingFinesByMember(Long memberId) {
-        return fineRepository.getTotalPendingFinesByMember(memberId);
+        return fineTotalsService.getPendingTotal(memberId);
+    }
+
+    public int reconcileTotals() {
+        return fineTotalsService.reconcile();
     }
 
     public FineResponseDTO createFine(Long transactionId, FineType fineType, BigDecimal amount) {
@@ -86,40 +236,47 @@ public class FineService {
         LocalDate currentDate = LocalDate.now();
         int overdueDays = (int) ChronoUnit.DAYS.between(dueDate, currentDate);
 
-        // 4. Check if fine already exists for this transaction and type
-        Optional<Fine> existingFineOpt = fineRepository.findByTransactionIdAndFineType(transactionId, fineType);
-
-        if (existingFineOpt.isPresent()) {
-            Fine existingFine = existingFineOpt.get();
-
-            // 👉 Check if the existing fine is CANCELLED — allow new fine creation
-            if (existingFine.getStatus() != Fine.FineStatus.CANCELLED) {
-                if (fineType == FineType.LATE_RETURN) {
-                    // ✅ Update amount for LATE_RETURN fine
-                    BigDecimal updatedAmount = (amount != null)
-                            ? amount
-                            : DAILY_FINE_RATE.multiply(BigDecimal.valueOf(Math.max(overdueDays, 0)));
-
-                    existingFine.setAmount(updatedAmount);
-                    Fine updatedFine = fineRepository.save(existingFine);
-                    return new FineResponseDTO(convertToDTO(updatedFine), transaction);
-                } else {
-                    // ❌ Throw error for duplicate non-LATE_RETURN fines
-                    throw new RuntimeException(
-                            "Fine already exists for transaction ID: " + transactionId + " and TYPE: " + fineType);
-                }
-            }
-            // ✅ If CANCELLED, allow new fine to be created below
-        }
-
-        // 5. Calculate amount for new fine
+        // 4. Calculate amount for the fine
         BigDecimal finalAmount = (amount != null)
                 ? amount
-                : DAILY_FINE_RATE.multiply(BigDecimal.valueOf(Math.max(overdueDays, 0)));
-
-        // 6. Create and save new fine
+                : Paise.toRupees(Paise.perDay(DAILY_FINE_RATE_PAISE, overdueDays));
         Fine newFine = new Fine(memberId, transactionId, finalAmount, fineType);
-        Fine savedFine = fineRepository.save(newFine);
+
+        if (fineType == FineType.LATE_RETURN) {
+            // 5. ✅ Lock the active fine first, then one atomic upsert: updates it, or adds one if there is
+            // none or it was CANCELLED. The locked row tells the totals exactly which amount was replaced.
+            recordAccrualBasis(newFine, transaction);
+            Optional<Fine> active = fineRepository.lockActiveFine(transactionId, fineType);
+            Long insertedId = fineJdbcRepository.upsertLateReturnFine(newFine);
+            Fine savedFine;
+            if (active.isPresent()) {
+                savedFine = active.get();
+                // The row was written over JDBC, the detached copy only carries the new values to the response
+                entityManager.detach(savedFine);
+                fineTotalsService.recordChange(memberId, savedFine.getStatus(), savedFine.getAmount(),
+                        savedFine.getStatus(), finalAmount);
+                savedFine.setAmount(finalAmount);
+                savedFine.setDueDate(newFine.getDueDate());
+                savedFine.setReturnDate(newFine.getReturnDate());
+                savedFine.setDailyRate(newFine.getDailyRate());
+            } else {
+                savedFine = newFine;
+                savedFine.setFineId(insertedId);
+                savedFine.setTransactionDate(LocalDateTime.now());
+                fineTotalsService.recordChange(memberId, null, null, Fine.FineStatus.PENDING, finalAmount);
+            }
+            return new FineResponseDTO(convertToDTO(savedFine), transaction);
+        }
+
+        // 6. Create and save new fine, the unique key on active fines rejects duplicates of other types
+        Fine savedFine;
+        try {
+            savedFine = fineRepository.save(newFine);
+        } catch (DataIntegrityViolationException e) {
+            throw new RuntimeException(
+                    "Fine already exists for transaction ID: " + transactionId + " and TYPE: " + fineType);
+        }
+        fineTotalsService.recordChange(memberId, null, null, savedFine.getStatus(), finalAmount);
 
         return new FineResponseDTO(convertToDTO(savedFine), transaction);
     }
@@ -136,39 +293,83 @@ public class FineService {
                     fine.setStatus(Fine.FineStatus.PAID);
                     fine.setPaidDate(LocalDateTime.now());
                     Fine updatedFine = fineRepository.save(fine);
+                    fineTotalsService.recordChange(fine.getMemberId(), Fine.FineStatus.PENDING, fine.getAmount(),
+                            Fine.FineStatus.PAID, fine.getAmount());
                     return new FineResponseDTO(convertToDTO(updatedFine),
                             transactionServiceClient.getTransactionById(fine.getTransactionId()));
                 });
     }
 
     public boolean deleteFine(Long id) {
-        if (fineRepository.existsById(id)) {
-            fineRepository.deleteById(id);
-            return true;
-        }
-        return false;
+        return fineRepository.findById(id)
+                .map(fine -> {
+                    fineRepository.delete(fine);
+                    fineTotalsService.recordChange(fine.getMemberId(), fine.getStatus(), fine.getAmount(), null, null);
+                    return true;
+                })
+                .orElse(false);
     }
 
     @Scheduled(cron = "0 0 1 * * ?") // Run daily at 1 AM
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public String processOverdueFines() {
-        transactionServiceClient.updateOverdueTransactions();
+        // One instance runs the night's job, the others help with its partitions while it runs
+        LocalDate today = LocalDate.now();
+        Optional<Integer> processed = jobLockService.runExclusively(
+                OverdueFineJob.JOB_NAME, today.toString(), this::runOverdueFines);
+        if (processed.isEmpty()) {
+            int helped = jobLockService.runRecorded(OverdueFineJob.JOB_NAME, () -> overdueFineJob.assist(
+                    today, () -> jobLockService.isHeldElsewhere(OverdueFineJob.JOB_NAME)));
+            return "Overdue fines are being processed by another instance, helped with " + helped + " transactions";
+        }
+        return "Processing overdue fines at: " + LocalDateTime.now();
+    }
+
+    private int runOverdueFines() {
+        // Fines the job and the accrual write from here on bypass the per-fine totals bookkeeping
+        LocalDateTime changedSince = fineRepository.currentTimestamp();
+
         // Updates Transactions If They Are Overdue
-        List<BorrowingTransactionResponseDTO> allTransactions = transactionServiceClient.getAllTransactions();
+        transactionServiceClient.updateOverdueTransactions();
 
-        // Create fines for overdue transactions
-        allTransactions.forEach(transaction -> {
-            try {
-                if (transaction.getStatus().equals("OVERDUE")) {
-                    createFine(transaction.getTransactionId(), FineType.LATE_RETURN, null);
-                }
-            } catch (RuntimeException e) {
-                System.err.println("Failed to create fine for transaction ID " + transaction.getTransactionId() + ": "
-                        + e.getMessage());
-            }
-        });
+        // Only OVERDUE transactions are paged through, in ID ranges on a bounded pool
+        int processed = overdueFineJob.run(LocalDate.now());
+        System.out.println("Processed " + processed + " overdue transactions at: " + LocalDateTime.now());
 
-        System.out.println("Processing overdue fines at: " + LocalDateTime.now());
-        return "Processing overdue fines at: " + LocalDateTime.now();
+        // Amounts of all pending late fines, new and existing, are brought up to today locally
+        accrueLateReturnFines(changedSince);
+        return processed;
+    }
+
+    private void recordAccrualBasis(Fine fine, BorrowingTransactionResponseDTO transaction) {
+        fine.setDueDate(transaction.getDueDate());
+        fine.setReturnDate(transaction.getReturnDate());
+        fine.setDailyRate(DAILY_FINE_RATE);
+    }
+
+    // Recomputes every pending LATE_RETURN amount from its stored due date in chunked bulk UPDATEs,
+    // without calling transaction-service. Returns the number of fines updated.
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int accrueLateReturnFines() {
+        return accrueLateReturnFines(fineRepository.currentTimestamp());
+    }
+
+    private int accrueLateReturnFines(LocalDateTime changedSince) {
+        LocalDate today = LocalDate.now();
+        TransactionTemplate chunkTransaction = new TransactionTemplate(transactionManager);
+        long maxFineId = fineRepository.findMaxFineId();
+        int updated = 0;
+        for (long fromId = 0; fromId < maxFineId; fromId += accrualChunkSize) {
+            long toId = fromId + accrualChunkSize;
+            long windowStart = fromId;
+            updated += chunkTransaction.execute(
+                    status -> fineRepository.accrueLateReturnFines(windowStart, toId, today));
+        }
+        System.out.println("Accrued " + updated + " late return fines at: " + LocalDateTime.now());
+        // Only members whose fines the bulk updates, or the job's batch upserts, actually changed;
+        // updated_at only moves when a row's values did
+        fineTotalsService.reconcile(fineRepository.findMemberIdsChangedSince(changedSince));
+        return updated;
     }
 
     public Optional<FineResponseDTO> cancelFine(Long fineId) {
@@ -184,6 +385,8 @@ public class FineService {
                     fine.setStatus(Fine.FineStatus.CANCELLED);
                     // fine.setPaidDate(null); // Clear paid date if any
                     Fine updatedFine = fineRepository.save(fine);
+                    fineTotalsService.recordChange(fine.getMemberId(), Fine.FineStatus.PENDING, fine.getAmount(),
+                            Fine.FineStatus.CANCELLED, fine.getAmount());
 
                     return new FineResponseDTO(
                             convertToDTO(updatedFine),
@@ -201,6 +404,8 @@ public class FineService {
                     fine.setStatus(Fine.FineStatus.PENDING); // or PENDING if you use that enum name
                     fine.setPaidDate(null); // Clear payment date
                     Fine updatedFine = fineRepository.save(fine);
+                    fineTotalsService.recordChange(fine.getMemberId(), Fine.FineStatus.PAID, fine.getAmount(),
+                            Fine.FineStatus.PENDING, fine.getAmount());
 
                     return new FineResponseDTO(
                             convertToDTO(updatedFine),
@@ -0,0 +1,157 @@
+package com.library.fine.service;
+
+import com.library.fine.entity.Fine;
+import com.library.fine.entity.FineTotal;
+import com.library.fine.repository.FineRepository;
+import com.library.fine.repository.FineTotalJdbcRepository;
+import com.library.fine.repository.FineTotalRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps the PENDING and PAID sums per member in fine_totals, so the totals endpoints
+ * read one row per member instead of summing the fines table. Every single-fine
+ * change adds its delta to its member's row in the caller's transaction; there is no
+ * all-members row that every write would have to lock. Bulk jobs reconcile the
+ * members they changed, other missed deltas are caught by {@link #reconcile()}.
+ */
+@Service
+@Transactional
+public class FineTotalsService {
+
+    private static final int RECONCILE_CHUNK_SIZE = 500;
+
+    @Autowired
+    private FineTotalRepository fineTotalRepository;
+
+    @Autowired
+    private FineTotalJdbcRepository fineTotalJdbcRepository;
+
+    @Autowired
+    private FineRepository fineRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Transactional(readOnly = true)
+    public BigDecimal getPendingTotal() {
+        return fineTotalRepository.sumPendingAmounts();
+    }
+
+    @Transactional(readOnly = true)
+    public BigDecimal getPendingTotal(Long memberId) {
+        return fineTotalRepository.findById(memberId).map(FineTotal::getPendingAmount).orElse(BigDecimal.ZERO);
+    }
+
+    @Transactional(readOnly = true)
+    public BigDecimal getPaidTotal() {
+        return fineTotalRepository.sumPaidAmounts();
+    }
+
+    // Call with the fine's status and amount before and after the change; null means the fine did not exist
+    public void recordChange(Long memberId, Fine.FineStatus oldStatus, BigDecimal oldAmount,
+                             Fine.FineStatus newStatus, BigDecimal newAmount) {
+        long pendingDelta = paiseIn(Fine.FineStatus.PENDING, newStatus, newAmount)
+                - paiseIn(Fine.FineStatus.PENDING, oldStatus, oldAmount);
+        long paidDelta = paiseIn(Fine.FineStatus.PAID, newStatus, newAmount)
+                - paiseIn(Fine.FineStatus.PAID, oldStatus, oldAmount);
+        addDelta(memberId, pendingDelta, paidDelta);
+    }
+
+    private void addDelta(Long memberId, long pendingDelta, long paidDelta) {
+        if (pendingDelta == 0 && paidDelta == 0) {
+            return;
+        }
+        fineTotalJdbcRepository.addToTotal(memberId, Paise.toRupees(pendingDelta), Paise.toRupees(paidDelta));
+    }
+
+    private long paiseIn(Fine.FineStatus bucket, Fine.FineStatus status, BigDecimal amount) {
+        return status == bucket ? Paise.of(amount) : 0L;
+    }
+
+    // Compares every stored total with the fines table and rewrites the ones that drifted.
+    // Returns the number of rows corrected.
+    @Scheduled(fixedDelayString = "${fine.totals.reconcile-interval-ms:3600000}",
+            initialDelayString = "${fine.totals.reconcile-interval-ms:3600000}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int reconcile() {
+        Map<Long, FineTotal> stored = new HashMap<>();
+        fineTotalRepository.findAll().forEach(total -> stored.put(total.getMemberId(), total));
+        return correct(stored, fineRepository.sumAmountsByMember());
+    }
+
+    // Same check for the given members only, after a bulk job that changed their fines
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int reconcile(Collection<Long> memberIds) {
+        List<Long> members = new ArrayList<>(memberIds);
+        int corrected = 0;
+        for (int from = 0; from < members.size(); from += RECONCILE_CHUNK_SIZE) {
+            List<Long> chunk = members.subList(from, Math.min(from + RECONCILE_CHUNK_SIZE, members.size()));
+            Map<Long, FineTotal> stored = new HashMap<>();
+            fineTotalRepository.findAllById(chunk).forEach(total -> stored.put(total.getMemberId(), total));
+            corrected += correct(stored, fineRepository.sumAmountsByMembers(chunk));
+        }
+        return corrected;
+    }
+
+    // Fills fine_totals on the first start after it was introduced
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void seedIfEmpty() {
+        if (fineTotalRepository.count() == 0) {
+            reconcile();
+        }
+    }
+
+    private int correct(Map<Long, FineTotal> stored, List<FineRepository.MemberFineSums> actual) {
+        Set<Long> drifted = new HashSet<>();
+        for (FineRepository.MemberFineSums sums : actual) {
+            if (differs(stored.remove(sums.getMemberId()), Paise.of(sums.getPending()), Paise.of(sums.getPaid()))) {
+                drifted.add(sums.getMemberId());
+            }
+        }
+        // Members whose fines are all gone but still have a non-zero row
+        stored.values().stream()
+                .filter(total -> differs(total, 0, 0))
+                .forEach(total -> drifted.add(total.getMemberId()));
+
+        TransactionTemplate rowTransaction = new TransactionTemplate(transactionManager);
+        drifted.forEach(memberId -> rowTransaction.executeWithoutResult(status -> recompute(memberId)));
+        if (!drifted.isEmpty()) {
+            System.out.println("⚠️ Corrected " + drifted.size() + " drifted fine totals at: " + LocalDateTime.now());
+        }
+        return drifted.size();
+    }
+
+    // Locks the row first so the sums below see every fine change committed before ours
+    private void recompute(Long memberId) {
+        FineTotal total = fineTotalRepository.lockByMemberId(memberId).orElseGet(() -> new FineTotal(memberId));
+        total.setPendingAmount(fineRepository.getTotalPendingFinesByMember(memberId));
+        total.setPaidAmount(fineRepository.getTotalPaidFinesByMember(memberId));
+        fineTotalRepository.save(total);
+    }
+
+    private boolean differs(FineTotal total, long pendingPaise, long paidPaise) {
+        if (total == null) {
+            return pendingPaise != 0 || paidPaise != 0;
+        }
+        return Paise.of(total.getPendingAmount()) != pendingPaise || Paise.of(total.getPaidAmount()) != paidPaise;
+    }
+}
@@ -0,0 +1,188 @@
+package com.library.fine.service;
+
+import com.library.fine.entity.JobLock;
+import com.library.fine.entity.JobRun;
+import com.library.fine.repository.JobLockRepository;
+import com.library.fine.repository.JobRunRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+/**
+ * Makes sure a scheduled job runs on one instance of the service at a time, and once per
+ * scheduled window. The lease is a row in job_locks that an instance takes over with a
+ * conditional UPDATE once the previous lease expired, timed by the database clock. The
+ * holder renews it while the job runs and an instance that dies simply lets it expire.
+ * A successful run records its window, so a replica whose trigger fires after the leader
+ * finished skips it; a failed run leaves the window open for a retry. Every run is
+ * recorded in job_runs.
+ */
+@Service
+public class JobLockService {
+
+    @Autowired
+    private JobLockRepository lockRepository;
+
+    @Autowired
+    private JobRunRepository runRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final String instanceId = hostName() + ":" + ProcessHandle.current().pid();
+
+    private final ScheduledExecutorService renewals = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("job-lease-renewal").daemon().factory());
+
+    private Duration lease = Duration.ofMinutes(10);
+
+    // A crashed holder blocks the job for at most this long; a live one renews it every third of it
+    @Value("${jobs.lock.lease:PT10M}")
+    void setLease(Duration lease) {
+        this.lease = lease;
+    }
+
+    // Runs the job for the window if no other instance holds its lease and the window has not
+    // completed yet; empty when it was skipped
+    public Optional<Integer> runExclusively(String jobName, String window, IntSupplier job) {
+        if (!tryAcquire(jobName, window)) {
+            System.out.println("⏭️ Skipping " + jobName + " for " + window + ", "
+                    + lockRepository.findById(jobName)
+                            .filter(lock -> window.equals(lock.getCompletedWindow()))
+                            .map(lock -> "already completed")
+                            .orElse("held by " + lockedBy(jobName).orElse("another instance")));
+            return Optional.empty();
+        }
+        long period = Math.max(1, lease.toMillis() / 3);
+        ScheduledFuture<?> renewal = renewals.scheduleAtFixedRate(
+                () -> renew(jobName), period, period, TimeUnit.MILLISECONDS);
+        boolean completed = false;
+        try {
+            int processed = runRecorded(jobName, job);
+            completed = true;
+            return Optional.of(processed);
+        } finally {
+            renewal.cancel(false);
+            if (completed) {
+                complete(jobName, window);
+            } else {
+                release(jobName);
+            }
+        }
+    }
+
+    // Runs the job without taking the lease, only recording it in the run history
+    public int runRecorded(String jobName, IntSupplier job) {
+        TransactionTemplate transaction = requiresNew();
+        JobRun run = transaction.execute(status -> runRepository.save(new JobRun(jobName, instanceId)));
+        try {
+            int processed = job.getAsInt();
+            run.setStatus(JobRun.RunStatus.SUCCEEDED);
+            run.setProcessed(processed);
+            return processed;
+        } catch (RuntimeException e) {
+            run.setStatus(JobRun.RunStatus.FAILED);
+            run.setError(e.getMessage() != null && e.getMessage().length() > 500
+                    ? e.getMessage().substring(0, 500) : e.getMessage());
+            throw e;
+        } finally {
+            run.setFinishedAt(LocalDateTime.now());
+            transaction.executeWithoutResult(status -> runRepository.save(run));
+        }
+    }
+
+    public boolean tryAcquire(String jobName, String window) {
+        TransactionTemplate transaction = requiresNew();
+        Integer updated = transaction.execute(status -> lockRepository.acquire(
+                jobName, instanceId, window, lease.toSeconds()));
+        if (updated != null && updated > 0) {
+            return true;
+        }
+        try {
+            return Boolean.TRUE.equals(transaction.execute(status -> !lockRepository.existsById(jobName)
+                    && lockRepository.insertLease(jobName, instanceId, lease.toSeconds()) > 0));
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+
+    // Keeps the lease while the job runs; a failed renewal is retried on the next tick
+    void renew(String jobName) {
+        try {
+            Integer renewed = requiresNew().execute(status -> lockRepository.renew(jobName, instanceId, lease.toSeconds()));
+            if (renewed == null || renewed == 0) {
+                System.out.println("⚠️ Lease on " + jobName + " was taken over by " + lockedBy(jobName).orElse("another instance"));
+            }
+        } catch (RuntimeException e) {
+            System.out.println("⚠️ Could not renew the lease on " + jobName + ": " + e.getMessage());
+        }
+    }
+
+    public void complete(String jobName, String window) {
+        requiresNew().executeWithoutResult(status -> lockRepository.complete(jobName, instanceId, window));
+    }
+
+    public void release(String jobName) {
+        requiresNew().executeWithoutResult(status -> lockRepository.release(jobName, instanceId));
+    }
+
+    // Whether another instance currently holds the lease
+    public boolean isHeldElsewhere(String jobName) {
+        return lockRepository.countHeldElsewhere(jobName, instanceId) > 0;
+    }
+
+    public List<JobLock> getLocks() {
+        return lockRepository.findAll();
+    }
+
+    public List<JobRun> getRecentRuns(String jobName) {
+        return jobName != null
+                ? runRepository.findTop20ByJobNameOrderByRunIdDesc(jobName)
+                : runRepository.findTop20ByOrderByRunIdDesc();
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    private Optional<String> lockedBy(String jobName) {
+        return lockRepository.findById(jobName).map(JobLock::getLockedBy);
+    }
+
+    // The lease and the history must commit on their own, even when called inside a transaction
+    private TransactionTemplate requiresNew() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return transaction;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        renewals.shutdownNow();
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "unknown-host";
+        }
+    }
+}
@@ -0,0 +1,290 @@
+package com.library.fine.service;
+
+import com.library.fine.client.TransactionServiceClient;
+import com.library.fine.dto.CursorPageDTO;
+import com.library.fine.dto.IdRangeDTO;
+import com.library.fine.dto.OverdueTransactionDTO;
+import com.library.fine.entity.Fine;
+import com.library.fine.entity.JobPartition;
+import com.library.fine.entity.JobWatermark;
+import com.library.fine.repository.FineJdbcRepository;
+import com.library.fine.repository.JobPartitionRepository;
+import com.library.fine.repository.JobWatermarkRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Creates the late-return fines of the nightly run. The overdue transaction IDs
+ * are split into contiguous ranges that a bounded pool works through in parallel.
+ * Every range pages the overdue feed and checkpoints after each page, so a run
+ * that fails or crashes picks up its unfinished ranges when it is started again
+ * on the same day. Ranges are claimed before they are worked on, which lets
+ * other instances of the service take some of them while the run is going.
+ */
+@Component
+public class OverdueFineJob {
+
+    static final String JOB_NAME = "overdue-fines";
+
+    private static final int FEED_PAGE_SIZE = 500;
+
+    @Autowired
+    private TransactionServiceClient transactionServiceClient;
+
+    @Autowired
+    private FineJdbcRepository fineJdbcRepository;
+
+    @Autowired
+    private JobWatermarkRepository watermarkRepository;
+
+    @Autowired
+    private JobPartitionRepository partitionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JobLockService jobLockService;
+
+    private int partitionCount;
+
+    private int parallelism;
+
+    private Duration claimLease = Duration.ofMinutes(5);
+
+    private long pollMillis = 5000;
+
+    // Ranges per run, also the upper bound on the partition tag of the metrics
+    @Value("${fine.overdue.partitions:8}")
+    void setPartitionCount(int partitionCount) {
+        this.partitionCount = partitionCount;
+    }
+
+    // Ranges processed at the same time
+    @Value("${fine.overdue.parallelism:4}")
+    void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    // How long a range stays claimed without a checkpoint before another instance may take it over
+    @Value("${fine.overdue.claim-lease:PT5M}")
+    void setClaimLease(Duration claimLease) {
+        this.claimLease = claimLease;
+    }
+
+    // Pause between looks at ranges that other instances are still working on
+    @Value("${fine.overdue.poll-interval-ms:5000}")
+    void setPollMillis(long pollMillis) {
+        this.pollMillis = pollMillis;
+    }
+
+    // Returns the number of overdue transactions processed by this call
+    public int run(LocalDate today) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        JobWatermark watermark = watermarkRepository.findById(JOB_NAME).orElseGet(() -> new JobWatermark(JOB_NAME));
+        List<JobPartition> partitions = today.equals(watermark.getRunDate()) && !watermark.isCompleted()
+                ? partitionRepository.findByJobNameOrderByPartitionNoAsc(JOB_NAME)
+                : List.of();
+        if (partitions.isEmpty()) {
+            IdRangeDTO range = transactionServiceClient.getOverdueIdRange();
+            partitions = transaction.execute(status -> plan(watermark, range, today));
+        }
+        List<JobPartition> remaining = incomplete(partitions);
+
+        ExecutorService workers = Executors.newFixedThreadPool(Math.max(1, parallelism),
+                Thread.ofVirtual().name("overdue-fines-", 0).factory());
+        try {
+            int processed = 0;
+            while (!remaining.isEmpty()) {
+                processed += runClaimed(workers, remaining, today);
+                // Ranges claimed by other instances are waited for, and taken over once their claim lapses
+                remaining = incomplete(partitionRepository.findByJobNameOrderByPartitionNoAsc(JOB_NAME));
+                if (!remaining.isEmpty()) {
+                    Thread.sleep(pollMillis);
+                }
+            }
+            watermark.setCompleted(true);
+            transaction.executeWithoutResult(status -> watermarkRepository.save(watermark));
+            return processed;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while processing overdue fine partitions");
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    // On instances that did not get the job lease: works through unclaimed ranges of today's run,
+    // one at a time, for as long as the lease holder is still running
+    public int assist(LocalDate today, BooleanSupplier leaderRunning) {
+        int processed = 0;
+        try {
+            while (leaderRunning.getAsBoolean()) {
+                List<JobPartition> planned = partitionRepository.findByJobNameOrderByPartitionNoAsc(JOB_NAME).stream()
+                        .filter(partition -> today.equals(partition.getRunDate()))
+                        .toList();
+                List<JobPartition> open = incomplete(planned);
+                if (!planned.isEmpty() && open.isEmpty()) {
+                    break;
+                }
+                Optional<JobPartition> claimed = open.stream().filter(this::claim).findFirst();
+                if (claimed.isPresent()) {
+                    processed += runPartition(claimed.get(), today);
+                } else {
+                    Thread.sleep(pollMillis);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return processed;
+    }
+
+    private int runClaimed(ExecutorService workers, List<JobPartition> partitions, LocalDate today)
+            throws InterruptedException {
+        List<Callable<Integer>> tasks = partitions.stream()
+                .filter(this::claim)
+                .map(partition -> (Callable<Integer>) () -> runPartition(partition, today))
+                .toList();
+        int processed = 0;
+        int failed = 0;
+        RuntimeException failure = null;
+        for (Future<Integer> result : workers.invokeAll(tasks)) {
+            try {
+                processed += result.get();
+            } catch (ExecutionException e) {
+                failed++;
+                if (failure == null) {
+                    failure = e.getCause() instanceof RuntimeException runtimeException
+                            ? runtimeException : new RuntimeException(e.getCause());
+                }
+            }
+        }
+        if (failure != null) {
+            // Finished ranges keep their checkpoints, the next run only repeats the failed ones
+            System.out.println("❌ " + failed + " of " + tasks.size() + " overdue fine partitions failed");
+            throw failure;
+        }
+        return processed;
+    }
+
+    private boolean claim(JobPartition partition) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime until = now.plus(claimLease);
+        Integer claimed = new TransactionTemplate(transactionManager).execute(status -> partitionRepository.claim(
+                partition.getPartitionId(), jobLockService.getInstanceId(), now, until));
+        if (claimed == null || claimed == 0) {
+            return false;
+        }
+        partition.setClaimedBy(jobLockService.getInstanceId());
+        partition.setClaimedUntil(until);
+        return true;
+    }
+
+    private List<JobPartition> incomplete(List<JobPartition> partitions) {
+        return partitions.stream().filter(partition -> !partition.isCompleted()).toList();
+    }
+
+    // Splits the overdue IDs into equal ranges; they stay fixed until the run completes
+    private List<JobPartition> plan(JobWatermark watermark, IdRangeDTO range, LocalDate today) {
+        partitionRepository.deleteByJobName(JOB_NAME);
+        watermark.setRunDate(today);
+        watermark.setLastId(null);
+        watermark.setCompleted(false);
+        watermarkRepository.save(watermark);
+        if (range == null || range.getMaxId() == null) {
+            return List.of();
+        }
+
+        long span = range.getMaxId() - range.getMinId() + 1;
+        int count = (int) Math.min(Math.max(1, partitionCount), span);
+        long width = (span + count - 1) / count;
+        List<JobPartition> partitions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long fromId = range.getMinId() - 1 + i * width;
+            partitions.add(new JobPartition(JOB_NAME, i, today, fromId, Math.min(fromId + width, range.getMaxId())));
+        }
+        return partitionRepository.saveAll(partitions);
+    }
+
+    private int runPartition(JobPartition partition, LocalDate today) {
+        TransactionTemplate pageTransaction = new TransactionTemplate(transactionManager);
+        long began = System.nanoTime();
+        int processed = 0;
+        CursorPageDTO<OverdueTransactionDTO> page;
+        try {
+            do {
+                page = transactionServiceClient.getOverdueFeed(partition.resumeAfter(), partition.getToId(), FEED_PAGE_SIZE);
+                List<OverdueTransactionDTO> items = page.getItems();
+                if (!items.isEmpty()) {
+                    partition.setLastId(items.get(items.size() - 1).getTransactionId());
+                }
+                partition.setProcessed(partition.getProcessed() + items.size());
+                partition.setCompleted(!page.isHasMore());
+                partition.setClaimedUntil(LocalDateTime.now().plus(claimLease));
+                // Fines and the checkpoint commit together, so a crash never skips or double-counts a page
+                pageTransaction.executeWithoutResult(status -> {
+                    fineJdbcRepository.upsertLateReturnFines(items.stream()
+                            .map(transaction -> lateReturnFine(transaction, today))
+                            .collect(Collectors.toList()));
+                    partitionRepository.save(partition);
+                });
+                processed += items.size();
+            } while (page.isHasMore());
+        } catch (RuntimeException e) {
+            // Lets another instance retry the range right away instead of after the claim lapses
+            pageTransaction.executeWithoutResult(status -> partitionRepository.releaseClaim(
+                    partition.getPartitionId(), jobLockService.getInstanceId()));
+            throw e;
+        }
+
+        long elapsed = System.nanoTime() - began;
+        double perSecond = processed / Math.max(elapsed / 1_000_000_000.0, 0.001);
+        Tags tags = Tags.of("job", JOB_NAME, "partition", String.valueOf(partition.getPartitionNo()));
+        meterRegistry.timer("fine.job.partition.duration", tags).record(elapsed, TimeUnit.NANOSECONDS);
+        meterRegistry.counter("fine.job.partition.transactions", tags).increment(processed);
+        meterRegistry.summary("fine.job.partition.throughput", tags).record(perSecond);
+        System.out.println("Partition " + partition.getPartitionNo() + " (" + partition.getFromId() + ", "
+                + partition.getToId() + "]: " + processed + " overdue transactions in "
+                + TimeUnit.NANOSECONDS.toMillis(elapsed) + " ms (" + Math.round(perSecond) + "/s)");
+        return processed;
+    }
+
+    private Fine lateReturnFine(OverdueTransactionDTO transaction, LocalDate today) {
+        return lateReturnFine(transaction.getMemberId(), transaction.getTransactionId(), transaction.getDueDate(), today);
+    }
+
+    // Late fine accrued from the due date up to the given day
+    static Fine lateReturnFine(Long memberId, Long transactionId, LocalDate dueDate, LocalDate until) {
+        int overdueDays = (int) ChronoUnit.DAYS.between(dueDate, until);
+        Fine fine = new Fine(memberId, transactionId,
+                Paise.toRupees(Paise.perDay(FineService.DAILY_FINE_RATE_PAISE, overdueDays)), Fine.FineType.LATE_RETURN);
+        fine.setDueDate(dueDate);
+        fine.setDailyRate(FineService.DAILY_FINE_RATE);
+        return fine;
+    }
+}
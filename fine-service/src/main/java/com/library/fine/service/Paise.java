@@ -0,0 +1,27 @@
+package com.library.fine.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fine amounts as a {@code long} count of paise. Arithmetic on hot paths stays on
+ * primitives; {@link BigDecimal} is only created where an amount enters or leaves
+ * the service (entities, DTOs, SQL parameters).
+ */
+public final class Paise {
+
+    private Paise() {
+    }
+
+    public static long of(BigDecimal rupees) {
+        return rupees == null ? 0L : rupees.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal toRupees(long paise) {
+        return BigDecimal.valueOf(paise, 2);
+    }
+
+    public static long perDay(long dailyRatePaise, long days) {
+        return Math.multiplyExact(dailyRatePaise, Math.max(days, 0));
+    }
+}
@@ -0,0 +1,116 @@
+package com.library.fine.service;
+
+import com.library.fine.dto.TransactionEventDTO;
+import com.library.fine.dto.TransactionEventResultDTO;
+import com.library.fine.entity.Fine;
+import com.library.fine.entity.ProcessedEvent;
+import com.library.fine.repository.FineJdbcRepository;
+import com.library.fine.repository.FineRepository;
+import com.library.fine.repository.ProcessedEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Applies the status changes transaction-service publishes from its outbox.
+ * An overdue transaction gets its late fine right away instead of at the next
+ * nightly run, and a late return freezes the fine at the return date. Each event
+ * commits together with its processed_events row, so a redelivered event is a no-op.
+ */
+@Service
+public class TransactionEventService {
+
+    static final String TRANSACTION_OVERDUE = "TRANSACTION_OVERDUE";
+
+    static final String TRANSACTION_RETURNED = "TRANSACTION_RETURNED";
+
+    @Autowired
+    private ProcessedEventRepository processedEventRepository;
+
+    @Autowired
+    private FineRepository fineRepository;
+
+    @Autowired
+    private FineJdbcRepository fineJdbcRepository;
+
+    @Autowired
+    private FineTotalsService fineTotalsService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Applied count leaves out duplicates; an event that cannot be applied is reported with its error
+    // instead of failing the batch, so it does not hold back the events relayed after it
+    public TransactionEventResultDTO applyEvents(List<TransactionEventDTO> events) {
+        TransactionTemplate eventTransaction = new TransactionTemplate(transactionManager);
+        int applied = 0;
+        Map<Long, String> failures = new HashMap<>();
+        for (TransactionEventDTO event : events) {
+            try {
+                if (Boolean.TRUE.equals(eventTransaction.execute(status -> apply(event)))) {
+                    applied++;
+                }
+            } catch (DataIntegrityViolationException e) {
+                // The same event delivered twice at the same time, the other delivery applied it
+                System.out.println("⏭️ Event " + event.getEventId() + " was applied concurrently");
+            } catch (RuntimeException e) {
+                String error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+                failures.put(event.getEventId(), error);
+                System.out.println("⚠️ Could not apply transaction event " + event.getEventId() + ": " + error);
+            }
+        }
+        return new TransactionEventResultDTO(applied, failures);
+    }
+
+    private boolean apply(TransactionEventDTO event) {
+        if (event.getDueDate() == null) {
+            throw new IllegalArgumentException("Event " + event.getEventId() + " has no due date");
+        }
+        if (processedEventRepository.existsById(event.getEventId())) {
+            return false;
+        }
+        processedEventRepository.saveAndFlush(new ProcessedEvent(event.getEventId(), event.getEventType()));
+
+        Fine fine;
+        switch (event.getEventType()) {
+            case TRANSACTION_OVERDUE -> fine = OverdueFineJob.lateReturnFine(
+                    event.getMemberId(), event.getTransactionId(), event.getDueDate(), LocalDate.now());
+            case TRANSACTION_RETURNED -> {
+                if (event.getReturnDate() == null || !event.getReturnDate().isAfter(event.getDueDate())) {
+                    return true;
+                }
+                fine = OverdueFineJob.lateReturnFine(
+                        event.getMemberId(), event.getTransactionId(), event.getDueDate(), event.getReturnDate());
+                fine.setReturnDate(event.getReturnDate());
+            }
+            default -> {
+                System.out.println("⚠️ Ignoring unknown transaction event type: " + event.getEventType());
+                return true;
+            }
+        }
+
+        // Locked before the upsert, so the totals move by exactly the amount it replaces
+        Optional<Fine> active = fineRepository.lockActiveFine(event.getTransactionId(), Fine.FineType.LATE_RETURN);
+        if (TRANSACTION_OVERDUE.equals(event.getEventType())) {
+            if (active.isPresent() && active.get().getDueDate() != null) {
+                // Already accruing, left to the accrual like the nightly job
+                return true;
+            }
+            fineJdbcRepository.upsertLateReturnFines(List.of(fine));
+        } else {
+            fineJdbcRepository.upsertLateReturnFine(fine);
+        }
+        fineTotalsService.recordChange(event.getMemberId(),
+                active.map(Fine::getStatus).orElse(null), active.map(Fine::getAmount).orElse(null),
+                active.map(Fine::getStatus).orElse(Fine.FineStatus.PENDING), fine.getAmount());
+        return true;
+    }
+}
@@ -0,0 +1,8 @@
+-- PENDING and PAID sums per member, kept on write; filled by the reconcile on first start
+CREATE TABLE fine_totals (
+    member_id BIGINT NOT NULL,
+    pending_amount DECIMAL(14, 2) NOT NULL,
+    paid_amount DECIMAL(14, 2) NOT NULL,
+    updated_at DATETIME(6),
+    PRIMARY KEY (member_id)
+);
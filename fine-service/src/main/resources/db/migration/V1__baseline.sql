@@ -0,0 +1,14 @@
+-- Schema as Hibernate created it before migrations were introduced.
+-- Existing databases are baselined at this version and skip it.
+
+CREATE TABLE IF NOT EXISTS fines (
+    fine_id BIGINT NOT NULL AUTO_INCREMENT,
+    member_id BIGINT NOT NULL,
+    transaction_id BIGINT NOT NULL,
+    amount DECIMAL(10, 2) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    transaction_date DATETIME(6),
+    paid_date DATETIME(6),
+    fine_type VARCHAR(20),
+    PRIMARY KEY (fine_id)
+);
@@ -0,0 +1,5 @@
+-- createFine and the overdue upsert look up the late-return fine of a transaction
+CREATE INDEX idx_fines_transaction_type ON fines (transaction_id, fine_type);
+
+-- Pending and paid fines of one member, also covers findByMemberId through its prefix
+CREATE INDEX idx_fines_member_status ON fines (member_id, status);
@@ -0,0 +1,24 @@
+-- Overlapping overdue runs could leave two active fines for one transaction and type.
+-- Cancel the extras, keeping a paid fine over a pending one and else the oldest. A paid
+-- duplicate that is cancelled keeps its paid_date, so the double payment can be found
+-- and refunded.
+UPDATE fines SET status = 'CANCELLED'
+WHERE status IN ('PENDING', 'PAID') AND fine_id IN (
+    SELECT fine_id FROM (
+        SELECT f.fine_id FROM fines f
+        JOIN fines o ON o.transaction_id = f.transaction_id AND o.fine_type = f.fine_type
+            AND o.fine_id <> f.fine_id AND o.status IN ('PENDING', 'PAID')
+            AND ((o.status = 'PAID' AND f.status = 'PENDING') OR (o.status = f.status AND o.fine_id < f.fine_id))
+        WHERE f.status IN ('PENDING', 'PAID')
+    ) duplicates
+);
+
+-- 1 for pending and paid fines, NULL once cancelled, so any number of cancelled fines may share a key
+ALTER TABLE fines ADD COLUMN active_flag TINYINT
+    GENERATED ALWAYS AS (CASE WHEN status = 'CANCELLED' THEN NULL ELSE 1 END);
+
+-- At most one active fine per transaction and type; the upserts in FineJdbcRepository rely on it
+CREATE UNIQUE INDEX uk_fines_active_transaction_type ON fines (transaction_id, fine_type, active_flag);
+
+-- Covered by the unique key's prefix
+DROP INDEX idx_fines_transaction_type ON fines;
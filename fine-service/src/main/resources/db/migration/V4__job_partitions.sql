@@ -0,0 +1,16 @@
+-- Checkpoints of the partitioned overdue fine job, one row per ID range of the current run
+CREATE TABLE job_partitions (
+    partition_id BIGINT NOT NULL AUTO_INCREMENT,
+    job_name VARCHAR(100) NOT NULL,
+    partition_no INT NOT NULL,
+    run_date DATE,
+    from_id BIGINT NOT NULL,
+    to_id BIGINT NOT NULL,
+    last_id BIGINT,
+    processed INT NOT NULL,
+    completed BOOLEAN NOT NULL,
+    updated_at DATETIME(6),
+    PRIMARY KEY (partition_id)
+);
+
+CREATE UNIQUE INDEX uk_job_partitions_job_no ON job_partitions (job_name, partition_no);
@@ -0,0 +1,7 @@
+-- Event IDs from the transaction-service outbox that were applied, makes redelivery harmless
+CREATE TABLE processed_events (
+    event_id BIGINT NOT NULL,
+    event_type VARCHAR(30) NOT NULL,
+    processed_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (event_id)
+);
@@ -0,0 +1,5 @@
+-- Maintained by the database, so JDBC upserts and bulk accrual updates bump it too
+ALTER TABLE fines ADD COLUMN updated_at DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6);
+
+-- Serves the pending-fine change feed: status filter plus keyset order by (updated_at, fine_id)
+CREATE INDEX idx_fines_status_updated ON fines (status, updated_at, fine_id);
@@ -0,0 +1,15 @@
+-- Late-return fines accrue in place: the nightly job adds daily_rate per day past due_date,
+-- and a fine returned late is frozen at its return_date
+ALTER TABLE fines ADD COLUMN due_date DATE;
+ALTER TABLE fines ADD COLUMN return_date DATE;
+ALTER TABLE fines ADD COLUMN daily_rate DECIMAL(10, 2);
+
+-- Position of the incremental overdue fine job, so a run resumes where the last one stopped
+CREATE TABLE job_watermarks (
+    job_name VARCHAR(100) NOT NULL,
+    run_date DATE,
+    last_id BIGINT,
+    completed BOOLEAN NOT NULL,
+    updated_at DATETIME(6),
+    PRIMARY KEY (job_name)
+);
@@ -0,0 +1,113 @@
+package com.library.fine.benchmark;
+
+import com.library.fine.service.Paise;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BigDecimal against long paise for the two bulk operations on fines, computing
+ * each fine's late amount and summing amounts, and for formatting an amount for
+ * a fine notice. Run through {@link FineArithmeticBenchmarkTest}, which adds
+ * the GC profiler for allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FineArithmeticBenchmark {
+
+    private static final BigDecimal DAILY_RATE = new BigDecimal("10.00");
+    private static final long DAILY_RATE_PAISE = 1000L;
+
+    @Param("100000")
+    private int fines;
+
+    private int[] overdueDays;
+    private BigDecimal[] amounts;
+    private long[] amountsPaise;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        overdueDays = new int[fines];
+        amounts = new BigDecimal[fines];
+        amountsPaise = new long[fines];
+        for (int i = 0; i < fines; i++) {
+            overdueDays[i] = 1 + random.nextInt(90);
+            amountsPaise[i] = 100 + random.nextInt(100_000);
+            amounts[i] = BigDecimal.valueOf(amountsPaise[i], 2);
+        }
+    }
+
+    @Benchmark
+    public void accrueBigDecimal(Blackhole blackhole) {
+        for (int days : overdueDays) {
+            blackhole.consume(DAILY_RATE.multiply(BigDecimal.valueOf(days)));
+        }
+    }
+
+    @Benchmark
+    public void accruePaise(Blackhole blackhole) {
+        for (int days : overdueDays) {
+            blackhole.consume(Paise.perDay(DAILY_RATE_PAISE, days));
+        }
+    }
+
+    @Benchmark
+    public BigDecimal sumBigDecimal() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (BigDecimal amount : amounts) {
+            total = total.add(amount);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long sumPaise() {
+        long total = 0;
+        for (long amount : amountsPaise) {
+            total += amount;
+        }
+        return total;
+    }
+
+    // The fine notice path: a fresh BigDecimal per fine, as a deserialized DTO carries it, to the
+    // string in the email. A reused BigDecimal would cache its toString().
+    @Benchmark
+    public void formatBigDecimal(Blackhole blackhole) {
+        for (long amount : amountsPaise) {
+            blackhole.consume(BigDecimal.valueOf(amount, 2).setScale(2, RoundingMode.HALF_UP).toString());
+        }
+    }
+
+    // Same input through paise: converting is a setScale plus a BigInteger, then the digits by hand
+    @Benchmark
+    public void formatViaPaise(Blackhole blackhole) {
+        for (long amount : amountsPaise) {
+            blackhole.consume(format(Paise.of(BigDecimal.valueOf(amount, 2))));
+        }
+    }
+
+    private static String format(long paise) {
+        long abs = Math.abs(paise);
+        long fraction = abs % 100;
+        return (paise < 0 ? "-" : "") + abs / 100 + (fraction < 10 ? ".0" : ".") + fraction;
+    }
+}
@@ -0,0 +1,20 @@
+package com.library.fine.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+class FineArithmeticBenchmarkTest {
+
+    // mvn test -Dbenchmark=true -Dtest=FineArithmeticBenchmarkTest
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void runBenchmark() throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(FineArithmeticBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,134 @@
+package com.library.fine.repository;
+
+import com.library.fine.entity.Fine;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+class FineAccrualTest {
+
+    private static final Logger log = LoggerFactory.getLogger(FineAccrualTest.class);
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 3, 10);
+
+    @Autowired
+    private FineRepository fineRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // One active late-return fine per transaction, as the unique key requires
+    private long nextTransactionId = 1;
+
+    @Test
+    void accrueLateReturnFines_RecomputesPendingFromStoredDates() {
+        Long open = saveFine(Fine.FineStatus.PENDING, TODAY.minusDays(4), null);
+        Long returned = saveFine(Fine.FineStatus.PENDING, TODAY.minusDays(10), TODAY.minusDays(7));
+        Long paid = saveFine(Fine.FineStatus.PAID, TODAY.minusDays(4), null);
+        Long legacy = saveFine(Fine.FineStatus.PENDING, null, null);
+
+        int updated = fineRepository.accrueLateReturnFines(0L, fineRepository.findMaxFineId(), TODAY);
+
+        assertEquals(2, updated);
+        entityManager.clear();
+        assertAmount("40.00", open);
+        assertAmount("30.00", returned);
+        assertAmount("1.00", paid);
+        assertAmount("1.00", legacy);
+    }
+
+    @Test
+    void accrueLateReturnFines_OnlyTouchesTheWindow() {
+        Long first = saveFine(Fine.FineStatus.PENDING, TODAY.minusDays(2), null);
+        Long second = saveFine(Fine.FineStatus.PENDING, TODAY.minusDays(2), null);
+
+        assertEquals(1, fineRepository.accrueLateReturnFines(first - 1, first, TODAY));
+
+        entityManager.clear();
+        assertAmount("20.00", first);
+        assertAmount("1.00", second);
+    }
+
+    @Test
+    void findMemberIdsChangedSince_FindsMembersTheAccrualChanged() {
+        Long accrued = saveFine(Fine.FineStatus.PENDING, TODAY.minusDays(4), null);
+        Long legacy = saveFine(Fine.FineStatus.PENDING, null, null);
+        jdbcTemplate.update("UPDATE fines SET member_id = 2 WHERE fine_id = ?", legacy);
+        jdbcTemplate.update("UPDATE fines SET updated_at = ?", Timestamp.valueOf(TODAY.minusDays(1).atStartOfDay()));
+        LocalDateTime changedSince = fineRepository.currentTimestamp();
+
+        fineRepository.accrueLateReturnFines(0L, accrued, TODAY);
+
+        assertEquals(List.of(1L), fineRepository.findMemberIdsChangedSince(changedSince));
+    }
+
+    // mvn test -Dbenchmark=true -Dtest=FineAccrualTest
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void accrueOneMillionPendingFines() {
+        int fines = 1_000_000;
+        int chunk = 10_000;
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(chunk);
+        for (int i = 0; i < fines; i++) {
+            rows.add(new Object[] {(long) i % 5000, (long) i, Date.valueOf(TODAY.minusDays(1 + i % 60)), now});
+            if (rows.size() == chunk) {
+                insertPendingFines(rows);
+                rows.clear();
+            }
+        }
+
+        long maxFineId = fineRepository.findMaxFineId();
+        long began = System.nanoTime();
+        int updated = 0;
+        for (long fromId = 0; fromId < maxFineId; fromId += chunk) {
+            updated += fineRepository.accrueLateReturnFines(fromId, fromId + chunk, TODAY);
+        }
+        long elapsed = System.nanoTime() - began;
+
+        assertEquals(fines, updated);
+        log.info("accrued {} pending fines in {} ms", updated, TimeUnit.NANOSECONDS.toMillis(elapsed));
+    }
+
+    private void insertPendingFines(List<Object[]> rows) {
+        jdbcTemplate.batchUpdate("INSERT INTO fines (member_id, transaction_id, amount, status, fine_type, " +
+                "due_date, daily_rate, transaction_date) VALUES (?, ?, 1.00, 'PENDING', 'LATE_RETURN', ?, 10.00, ?)",
+                rows);
+    }
+
+    private Long saveFine(Fine.FineStatus status, LocalDate dueDate, LocalDate returnDate) {
+        Fine fine = new Fine(1L, nextTransactionId++, new BigDecimal("1.00"), Fine.FineType.LATE_RETURN);
+        fine.setStatus(status);
+        fine.setDueDate(dueDate);
+        fine.setReturnDate(returnDate);
+        fine.setDailyRate(dueDate != null ? new BigDecimal("10.00") : null);
+        return fineRepository.saveAndFlush(fine).getFineId();
+    }
+
+    private void assertAmount(String expected, Long fineId) {
+        assertEquals(0, new BigDecimal(expected).compareTo(fineRepository.findById(fineId).orElseThrow().getAmount()));
+    }
+}
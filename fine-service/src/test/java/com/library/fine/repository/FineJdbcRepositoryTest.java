@@ -0,0 +1,113 @@
+package com.library.fine.repository;
+
+import com.library.fine.entity.Fine;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// MySQL mode for ON DUPLICATE KEY UPDATE; the schema comes from the migrations, unique key included
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:fine-jdbc;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(FineJdbcRepository.class)
+class FineJdbcRepositoryTest {
+
+    @Autowired
+    private FineRepository fineRepository;
+
+    @Autowired
+    private FineJdbcRepository fineJdbcRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void upsertLateReturnFines_BackfillsActiveAndInsertsMissing() {
+        Long pending = saveFine(10L, "10.00", Fine.FineStatus.PENDING);
+        Long cancelled = saveFine(20L, "10.00", Fine.FineStatus.CANCELLED);
+
+        fineJdbcRepository.upsertLateReturnFines(List.of(
+                lateFine(10L, "30.00"),
+                lateFine(20L, "40.00"),
+                lateFine(30L, "10.00")));
+
+        entityManager.clear();
+        Fine backfilled = fineRepository.findById(pending).orElseThrow();
+        assertEquals(0, new BigDecimal("30.00").compareTo(backfilled.getAmount()));
+        assertEquals(LocalDate.now().minusDays(3), backfilled.getDueDate());
+        assertEquals(0, new BigDecimal("10.00").compareTo(fineRepository.findById(cancelled).orElseThrow().getAmount()));
+        assertEquals(4, fineRepository.count());
+        Fine created = fineRepository.findActiveFine(30L, Fine.FineType.LATE_RETURN).orElseThrow();
+        assertEquals(Fine.FineStatus.PENDING, created.getStatus());
+        assertNotNull(created.getTransactionDate());
+        assertTrue(fineRepository.findActiveFine(20L, Fine.FineType.LATE_RETURN).isPresent());
+    }
+
+    @Test
+    void upsertLateReturnFines_LeavesAccruingFinesToTheAccrual() {
+        fineJdbcRepository.upsertLateReturnFines(List.of(lateFine(10L, "30.00")));
+        fineJdbcRepository.upsertLateReturnFines(List.of(lateFine(10L, "50.00")));
+
+        entityManager.clear();
+        assertEquals(1, fineRepository.count());
+        assertEquals(0, new BigDecimal("30.00").compareTo(
+                fineRepository.findActiveFine(10L, Fine.FineType.LATE_RETURN).orElseThrow().getAmount()));
+    }
+
+    @Test
+    void upsertLateReturnFine_UpdatesActiveFineInPlace() {
+        Long existing = saveFine(10L, "10.00", Fine.FineStatus.PENDING);
+
+        fineJdbcRepository.upsertLateReturnFine(lateFine(10L, "50.00"));
+
+        entityManager.clear();
+        assertEquals(1, fineRepository.count());
+        Fine fine = fineRepository.findActiveFine(10L, Fine.FineType.LATE_RETURN).orElseThrow();
+        assertEquals(existing, fine.getFineId());
+        assertEquals(0, new BigDecimal("50.00").compareTo(fine.getAmount()));
+    }
+
+    @Test
+    void upsertLateReturnFine_ReturnsIdOfInsertedFine() {
+        Long inserted = fineJdbcRepository.upsertLateReturnFine(lateFine(10L, "50.00"));
+
+        assertEquals(fineRepository.findActiveFine(10L, Fine.FineType.LATE_RETURN).orElseThrow().getFineId(), inserted);
+    }
+
+    @Test
+    void uniqueKey_RejectsSecondActiveFine() {
+        saveFine(10L, "10.00", Fine.FineStatus.CANCELLED);
+        saveFine(10L, "10.00", Fine.FineStatus.PENDING);
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> saveFine(10L, "20.00", Fine.FineStatus.PAID));
+    }
+
+    private Long saveFine(Long transactionId, String amount, Fine.FineStatus status) {
+        Fine fine = new Fine(1L, transactionId, new BigDecimal(amount), Fine.FineType.LATE_RETURN);
+        fine.setStatus(status);
+        return fineRepository.saveAndFlush(fine).getFineId();
+    }
+
+    private Fine lateFine(Long transactionId, String amount) {
+        Fine fine = new Fine(1L, transactionId, new BigDecimal(amount), Fine.FineType.LATE_RETURN);
+        fine.setDueDate(LocalDate.now().minusDays(3));
+        fine.setDailyRate(new BigDecimal("10.00"));
+        return fine;
+    }
+}
@@ -0,0 +1,80 @@
+package com.library.fine.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Upgrades databases that predate the migrations, which hold the V1 schema, including the data V3 has to clean up
+class FineMigrationTest {
+
+    @Test
+    void migrations_UpgradePreMigrationSchema() {
+        DriverManagerDataSource dataSource = dataSource("fine-upgrade");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        flyway(dataSource, "1").migrate();
+        insert(jdbcTemplate, 1L, 100L, "PENDING");
+
+        flyway(dataSource, "latest").migrate();
+
+        assertEquals(new BigDecimal("10.00"), jdbcTemplate.queryForObject(
+                "SELECT amount FROM fines WHERE fine_id = 1", BigDecimal.class));
+        assertNull(jdbcTemplate.queryForObject("SELECT due_date FROM fines WHERE fine_id = 1", Object.class));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM job_watermarks", Integer.class));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM fine_totals", Integer.class));
+    }
+
+    @Test
+    void uniqueActiveFine_KeepsOneActiveFinePerTransaction() {
+        DriverManagerDataSource dataSource = dataSource("fine-duplicates");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        flyway(dataSource, "2").migrate();
+        // Paid twice: the oldest payment stays
+        insert(jdbcTemplate, 1L, 100L, "PAID");
+        insert(jdbcTemplate, 2L, 100L, "PAID");
+        insert(jdbcTemplate, 3L, 100L, "PENDING");
+        // A paid fine wins over an older pending one
+        insert(jdbcTemplate, 4L, 200L, "PENDING");
+        insert(jdbcTemplate, 5L, 200L, "PAID");
+        // Pending twice: the oldest stays
+        insert(jdbcTemplate, 6L, 300L, "PENDING");
+        insert(jdbcTemplate, 7L, 300L, "PENDING");
+        insert(jdbcTemplate, 8L, 300L, "CANCELLED");
+
+        flyway(dataSource, "latest").migrate();
+
+        assertEquals("PAID", status(jdbcTemplate, 1L));
+        assertEquals("CANCELLED", status(jdbcTemplate, 2L));
+        assertEquals("CANCELLED", status(jdbcTemplate, 3L));
+        assertEquals("CANCELLED", status(jdbcTemplate, 4L));
+        assertEquals("PAID", status(jdbcTemplate, 5L));
+        assertEquals("PENDING", status(jdbcTemplate, 6L));
+        assertEquals("CANCELLED", status(jdbcTemplate, 7L));
+        assertEquals("CANCELLED", status(jdbcTemplate, 8L));
+        // The cancelled double payment can still be found for a refund
+        assertNotNull(jdbcTemplate.queryForObject("SELECT paid_date FROM fines WHERE fine_id = 2", Object.class));
+    }
+
+    private DriverManagerDataSource dataSource(String name) {
+        return new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+    }
+
+    private Flyway flyway(DriverManagerDataSource dataSource, String target) {
+        return Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").target(target).load();
+    }
+
+    private void insert(JdbcTemplate jdbcTemplate, Long id, Long transactionId, String status) {
+        jdbcTemplate.update("INSERT INTO fines (fine_id, member_id, transaction_id, amount, status, fine_type, paid_date) " +
+                "VALUES (?, 1, ?, 10.00, ?, 'LATE_RETURN', CASE WHEN ? = 'PAID' THEN CURRENT_TIMESTAMP(6) END)",
+                id, transactionId, status, status);
+    }
+
+    private String status(JdbcTemplate jdbcTemplate, Long id) {
+        return jdbcTemplate.queryForObject("SELECT status FROM fines WHERE fine_id = ?", String.class, id);
+    }
+}
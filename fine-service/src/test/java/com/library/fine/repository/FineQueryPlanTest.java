@@ -0,0 +1,132 @@
+package com.library.fine.repository;
+
+import com.library.fine.entity.Fine;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the hot fine queries against the schema built by the migrations alone,
+ * validated against the entities, and asks H2 for the plan of the SQL Hibernate
+ * generated. Fails when a query stops using its index and scans the table.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.library.fine.repository.FineQueryPlanTest$CapturingInspector"
+})
+class FineQueryPlanTest {
+
+    @Autowired
+    private FineRepository fineRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        CapturingInspector.statements.clear();
+    }
+
+    @Test
+    void findByTransactionIdAndFineType_UsesActiveFineKey() {
+        fineRepository.findByTransactionIdAndFineType(1L, Fine.FineType.LATE_RETURN);
+
+        assertUsesIndex("UK_FINES_ACTIVE_TRANSACTION_TYPE");
+    }
+
+    @Test
+    void findActiveFine_UsesActiveFineKey() {
+        fineRepository.findActiveFine(1L, Fine.FineType.LATE_RETURN);
+
+        assertUsesIndex("UK_FINES_ACTIVE_TRANSACTION_TYPE");
+    }
+
+    @Test
+    void lockActiveFine_UsesActiveFineKey() {
+        // A scan here would lock every row it reads
+        fineRepository.lockActiveFine(1L, Fine.FineType.LATE_RETURN);
+
+        assertUsesIndex("UK_FINES_ACTIVE_TRANSACTION_TYPE");
+    }
+
+    @Test
+    void existsByTransactionId_UsesActiveFineKey() {
+        fineRepository.existsByTransactionId(1L);
+
+        assertUsesIndex("UK_FINES_ACTIVE_TRANSACTION_TYPE");
+    }
+
+    @Test
+    void findPendingFinesByMember_UsesMemberStatusIndex() {
+        fineRepository.findPendingFinesByMember(1L);
+
+        assertUsesIndex("IDX_FINES_MEMBER_STATUS");
+    }
+
+    @Test
+    void sumAmountsByMembers_UsesMemberStatusIndex() {
+        fineRepository.sumAmountsByMembers(List.of(1L, 2L));
+
+        assertUsesIndex("IDX_FINES_MEMBER_STATUS");
+    }
+
+    @Test
+    void findMemberIdsChangedSince_UsesStatusUpdatedIndex() {
+        fineRepository.findMemberIdsChangedSince(LocalDateTime.now().minusHours(1));
+
+        assertUsesIndex("IDX_FINES_STATUS_UPDATED");
+    }
+
+    @Test
+    void getTotalPendingFinesByMember_UsesMemberStatusIndex() {
+        fineRepository.getTotalPendingFinesByMember(1L);
+
+        assertUsesIndex("IDX_FINES_MEMBER_STATUS");
+    }
+
+    @Test
+    void findByMemberId_UsesMemberStatusIndex() {
+        fineRepository.findByMemberId(1L);
+
+        assertUsesIndex("IDX_FINES_MEMBER_STATUS");
+    }
+
+    @Test
+    void findPendingChangedAfter_UsesStatusUpdatedIndex() {
+        fineRepository.findPendingChangedAfter(LocalDateTime.now().minusDays(1), 0L, LocalDateTime.now(), Limit.of(100));
+
+        assertUsesIndex("IDX_FINES_STATUS_UPDATED");
+    }
+
+    private void assertUsesIndex(String index) {
+        assertFalse(CapturingInspector.statements.isEmpty(), "No SQL was captured");
+        String sql = CapturingInspector.statements.get(CapturingInspector.statements.size() - 1);
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+
+        assertFalse(plan.contains("tableScan"), () -> "Full scan in plan:\n" + plan);
+        assertTrue(plan.contains(index), () -> "Expected " + index + " in plan:\n" + plan);
+    }
+
+    public static class CapturingInspector implements StatementInspector {
+        static final List<String> statements = new ArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.library.fine.repository;
+
+import com.library.fine.entity.Fine;
+import com.library.fine.entity.FineTotal;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@Import(FineTotalJdbcRepository.class)
+class FineTotalJdbcRepositoryTest {
+
+    @Autowired
+    private FineTotalJdbcRepository fineTotalJdbcRepository;
+
+    @Autowired
+    private FineTotalRepository fineTotalRepository;
+
+    @Autowired
+    private FineRepository fineRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private long nextTransactionId = 1;
+
+    @Test
+    void addToTotal_CreatesThenAccumulates() {
+        fineTotalJdbcRepository.addToTotal(7L, new BigDecimal("30.00"), BigDecimal.ZERO);
+        fineTotalJdbcRepository.addToTotal(7L, new BigDecimal("-10.00"), new BigDecimal("10.00"));
+
+        entityManager.clear();
+        FineTotal total = fineTotalRepository.findById(7L).orElseThrow();
+        assertEquals(0, new BigDecimal("20.00").compareTo(total.getPendingAmount()));
+        assertEquals(0, new BigDecimal("10.00").compareTo(total.getPaidAmount()));
+    }
+
+    @Test
+    void sumAmountsByMember_SplitsPendingAndPaid() {
+        saveFine(1L, "10.00", Fine.FineStatus.PENDING);
+        saveFine(1L, "5.50", Fine.FineStatus.PAID);
+        saveFine(1L, "99.00", Fine.FineStatus.CANCELLED);
+        saveFine(2L, "7.00", Fine.FineStatus.PAID);
+
+        List<FineRepository.MemberFineSums> sums = fineRepository.sumAmountsByMember();
+
+        FineRepository.MemberFineSums first = sums.stream().filter(s -> s.getMemberId() == 1L).findFirst().orElseThrow();
+        assertEquals(0, new BigDecimal("10.00").compareTo(first.getPending()));
+        assertEquals(0, new BigDecimal("5.50").compareTo(first.getPaid()));
+        FineRepository.MemberFineSums second = sums.stream().filter(s -> s.getMemberId() == 2L).findFirst().orElseThrow();
+        assertEquals(0, BigDecimal.ZERO.compareTo(second.getPending()));
+        assertEquals(0, new BigDecimal("7.00").compareTo(second.getPaid()));
+    }
+
+    private void saveFine(Long memberId, String amount, Fine.FineStatus status) {
+        Fine fine = new Fine(memberId, nextTransactionId++, new BigDecimal(amount), Fine.FineType.DAMAGED_ITEM);
+        fine.setStatus(status);
+        fineRepository.saveAndFlush(fine);
+    }
+}
@@ -5,22 +5,36 @@ import com.library.fine.dto.BookDTO;
 import com.library.fine.dto.BorrowingTransactionResponseDTO;
 import com.library.fine.dto.FineResponseDTO;
 import com.library.fine.dto.MemberDTO;
+import com.library.fine.dto.PendingFineChangeDTO;
 import com.library.fine.entity.Fine;
 import com.library.fine.entity.Fine.FineType;
+import com.library.fine.repository.FineJdbcRepository;
 import com.library.fine.repository.FineRepository;
+import com.library.fine.dto.CursorPageDTO;
+import jakarta.persistence.EntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Optional;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.IntSupplier;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 class FineServiceTest {
@@ -28,6 +42,18 @@ class FineServiceTest {
     private FineRepository fineRepository;
     @Mock
     private TransactionServiceClient transactionServiceClient;
+    @Mock
+    private FineJdbcRepository fineJdbcRepository;
+    @Mock
+    private OverdueFineJob overdueFineJob;
+    @Mock
+    private JobLockService jobLockService;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private FineTotalsService fineTotalsService;
+    @Mock
+    private EntityManager entityManager;
     @InjectMocks
     private FineService fineService;
 
@@ -58,7 +84,7 @@ class FineServiceTest {
     @Test
     void testGetAllFines_Empty() {
         when(fineRepository.findAll()).thenReturn(Collections.emptyList());
-        List<FineResponseDTO> result = fineService.getAllFines();
+        List<FineResponseDTO> result = fineService.getAllFines(true);
         assertTrue(result.isEmpty());
     }
 
@@ -100,4 +126,227 @@ class FineServiceTest {
         when(fineRepository.existsByTransactionId(100L)).thenReturn(true);
         assertThrows(RuntimeException.class, () -> fineService.createFine(100L, FineType.DAMAGED_ITEM , null));
     }
+
+    @Test
+    void testCreateFine_LateReturnIsOneUpsert() {
+        BorrowingTransactionResponseDTO transaction = transactionResponse(100L);
+        transaction.setDueDate(LocalDate.now().minusDays(4));
+        MemberDTO member = new MemberDTO();
+        member.setMemberId(1L);
+        transaction.setMember(member);
+        when(transactionServiceClient.getTransactionById(100L)).thenReturn(transaction);
+        when(fineRepository.lockActiveFine(100L, FineType.LATE_RETURN)).thenReturn(Optional.of(fine(5L, 100L)));
+
+        FineResponseDTO result = fineService.createFine(100L, FineType.LATE_RETURN, null);
+
+        assertEquals(5L, result.getFineDTO().getFineId());
+        assertEquals(0, new BigDecimal("40").compareTo(result.getFineDTO().getAmount()));
+        InOrder order = inOrder(fineRepository, fineJdbcRepository);
+        order.verify(fineRepository).lockActiveFine(100L, FineType.LATE_RETURN);
+        order.verify(fineJdbcRepository).upsertLateReturnFine(argThat(fine -> fine.getAmount().compareTo(new BigDecimal("40")) == 0
+                && fine.getDueDate().equals(transaction.getDueDate())));
+        verify(fineRepository, never()).findByTransactionIdAndFineType(any(), any());
+        verify(fineRepository, never()).save(any());
+        // The replaced amount comes from the locked row, the member's fines are not re-summed
+        verify(fineTotalsService).recordChange(eq(1L),
+                eq(Fine.FineStatus.PENDING), argThat(amount -> amount.compareTo(new BigDecimal("10.00")) == 0),
+                eq(Fine.FineStatus.PENDING), argThat(amount -> amount.compareTo(new BigDecimal("40")) == 0));
+        verifyNoMoreInteractions(fineTotalsService);
+    }
+
+    @Test
+    void testCreateFine_LateReturnInsertsWhenNoActiveFine() {
+        BorrowingTransactionResponseDTO transaction = transactionResponse(100L);
+        transaction.setDueDate(LocalDate.now().minusDays(2));
+        MemberDTO member = new MemberDTO();
+        member.setMemberId(1L);
+        transaction.setMember(member);
+        when(transactionServiceClient.getTransactionById(100L)).thenReturn(transaction);
+        when(fineRepository.lockActiveFine(100L, FineType.LATE_RETURN)).thenReturn(Optional.empty());
+        when(fineJdbcRepository.upsertLateReturnFine(any(Fine.class))).thenReturn(9L);
+
+        FineResponseDTO result = fineService.createFine(100L, FineType.LATE_RETURN, null);
+
+        assertEquals(9L, result.getFineDTO().getFineId());
+        assertEquals(Fine.FineStatus.PENDING, result.getFineDTO().getStatus());
+        verify(fineTotalsService).recordChange(eq(1L), isNull(), isNull(), eq(Fine.FineStatus.PENDING),
+                argThat(amount -> amount.compareTo(new BigDecimal("20")) == 0));
+    }
+
+    @Test
+    void testCreateFine_DuplicateRejectedByUniqueKey() {
+        BorrowingTransactionResponseDTO transaction = transactionResponse(100L);
+        transaction.setDueDate(LocalDate.now());
+        MemberDTO member = new MemberDTO();
+        member.setMemberId(1L);
+        transaction.setMember(member);
+        when(transactionServiceClient.getTransactionById(100L)).thenReturn(transaction);
+        when(fineRepository.save(any(Fine.class))).thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        RuntimeException error = assertThrows(RuntimeException.class,
+                () -> fineService.createFine(100L, FineType.DAMAGED_ITEM, new BigDecimal("50.00")));
+
+        assertTrue(error.getMessage().contains("Fine already exists"));
+        verifyNoInteractions(fineTotalsService);
+    }
+
+    @Test
+    void testGetFinesPage_HasMore() {
+        Fine first = new Fine();
+        first.setFineId(7L);
+        first.setTransactionId(70L);
+        Fine second = new Fine();
+        second.setFineId(9L);
+        second.setTransactionId(90L);
+        when(fineRepository.findByFineIdGreaterThanOrderByFineIdAsc(0L, Limit.of(2)))
+                .thenReturn(List.of(first, second));
+        when(transactionServiceClient.getTransactionsByIds(List.of(70L))).thenReturn(List.of(transactionResponse(70L)));
+        CursorPageDTO<FineResponseDTO> page = fineService.getFinesPage(null, 1, true);
+        assertEquals(1, page.getItems().size());
+        assertTrue(page.isHasMore());
+        assertEquals(7L, page.getNextCursor());
+        assertEquals(70L, page.getItems().get(0).getBorrowingTransactionResponseDTO().getTransactionId());
+        verify(transactionServiceClient, never()).getTransactionById(any());
+    }
+
+    @Test
+    void testGetFinesByMemberId_OneBulkLookupForDistinctTransactions() {
+        when(fineRepository.findByMemberId(1L)).thenReturn(List.of(fine(1L, 70L), fine(2L, 70L), fine(3L, 90L)));
+        when(transactionServiceClient.getTransactionsByIds(List.of(70L, 90L)))
+                .thenReturn(List.of(transactionResponse(70L), transactionResponse(90L)));
+
+        List<FineResponseDTO> result = fineService.getFinesByMemberId(1L, true);
+
+        assertEquals(3, result.size());
+        assertEquals(70L, result.get(1).getBorrowingTransactionResponseDTO().getTransactionId());
+        assertEquals(90L, result.get(2).getBorrowingTransactionResponseDTO().getTransactionId());
+        verify(transactionServiceClient, times(1)).getTransactionsByIds(any());
+        verify(transactionServiceClient, never()).getTransactionById(any());
+    }
+
+    @Test
+    void testGetFinesByMemberId_WithoutTransaction() {
+        when(fineRepository.findByMemberId(1L)).thenReturn(List.of(fine(1L, 70L)));
+
+        List<FineResponseDTO> result = fineService.getFinesByMemberId(1L, false);
+
+        assertNull(result.get(0).getBorrowingTransactionResponseDTO());
+        verifyNoInteractions(transactionServiceClient);
+    }
+
+    @Test
+    void testGetPendingFineChanges_ResolvesEmailFieldsInOneLookup() {
+        LocalDateTime changedAt = LocalDateTime.now().minusMinutes(5);
+        Fine first = fine(4L, 70L);
+        first.setUpdatedAt(changedAt);
+        Fine second = fine(6L, 70L);
+        second.setUpdatedAt(changedAt.plusSeconds(1));
+        Fine third = fine(8L, 90L);
+        when(fineRepository.findPendingChangedAfter(eq(LocalDateTime.of(1970, 1, 1, 0, 0)), eq(0L),
+                argThat(changedBefore -> changedBefore.isBefore(LocalDateTime.now().minusMinutes(4))), eq(Limit.of(3))))
+                .thenReturn(List.of(first, second, third));
+        BorrowingTransactionResponseDTO transaction = transactionResponse(70L);
+        MemberDTO member = new MemberDTO("Asha", "asha@example.com", null, null);
+        transaction.setMember(member);
+        BookDTO book = new BookDTO();
+        book.setTitle("Dune");
+        transaction.setBook(book);
+        when(transactionServiceClient.getTransactionsByIds(List.of(70L))).thenReturn(List.of(transaction));
+
+        CursorPageDTO<PendingFineChangeDTO> page = fineService.getPendingFineChanges(null, null, 2);
+
+        assertEquals(2, page.getItems().size());
+        assertTrue(page.isHasMore());
+        assertEquals(6L, page.getNextCursor());
+        PendingFineChangeDTO change = page.getItems().get(0);
+        assertEquals("asha@example.com", change.getMemberEmail());
+        assertEquals("Asha", change.getMemberName());
+        assertEquals("Dune", change.getBookTitle());
+        assertEquals("LATE_RETURN", change.getFineType());
+        assertEquals(changedAt, change.getUpdatedAt());
+        verify(transactionServiceClient, times(1)).getTransactionsByIds(any());
+    }
+
+    @Test
+    void testProcessOverdueFines_RunsPartitionedJobThenAccrues() {
+        when(jobLockService.runExclusively(eq("overdue-fines"), eq(LocalDate.now().toString()), any()))
+                .thenAnswer(invocation -> Optional.of(invocation.<IntSupplier>getArgument(2).getAsInt()));
+        when(overdueFineJob.run(LocalDate.now())).thenReturn(2);
+        when(fineRepository.findMaxFineId()).thenReturn(0L);
+
+        fineService.processOverdueFines();
+
+        verify(transactionServiceClient).updateOverdueTransactions();
+        verify(overdueFineJob).run(LocalDate.now());
+        verify(fineRepository).findMaxFineId();
+        verify(overdueFineJob, never()).assist(any(), any());
+        verify(transactionServiceClient, never()).getAllTransactions();
+        verify(transactionServiceClient, never()).getTransactionById(any());
+    }
+
+    @Test
+    void testProcessOverdueFines_AssistsWhenLeaseHeldElsewhere() {
+        when(jobLockService.runExclusively(eq("overdue-fines"), eq(LocalDate.now().toString()), any())).thenReturn(Optional.empty());
+        when(jobLockService.runRecorded(eq("overdue-fines"), any()))
+                .thenAnswer(invocation -> invocation.<IntSupplier>getArgument(1).getAsInt());
+        when(overdueFineJob.assist(eq(LocalDate.now()), any())).thenReturn(3);
+
+        String result = fineService.processOverdueFines();
+
+        assertTrue(result.contains("helped with 3"));
+        verify(transactionServiceClient, never()).updateOverdueTransactions();
+        verify(overdueFineJob, never()).run(any());
+        verify(fineRepository, never()).findMaxFineId();
+    }
+
+    @Test
+    void testAccrueLateReturnFines_WalksFineIdWindows() {
+        fineService.setAccrualChunkSize(100);
+        when(fineRepository.findMaxFineId()).thenReturn(250L);
+        when(fineRepository.accrueLateReturnFines(anyLong(), anyLong(), eq(LocalDate.now()))).thenReturn(40);
+        LocalDateTime started = LocalDateTime.of(2026, 1, 5, 1, 0);
+        when(fineRepository.currentTimestamp()).thenReturn(started);
+        when(fineRepository.findMemberIdsChangedSince(started)).thenReturn(List.of(7L, 9L));
+
+        assertEquals(120, fineService.accrueLateReturnFines());
+
+        verify(fineRepository).accrueLateReturnFines(0L, 100L, LocalDate.now());
+        verify(fineRepository).accrueLateReturnFines(100L, 200L, LocalDate.now());
+        verify(fineRepository).accrueLateReturnFines(200L, 300L, LocalDate.now());
+        verify(transactionServiceClient, never()).getTransactionById(any());
+        // Totals are reconciled for the changed members only
+        verify(fineTotalsService).reconcile(List.of(7L, 9L));
+        verify(fineTotalsService, never()).reconcile();
+    }
+
+    private Fine fine(Long fineId, Long transactionId) {
+        Fine fine = new Fine(1L, transactionId, new BigDecimal("10.00"), FineType.LATE_RETURN);
+        fine.setFineId(fineId);
+        return fine;
+    }
+
+    private BorrowingTransactionResponseDTO transactionResponse(Long transactionId) {
+        BorrowingTransactionResponseDTO transaction = new BorrowingTransactionResponseDTO();
+        transaction.setTransactionId(transactionId);
+        return transaction;
+    }
+
+    @Test
+    void testPayFine_MovesAmountFromPendingToPaid() {
+        Fine fine = fine(1L, 70L);
+        when(fineRepository.findById(1L)).thenReturn(Optional.of(fine));
+        when(fineRepository.save(fine)).thenReturn(fine);
+
+        fineService.payFine(1L);
+
+        verify(fineTotalsService).recordChange(1L, Fine.FineStatus.PENDING, new BigDecimal("10.00"),
+                Fine.FineStatus.PAID, new BigDecimal("10.00"));
+    }
+
+    @Test
+    void testGetTotalPendingFines_ReadsMaintainedTotal() {
+        when(fineTotalsService.getPendingTotal()).thenReturn(new BigDecimal("120.00"));
+        assertEquals(new BigDecimal("120.00"), fineService.getTotalPendingFines());
+        verify(fineRepository, never()).getTotalPendingFines();
+    }
 }
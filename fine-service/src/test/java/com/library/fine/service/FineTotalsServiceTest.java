@@ -0,0 +1,145 @@
+package com.library.fine.service;
+
+import com.library.fine.entity.Fine;
+import com.library.fine.entity.FineTotal;
+import com.library.fine.repository.FineRepository;
+import com.library.fine.repository.FineTotalJdbcRepository;
+import com.library.fine.repository.FineTotalRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+class FineTotalsServiceTest {
+    @Mock
+    private FineTotalRepository fineTotalRepository;
+    @Mock
+    private FineTotalJdbcRepository fineTotalJdbcRepository;
+    @Mock
+    private FineRepository fineRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @InjectMocks
+    private FineTotalsService fineTotalsService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void testRecordChange_NewPendingFine() {
+        fineTotalsService.recordChange(5L, null, null, Fine.FineStatus.PENDING, new BigDecimal("30.00"));
+        verify(fineTotalJdbcRepository).addToTotal(5L, new BigDecimal("30.00"), new BigDecimal("0.00"));
+        // Only the member's own row, there is no all-members row for every write to lock
+        verifyNoMoreInteractions(fineTotalJdbcRepository);
+    }
+
+    @Test
+    void testRecordChange_ReversedPayment() {
+        fineTotalsService.recordChange(5L, Fine.FineStatus.PAID, new BigDecimal("20.00"),
+                Fine.FineStatus.PENDING, new BigDecimal("20.00"));
+        verify(fineTotalJdbcRepository).addToTotal(5L, new BigDecimal("20.00"), new BigDecimal("-20.00"));
+    }
+
+    @Test
+    void testRecordChange_CancelledToDeletedIsNoOp() {
+        fineTotalsService.recordChange(5L, Fine.FineStatus.CANCELLED, new BigDecimal("20.00"), null, null);
+        verifyNoInteractions(fineTotalJdbcRepository);
+    }
+
+    @Test
+    void testGetPendingTotal_MissingRowIsZero() {
+        when(fineTotalRepository.findById(9L)).thenReturn(Optional.empty());
+        assertEquals(BigDecimal.ZERO, fineTotalsService.getPendingTotal(9L));
+    }
+
+    @Test
+    void testReconcile_RewritesOnlyDriftedRows() {
+        when(fineTotalRepository.findAll()).thenReturn(List.of(
+                total(1L, "30.00", "10.00"),
+                total(2L, "25.00", "0.00")));
+        when(fineRepository.sumAmountsByMember()).thenReturn(List.of(
+                sums(1L, "30.00", "10.00"),
+                sums(2L, "20.00", "0.00")));
+        when(fineTotalRepository.lockByMemberId(anyLong())).thenReturn(Optional.empty());
+        when(fineRepository.getTotalPendingFinesByMember(2L)).thenReturn(new BigDecimal("20.00"));
+        when(fineRepository.getTotalPaidFinesByMember(2L)).thenReturn(BigDecimal.ZERO);
+
+        assertEquals(1, fineTotalsService.reconcile());
+
+        verify(fineTotalRepository).save(argThatTotal(2L, "20.00"));
+        verify(fineTotalRepository, times(1)).save(any());
+    }
+
+    @Test
+    void testGetPendingTotal_SumsMemberRows() {
+        when(fineTotalRepository.sumPendingAmounts()).thenReturn(new BigDecimal("55.00"));
+        assertEquals(new BigDecimal("55.00"), fineTotalsService.getPendingTotal());
+    }
+
+    @Test
+    void testReconcileMembers_OnlyReadsGivenMembers() {
+        when(fineTotalRepository.findAllById(List.of(1L, 3L))).thenReturn(List.of(
+                total(1L, "30.00", "0.00"),
+                total(3L, "15.00", "0.00")));
+        when(fineRepository.sumAmountsByMembers(List.of(1L, 3L))).thenReturn(List.of(
+                sums(1L, "40.00", "0.00"),
+                sums(3L, "15.00", "0.00")));
+        when(fineTotalRepository.lockByMemberId(1L)).thenReturn(Optional.empty());
+        when(fineRepository.getTotalPendingFinesByMember(1L)).thenReturn(new BigDecimal("40.00"));
+        when(fineRepository.getTotalPaidFinesByMember(1L)).thenReturn(BigDecimal.ZERO);
+
+        assertEquals(1, fineTotalsService.reconcile(List.of(1L, 3L)));
+
+        verify(fineTotalRepository).save(argThatTotal(1L, "40.00"));
+        verify(fineTotalRepository, never()).findAll();
+        verify(fineRepository, never()).sumAmountsByMember();
+    }
+
+    @Test
+    void testSeedIfEmpty_ReconcilesEmptyTable() {
+        when(fineTotalRepository.count()).thenReturn(0L);
+        when(fineTotalRepository.findAll()).thenReturn(List.of());
+        when(fineRepository.sumAmountsByMember()).thenReturn(List.of(sums(4L, "10.00", "0.00")));
+        when(fineTotalRepository.lockByMemberId(4L)).thenReturn(Optional.empty());
+        when(fineRepository.getTotalPendingFinesByMember(4L)).thenReturn(new BigDecimal("10.00"));
+        when(fineRepository.getTotalPaidFinesByMember(4L)).thenReturn(BigDecimal.ZERO);
+
+        fineTotalsService.seedIfEmpty();
+
+        verify(fineTotalRepository).save(argThatTotal(4L, "10.00"));
+    }
+
+    private FineTotal argThatTotal(Long memberId, String pending) {
+        return argThat(total -> total.getMemberId().equals(memberId)
+                && total.getPendingAmount().compareTo(new BigDecimal(pending)) == 0);
+    }
+
+    private FineTotal total(Long memberId, String pending, String paid) {
+        FineTotal total = new FineTotal(memberId);
+        total.setPendingAmount(new BigDecimal(pending));
+        total.setPaidAmount(new BigDecimal(paid));
+        return total;
+    }
+
+    private FineRepository.MemberFineSums sums(Long memberId, String pending, String paid) {
+        return new FineRepository.MemberFineSums() {
+            public Long getMemberId() { return memberId; }
+            public BigDecimal getPending() { return new BigDecimal(pending); }
+            public BigDecimal getPaid() { return new BigDecimal(paid); }
+        };
+    }
+}
@@ -0,0 +1,138 @@
+package com.library.fine.service;
+
+import com.library.fine.entity.JobLock;
+import com.library.fine.entity.JobRun;
+import com.library.fine.repository.JobLockRepository;
+import com.library.fine.repository.JobRunRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Not wrapped in a test transaction, the lease and the run history commit on their own
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+@Import(JobLockService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class JobLockServiceTest {
+
+    @Autowired
+    private JobLockService jobLockService;
+
+    @Autowired
+    private JobLockRepository lockRepository;
+
+    @Autowired
+    private JobRunRepository runRepository;
+
+    @AfterEach
+    void tearDown() {
+        lockRepository.deleteAll();
+        runRepository.deleteAll();
+    }
+
+    @Test
+    void tryAcquire_FirstRunCreatesLease() {
+        assertTrue(jobLockService.tryAcquire("nightly", "2026-01-05"));
+
+        JobLock lock = lockRepository.findById("nightly").orElseThrow();
+        assertEquals(jobLockService.getInstanceId(), lock.getLockedBy());
+        assertTrue(lock.getLockedUntil().isAfter(LocalDateTime.now().plusMinutes(9)));
+        assertFalse(jobLockService.tryAcquire("nightly", "2026-01-05"));
+    }
+
+    @Test
+    void tryAcquire_RefusedWhileAnotherInstanceHoldsLease() {
+        lockRepository.save(new JobLock("nightly", "other:1", LocalDateTime.now(), LocalDateTime.now().plusHours(1)));
+
+        assertFalse(jobLockService.tryAcquire("nightly", "2026-01-05"));
+        assertTrue(jobLockService.isHeldElsewhere("nightly"));
+        assertTrue(jobLockService.runExclusively("nightly", "2026-01-05", () -> 5).isEmpty());
+        assertEquals(0, runRepository.count());
+    }
+
+    @Test
+    void tryAcquire_TakesOverExpiredLease() {
+        lockRepository.save(new JobLock("nightly", "other:1", LocalDateTime.now().minusHours(3),
+                LocalDateTime.now().minusHours(1)));
+
+        assertTrue(jobLockService.tryAcquire("nightly", "2026-01-05"));
+        assertEquals(jobLockService.getInstanceId(), lockRepository.findById("nightly").orElseThrow().getLockedBy());
+        assertFalse(jobLockService.isHeldElsewhere("nightly"));
+    }
+
+    @Test
+    void runExclusively_RecordsRunAndClosesWindow() {
+        Optional<Integer> processed = jobLockService.runExclusively("nightly", "2026-01-05", () -> 7);
+
+        assertEquals(Optional.of(7), processed);
+        List<JobRun> runs = jobLockService.getRecentRuns("nightly");
+        assertEquals(1, runs.size());
+        assertEquals(JobRun.RunStatus.SUCCEEDED, runs.get(0).getStatus());
+        assertEquals(7, runs.get(0).getProcessed());
+        assertNotNull(runs.get(0).getFinishedAt());
+        assertEquals("2026-01-05", lockRepository.findById("nightly").orElseThrow().getCompletedWindow());
+        // A replica whose trigger fires late does not run the same night again, the next night runs
+        assertTrue(jobLockService.runExclusively("nightly", "2026-01-05", () -> 7).isEmpty());
+        assertTrue(jobLockService.tryAcquire("nightly", "2026-01-06"));
+    }
+
+    @Test
+    void runExclusively_RecordsFailureAndLeavesWindowOpen() {
+        assertThrows(RuntimeException.class, () -> jobLockService.runExclusively("nightly", "2026-01-05", () -> {
+            throw new RuntimeException("feed down");
+        }));
+
+        JobRun run = jobLockService.getRecentRuns(null).get(0);
+        assertEquals(JobRun.RunStatus.FAILED, run.getStatus());
+        assertEquals("feed down", run.getError());
+        assertNull(lockRepository.findById("nightly").orElseThrow().getCompletedWindow());
+        assertTrue(jobLockService.tryAcquire("nightly", "2026-01-05"));
+    }
+
+    @Test
+    void runExclusively_RenewsLeaseWhileRunning() {
+        jobLockService.setLease(Duration.ofSeconds(3));
+        try {
+            jobLockService.runExclusively("nightly", "2026-01-05", () -> {
+                // Runs past the lease length, renewals keep it from expiring
+                try {
+                    Thread.sleep(4500);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                assertTrue(lockRepository.findById("nightly").orElseThrow()
+                        .getLockedUntil().isAfter(LocalDateTime.now()));
+                return 1;
+            });
+        } finally {
+            jobLockService.setLease(Duration.ofMinutes(10));
+        }
+    }
+
+    @Test
+    void renew_StopsAfterTakeover() {
+        assertTrue(jobLockService.tryAcquire("nightly", "2026-01-05"));
+        LocalDateTime takenUntil = LocalDateTime.now().plusHours(1).withNano(0);
+        lockRepository.save(new JobLock("nightly", "other:1", LocalDateTime.now(), takenUntil));
+
+        jobLockService.renew("nightly");
+
+        JobLock lock = lockRepository.findById("nightly").orElseThrow();
+        assertEquals("other:1", lock.getLockedBy());
+        assertEquals(takenUntil, lock.getLockedUntil());
+    }
+}
@@ -0,0 +1,216 @@
+package com.library.fine.service;
+
+import com.library.fine.client.TransactionServiceClient;
+import com.library.fine.dto.CursorPageDTO;
+import com.library.fine.dto.IdRangeDTO;
+import com.library.fine.dto.OverdueTransactionDTO;
+import com.library.fine.entity.JobPartition;
+import com.library.fine.entity.JobWatermark;
+import com.library.fine.repository.FineJdbcRepository;
+import com.library.fine.repository.JobPartitionRepository;
+import com.library.fine.repository.JobWatermarkRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class OverdueFineJobTest {
+    @Mock
+    private TransactionServiceClient transactionServiceClient;
+    @Mock
+    private FineJdbcRepository fineJdbcRepository;
+    @Mock
+    private JobWatermarkRepository watermarkRepository;
+    @Mock
+    private JobPartitionRepository partitionRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private JobLockService jobLockService;
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @InjectMocks
+    private OverdueFineJob overdueFineJob;
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        overdueFineJob.setPartitionCount(4);
+        overdueFineJob.setParallelism(2);
+        overdueFineJob.setPollMillis(1);
+        when(jobLockService.getInstanceId()).thenReturn("fine-1");
+        when(partitionRepository.claim(any(), eq("fine-1"), any(), any())).thenReturn(1);
+        when(partitionRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        // Every range holds one overdue transaction, its upper bound
+        when(transactionServiceClient.getOverdueFeed(anyLong(), anyLong(), anyInt())).thenAnswer(invocation ->
+                new CursorPageDTO<>(List.of(overdue(invocation.getArgument(1))), null, false));
+    }
+
+    @Test
+    void testRun_SplitsOverdueIdsIntoRanges() {
+        when(watermarkRepository.findById("overdue-fines")).thenReturn(Optional.empty());
+        when(transactionServiceClient.getOverdueIdRange()).thenReturn(new IdRangeDTO(1L, 1000L));
+
+        assertEquals(4, overdueFineJob.run(TODAY));
+
+        verify(partitionRepository).deleteByJobName("overdue-fines");
+        verify(transactionServiceClient).getOverdueFeed(0L, 250L, 500);
+        verify(transactionServiceClient).getOverdueFeed(250L, 500L, 500);
+        verify(transactionServiceClient).getOverdueFeed(500L, 750L, 500);
+        verify(transactionServiceClient).getOverdueFeed(750L, 1000L, 500);
+        // Due two days ago at 10.00 a day
+        verify(fineJdbcRepository, times(4)).upsertLateReturnFines(argThat(fines -> fines.size() == 1
+                && fines.get(0).getAmount().compareTo(new BigDecimal("20.00")) == 0
+                && fines.get(0).getDueDate().equals(TODAY.minusDays(2))));
+        assertTrue(savedWatermark().isCompleted());
+        assertEquals(1.0, meterRegistry.get("fine.job.partition.transactions").tag("partition", "3").counter().count());
+        assertEquals(1, meterRegistry.get("fine.job.partition.duration").tag("partition", "0").timer().count());
+    }
+
+    @Test
+    void testRun_FewerIdsThanPartitions() {
+        when(watermarkRepository.findById("overdue-fines")).thenReturn(Optional.empty());
+        when(transactionServiceClient.getOverdueIdRange()).thenReturn(new IdRangeDTO(7L, 8L));
+
+        assertEquals(2, overdueFineJob.run(TODAY));
+
+        verify(transactionServiceClient).getOverdueFeed(6L, 7L, 500);
+        verify(transactionServiceClient).getOverdueFeed(7L, 8L, 500);
+    }
+
+    @Test
+    void testRun_NothingOverdue() {
+        when(watermarkRepository.findById("overdue-fines")).thenReturn(Optional.empty());
+        when(transactionServiceClient.getOverdueIdRange()).thenReturn(new IdRangeDTO(null, null));
+
+        assertEquals(0, overdueFineJob.run(TODAY));
+
+        verify(transactionServiceClient, never()).getOverdueFeed(anyLong(), anyLong(), anyInt());
+        assertTrue(savedWatermark().isCompleted());
+    }
+
+    @Test
+    void testRun_ResumesUnfinishedRangesFromCheckpoint() {
+        when(watermarkRepository.findById("overdue-fines")).thenReturn(Optional.of(watermark(false)));
+        JobPartition done = new JobPartition("overdue-fines", 0, TODAY, 0L, 250L);
+        done.setCompleted(true);
+        JobPartition interrupted = new JobPartition("overdue-fines", 1, TODAY, 250L, 500L);
+        interrupted.setLastId(300L);
+        when(partitionRepository.findByJobNameOrderByPartitionNoAsc("overdue-fines"))
+                .thenReturn(List.of(done, interrupted));
+
+        assertEquals(1, overdueFineJob.run(TODAY));
+
+        verify(transactionServiceClient).getOverdueFeed(300L, 500L, 500);
+        verify(transactionServiceClient, never()).getOverdueFeed(eq(0L), anyLong(), anyInt());
+        verify(transactionServiceClient, never()).getOverdueIdRange();
+        verify(partitionRepository, never()).deleteByJobName(any());
+        assertTrue(interrupted.isCompleted());
+        assertEquals(500L, interrupted.getLastId());
+    }
+
+    @Test
+    void testRun_FailedRangeLeavesRunIncomplete() {
+        when(watermarkRepository.findById("overdue-fines")).thenReturn(Optional.empty());
+        when(transactionServiceClient.getOverdueIdRange()).thenReturn(new IdRangeDTO(1L, 1000L));
+        when(transactionServiceClient.getOverdueFeed(250L, 500L, 500)).thenThrow(new RuntimeException("feed down"));
+
+        RuntimeException error = assertThrows(RuntimeException.class, () -> overdueFineJob.run(TODAY));
+
+        assertEquals("feed down", error.getMessage());
+        verify(partitionRepository).releaseClaim(any(), eq("fine-1"));
+        // The other three ranges still finished and checkpointed
+        verify(fineJdbcRepository, times(3)).upsertLateReturnFines(anyList());
+        verify(partitionRepository, times(3)).save(argThat(JobPartition::isCompleted));
+        assertFalse(savedWatermark().isCompleted());
+    }
+
+    @Test
+    void testRun_WaitsForRangeClaimedElsewhereThenTakesItOver() {
+        when(watermarkRepository.findById("overdue-fines")).thenReturn(Optional.of(watermark(false)));
+        JobPartition held = new JobPartition("overdue-fines", 0, TODAY, 0L, 250L);
+        held.setPartitionId(1L);
+        when(partitionRepository.findByJobNameOrderByPartitionNoAsc("overdue-fines")).thenReturn(List.of(held));
+        // Another instance holds the claim on the first look, then lets it lapse
+        when(partitionRepository.claim(eq(1L), eq("fine-1"), any(), any())).thenReturn(0, 1);
+
+        assertEquals(1, overdueFineJob.run(TODAY));
+
+        verify(partitionRepository, times(2)).claim(eq(1L), eq("fine-1"), any(), any());
+        verify(transactionServiceClient).getOverdueFeed(0L, 250L, 500);
+        assertEquals("fine-1", held.getClaimedBy());
+        assertTrue(savedWatermark().isCompleted());
+    }
+
+    @Test
+    void testAssist_ClaimsOpenRangesOfTodaysRun() {
+        JobPartition done = new JobPartition("overdue-fines", 0, TODAY, 0L, 250L);
+        done.setCompleted(true);
+        JobPartition taken = new JobPartition("overdue-fines", 1, TODAY, 250L, 500L);
+        taken.setPartitionId(2L);
+        JobPartition open = new JobPartition("overdue-fines", 2, TODAY, 500L, 750L);
+        open.setPartitionId(3L);
+        when(partitionRepository.findByJobNameOrderByPartitionNoAsc("overdue-fines"))
+                .thenReturn(List.of(done, taken, open));
+        when(partitionRepository.claim(eq(2L), eq("fine-1"), any(), any())).thenReturn(0);
+
+        // The lease holder finishes after two looks
+        int[] looks = {0};
+        assertEquals(1, overdueFineJob.assist(TODAY, () -> looks[0]++ < 2));
+
+        verify(transactionServiceClient).getOverdueFeed(500L, 750L, 500);
+        verify(transactionServiceClient, never()).getOverdueFeed(eq(250L), anyLong(), anyInt());
+        assertTrue(open.isCompleted());
+        verifyNoInteractions(watermarkRepository);
+    }
+
+    @Test
+    void testAssist_StopsWhenTodaysRangesAreDone() {
+        JobPartition done = new JobPartition("overdue-fines", 0, TODAY, 0L, 250L);
+        done.setCompleted(true);
+        when(partitionRepository.findByJobNameOrderByPartitionNoAsc("overdue-fines")).thenReturn(List.of(done));
+
+        assertEquals(0, overdueFineJob.assist(TODAY, () -> true));
+
+        verify(transactionServiceClient, never()).getOverdueFeed(anyLong(), anyLong(), anyInt());
+    }
+
+    private JobWatermark savedWatermark() {
+        ArgumentCaptor<JobWatermark> watermark = ArgumentCaptor.forClass(JobWatermark.class);
+        verify(watermarkRepository, atLeastOnce()).save(watermark.capture());
+        return watermark.getValue();
+    }
+
+    private JobWatermark watermark(boolean completed) {
+        JobWatermark watermark = new JobWatermark("overdue-fines");
+        watermark.setRunDate(TODAY);
+        watermark.setCompleted(completed);
+        return watermark;
+    }
+
+    private OverdueTransactionDTO overdue(Long transactionId) {
+        return new OverdueTransactionDTO(transactionId, 1L, 1L, TODAY.minusDays(2));
+    }
+}
@@ -0,0 +1,24 @@
+package com.library.fine.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PaiseTest {
+
+    @Test
+    void testRoundTrip() {
+        assertEquals(1050L, Paise.of(new BigDecimal("10.5")));
+        assertEquals(1001L, Paise.of(new BigDecimal("10.005")));
+        assertEquals(0L, Paise.of(null));
+        assertEquals(new BigDecimal("10.50"), Paise.toRupees(1050L));
+    }
+
+    @Test
+    void testPerDay() {
+        assertEquals(3000L, Paise.perDay(1000L, 3));
+        assertEquals(0L, Paise.perDay(1000L, -2));
+    }
+}
@@ -0,0 +1,148 @@
+package com.library.fine.service;
+
+import com.library.fine.dto.TransactionEventDTO;
+import com.library.fine.dto.TransactionEventResultDTO;
+import com.library.fine.entity.Fine;
+import com.library.fine.repository.FineJdbcRepository;
+import com.library.fine.repository.FineRepository;
+import com.library.fine.repository.ProcessedEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+class TransactionEventServiceTest {
+    @Mock
+    private ProcessedEventRepository processedEventRepository;
+    @Mock
+    private FineRepository fineRepository;
+    @Mock
+    private FineJdbcRepository fineJdbcRepository;
+    @Mock
+    private FineTotalsService fineTotalsService;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @InjectMocks
+    private TransactionEventService transactionEventService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void testApplyEvents_OverdueCreatesLateFine() {
+        LocalDate dueDate = LocalDate.now().minusDays(3);
+
+        int applied = transactionEventService.applyEvents(List.of(event(1L, "TRANSACTION_OVERDUE", dueDate, null))).getAppliedCount();
+
+        assertEquals(1, applied);
+        verify(processedEventRepository).saveAndFlush(argThat(processed -> processed.getEventId().equals(1L)));
+        verify(fineJdbcRepository).upsertLateReturnFines(argThat(fines -> fines.size() == 1
+                && fines.get(0).getTransactionId().equals(100L)
+                && fines.get(0).getAmount().compareTo(new BigDecimal("30.00")) == 0
+                && fines.get(0).getReturnDate() == null));
+        verify(fineTotalsService).recordChange(eq(5L), isNull(), isNull(), eq(Fine.FineStatus.PENDING),
+                argThat(amount -> amount.compareTo(new BigDecimal("30.00")) == 0));
+    }
+
+    @Test
+    void testApplyEvents_OverdueLeavesAccruingFineAlone() {
+        Fine accruing = activeFine("30.00");
+        accruing.setDueDate(LocalDate.now().minusDays(3));
+        when(fineRepository.lockActiveFine(100L, Fine.FineType.LATE_RETURN)).thenReturn(Optional.of(accruing));
+
+        transactionEventService.applyEvents(List.of(event(1L, "TRANSACTION_OVERDUE", LocalDate.now().minusDays(3), null)));
+
+        verify(fineJdbcRepository, never()).upsertLateReturnFines(anyList());
+        verifyNoInteractions(fineTotalsService);
+    }
+
+    @Test
+    void testApplyEvents_LateReturnFreezesFineAtReturnDate() {
+        LocalDate dueDate = LocalDate.now().minusDays(6);
+        LocalDate returnDate = LocalDate.now().minusDays(2);
+        when(fineRepository.lockActiveFine(100L, Fine.FineType.LATE_RETURN)).thenReturn(Optional.of(activeFine("60.00")));
+
+        transactionEventService.applyEvents(List.of(event(2L, "TRANSACTION_RETURNED", dueDate, returnDate)));
+
+        InOrder order = inOrder(fineRepository, fineJdbcRepository);
+        order.verify(fineRepository).lockActiveFine(100L, Fine.FineType.LATE_RETURN);
+        order.verify(fineJdbcRepository).upsertLateReturnFine(argThat(fine -> fine.getReturnDate().equals(returnDate)
+                && fine.getAmount().compareTo(new BigDecimal("40.00")) == 0));
+        // The delta comes from the locked row, not from re-summing the member's fines
+        verify(fineTotalsService).recordChange(eq(5L),
+                eq(Fine.FineStatus.PENDING), argThat(amount -> amount.compareTo(new BigDecimal("60.00")) == 0),
+                eq(Fine.FineStatus.PENDING), argThat(amount -> amount.compareTo(new BigDecimal("40.00")) == 0));
+    }
+
+    @Test
+    void testApplyEvents_OnTimeReturnHasNoFine() {
+        LocalDate dueDate = LocalDate.now();
+
+        int applied = transactionEventService.applyEvents(List.of(event(3L, "TRANSACTION_RETURNED", dueDate, dueDate))).getAppliedCount();
+
+        assertEquals(1, applied);
+        verify(processedEventRepository).saveAndFlush(any());
+        verifyNoInteractions(fineRepository, fineJdbcRepository, fineTotalsService);
+    }
+
+    @Test
+    void testApplyEvents_SkipsRedeliveredEvents() {
+        when(processedEventRepository.existsById(1L)).thenReturn(true);
+        when(processedEventRepository.saveAndFlush(argThat(processed -> processed.getEventId().equals(2L))))
+                .thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        int applied = transactionEventService.applyEvents(List.of(
+                event(1L, "TRANSACTION_OVERDUE", LocalDate.now().minusDays(1), null),
+                event(2L, "TRANSACTION_OVERDUE", LocalDate.now().minusDays(1), null))).getAppliedCount();
+
+        assertEquals(0, applied);
+        verify(fineJdbcRepository, never()).upsertLateReturnFines(anyList());
+        verifyNoInteractions(fineTotalsService);
+    }
+
+    @Test
+    void testApplyEvents_ReportsFailedEventAndAppliesTheRest() {
+        LocalDate dueDate = LocalDate.now().minusDays(2);
+
+        TransactionEventResultDTO result = transactionEventService.applyEvents(List.of(
+                event(1L, "TRANSACTION_RETURNED", null, LocalDate.now()),
+                event(2L, "TRANSACTION_OVERDUE", dueDate, null)));
+
+        assertEquals(1, result.getAppliedCount());
+        assertEquals(Set.of(1L), result.getFailures().keySet());
+        assertTrue(result.getFailures().get(1L).contains("no due date"));
+        verify(fineJdbcRepository).upsertLateReturnFines(anyList());
+        verify(fineJdbcRepository, never()).upsertLateReturnFine(any());
+    }
+
+    private Fine activeFine(String amount) {
+        Fine fine = new Fine(5L, 100L, new BigDecimal(amount), Fine.FineType.LATE_RETURN);
+        fine.setFineId(11L);
+        return fine;
+    }
+
+    private TransactionEventDTO event(Long eventId, String eventType, LocalDate dueDate, LocalDate returnDate) {
+        return new TransactionEventDTO(eventId, eventType, 100L, 5L, 7L, dueDate, returnDate, LocalDateTime.now());
+    }
+}
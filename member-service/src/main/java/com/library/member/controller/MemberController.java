@@ -1,14 +1,18 @@
 package com.library.member.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.member.dto.CursorPageDTO;
 import com.library.member.dto.MemberDTO;
 import com.library.member.entity.Member;
 import com.library.member.service.MemberService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 
@@ -20,12 +24,34 @@ public class MemberController {
     @Autowired
     private MemberService memberService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @GetMapping
     public ResponseEntity<List<MemberDTO>> getAllMembers() {
         List<MemberDTO> members = memberService.getAllMembers();
         return ResponseEntity.ok(members);
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<CursorPageDTO<MemberDTO>> getMembersPage(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(memberService.getMembersPage(after, size));
+    }
+
+    @GetMapping(value = "/stream", produces = NdjsonWriter.CONTENT_TYPE)
+    public void streamAllMembers(HttpServletResponse response) throws IOException {
+        response.setContentType(NdjsonWriter.CONTENT_TYPE);
+        memberService.streamAllMembers(new NdjsonWriter<>(objectMapper, response.getOutputStream()));
+    }
+
+    @GetMapping(params = "ids")
+    public ResponseEntity<List<MemberDTO>> getMembersByIds(@RequestParam List<Long> ids) {
+        List<MemberDTO> members = memberService.getMembersByIds(ids);
+        return ResponseEntity.ok(members);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<MemberDTO> getMemberById(@PathVariable Long id) {
         return memberService.getMemberById(id)
@@ -46,6 +72,14 @@ public class MemberController {
         return ResponseEntity.ok(members);
     }
 
+    @GetMapping("/status/{status}/page")
+    public ResponseEntity<CursorPageDTO<MemberDTO>> getMembersByStatusPage(
+            @PathVariable Member.MembershipStatus status,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(memberService.getMembersByStatusPage(status, after, size));
+    }
+
     @GetMapping("/search")
     public ResponseEntity<List<MemberDTO>> searchMembersByName(@RequestParam String name) {
         List<MemberDTO> members = memberService.searchMembersByName(name);
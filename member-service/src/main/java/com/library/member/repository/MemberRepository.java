@@ -1,11 +1,17 @@
 package com.library.member.repository;
 
 import com.library.member.entity.Member;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface MemberRepository extends JpaRepository<Member, Long> {
@@ -17,4 +23,16 @@ public interface MemberRepository extends JpaRepository<Member, Long> {
     List<Member> findByNameContainingIgnoreCase(String name);
     
     boolean existsByEmail(String email);
+
+    List<Member> findByMemberIdGreaterThanOrderByMemberIdAsc(Long memberId, Limit limit);
+
+    List<Member> findByMembershipStatusAndMemberIdGreaterThanOrderByMemberIdAsc(Member.MembershipStatus status,
+                                                                                Long memberId, Limit limit);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT m FROM Member m ORDER BY m.memberId")
+    Stream<Member> streamAll();
 }
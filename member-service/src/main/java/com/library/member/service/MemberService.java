@@ -1,34 +1,77 @@
 package com.library.member.service;
 
+import com.library.member.dto.CursorPageDTO;
 import com.library.member.dto.MemberDTO;
 import com.library.member.entity.Member;
 import com.library.member.repository.MemberRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
 public class MemberService {
 
+    private static final int MAX_PAGE_SIZE = 500;
+
     @Autowired
     private MemberRepository memberRepository;
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
     public List<MemberDTO> getAllMembers() {
         return memberRepository.findAll().stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public CursorPageDTO<MemberDTO> getMembersPage(Long after, int size) {
+        int pageSize = clampPageSize(size);
+        return toPage(memberRepository.findByMemberIdGreaterThanOrderByMemberIdAsc(
+                cursorOf(after), Limit.of(pageSize + 1)), pageSize);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageDTO<MemberDTO> getMembersByStatusPage(Member.MembershipStatus status, Long after, int size) {
+        int pageSize = clampPageSize(size);
+        return toPage(memberRepository.findByMembershipStatusAndMemberIdGreaterThanOrderByMemberIdAsc(
+                status, cursorOf(after), Limit.of(pageSize + 1)), pageSize);
+    }
+
+    @Transactional(readOnly = true)
+    public void streamAllMembers(Consumer<MemberDTO> sink) {
+        try (Stream<Member> members = memberRepository.streamAll()) {
+            members.forEach(member -> {
+                sink.accept(convertToDTO(member));
+                // Keep the persistence context from growing with the result set
+                entityManager.detach(member);
+            });
+        }
+    }
+
     public Optional<MemberDTO> getMemberById(Long id) {
         return memberRepository.findById(id)
                 .map(this::convertToDTO);
     }
 
+    public List<MemberDTO> getMembersByIds(Collection<Long> ids) {
+        return memberRepository.findAllById(ids).stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
     public Optional<MemberDTO> getMemberByEmail(String email) {
         return memberRepository.findByEmail(email)
                 .map(this::convertToDTO);
@@ -88,6 +131,25 @@ public class MemberService {
                 });
     }
 
+    private int clampPageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    private long cursorOf(Long after) {
+        return after == null ? 0L : after;
+    }
+
+    // Rows are fetched with one extra element to learn whether another page exists
+    private CursorPageDTO<MemberDTO> toPage(List<Member> rows, int pageSize) {
+        boolean hasMore = rows.size() > pageSize;
+        List<MemberDTO> items = rows.stream()
+                .limit(pageSize)
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+        Long nextCursor = hasMore ? items.get(items.size() - 1).getMemberId() : null;
+        return new CursorPageDTO<>(items, nextCursor, hasMore);
+    }
+
     private MemberDTO convertToDTO(Member member) {
         MemberDTO dto = new MemberDTO();
         dto.setMemberId(member.getMemberId());
@@ -3,6 +3,8 @@ package com.library.member.service;
 import com.library.member.dto.MemberDTO;
 import com.library.member.entity.Member;
 import com.library.member.repository.MemberRepository;
+import com.library.member.dto.CursorPageDTO;
+import org.springframework.data.domain.Limit;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -127,4 +129,27 @@ class MemberServiceTest {
         Optional<MemberDTO> result = memberService.updateMembershipStatus(2L, Member.MembershipStatus.ACTIVE);
         assertFalse(result.isPresent());
     }
+
+    @Test
+    void testGetMembersByStatusPage_HasMore() {
+        Member first = new Member();
+        first.setMemberId(5L);
+        Member second = new Member();
+        second.setMemberId(8L);
+        when(memberRepository.findByMembershipStatusAndMemberIdGreaterThanOrderByMemberIdAsc(
+                Member.MembershipStatus.ACTIVE, 4L, Limit.of(2))).thenReturn(List.of(first, second));
+        CursorPageDTO<MemberDTO> page = memberService.getMembersByStatusPage(Member.MembershipStatus.ACTIVE, 4L, 1);
+        assertEquals(1, page.getItems().size());
+        assertTrue(page.isHasMore());
+        assertEquals(5L, page.getNextCursor());
+    }
+
+    @Test
+    void testGetMembersPage_ClampsSize() {
+        when(memberRepository.findByMemberIdGreaterThanOrderByMemberIdAsc(0L, Limit.of(501)))
+                .thenReturn(Collections.emptyList());
+        CursorPageDTO<MemberDTO> page = memberService.getMembersPage(null, 10_000);
+        assertTrue(page.getItems().isEmpty());
+        assertFalse(page.isHasMore());
+    }
 }
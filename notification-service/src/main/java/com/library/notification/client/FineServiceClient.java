@@ -1,14 +1,21 @@
 package com.library.notification.client;
 
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 
-import com.library.notification.dto.FineResponseDTO;
+import com.library.notification.dto.CursorPageDTO;
+import com.library.notification.dto.PendingFineChangeDTO;
 
-import java.util.List;
+import java.time.LocalDateTime;
 
 @FeignClient(name = "fine-service")
 public interface FineServiceClient {
-    @GetMapping("/api/fines")
-    List<FineResponseDTO> getAllFines();
+    // PENDING fines changed after (changedAfter, after), keyset by change time then fine ID
+    @GetMapping("/api/fines/pending/changes")
+    CursorPageDTO<PendingFineChangeDTO> getPendingFineChanges(
+            @RequestParam(value = "changedAfter", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime changedAfter,
+            @RequestParam(value = "after", required = false) Long after,
+            @RequestParam("size") int size);
 }
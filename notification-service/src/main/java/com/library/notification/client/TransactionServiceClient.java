@@ -1,11 +1,15 @@
 package com.library.notification.client;
 
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 
 import com.library.notification.dto.BorrowingTransactionResponseDTO;
+import com.library.notification.dto.CursorPageDTO;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
@@ -18,7 +22,13 @@ public interface TransactionServiceClient {
     @GetMapping("/api/transactions/{id}")
     ResponseEntity<Map<String, Object>> getTransactionById(Long id);
 
-    @GetMapping("/api/transactions")
-    List<BorrowingTransactionResponseDTO> getAllTransactions();
+    // BORROWED transactions due in [from, to], keyset by due date then ID
+    @GetMapping("/api/transactions/due")
+    CursorPageDTO<BorrowingTransactionResponseDTO> getDueTransactions(
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(value = "afterDue", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate afterDue,
+            @RequestParam(value = "after", required = false) Long after,
+            @RequestParam("size") int size);
     
 }
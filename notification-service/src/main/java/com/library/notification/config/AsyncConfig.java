@@ -1,7 +1,10 @@
 package com.library.notification.config;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
@@ -12,6 +15,7 @@ import java.util.concurrent.Executor;
 public class AsyncConfig {
 
     @Bean(name = "notificationExecutor")
+    @ConditionalOnThreading(Threading.PLATFORM)
     public Executor notificationExecutor() {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(5);
@@ -21,4 +25,14 @@ public class AsyncConfig {
         executor.initialize();
         return executor;
     }
+
+    // One virtual thread per task, the limit keeps the SMTP server from being flooded
+    @Bean(name = "notificationExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public Executor virtualNotificationExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("NotificationAsync-");
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(100);
+        return executor;
+    }
 }
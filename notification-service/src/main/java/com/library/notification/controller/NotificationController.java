@@ -1,5 +1,7 @@
 package com.library.notification.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.notification.dto.CursorPageDTO;
 import com.library.notification.dto.NotificationDTO;
 import com.library.notification.entity.Notification;
 import com.library.notification.service.NotificationService;
@@ -8,12 +10,14 @@ import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 
@@ -26,6 +30,9 @@ public class NotificationController {
     @Autowired
     private NotificationService notificationService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @GetMapping
     @Operation(summary = "Get all notifications", description = "Retrieve a list of all notifications")
     @ApiResponses(value = {
@@ -37,6 +44,29 @@ public class NotificationController {
         return ResponseEntity.ok(notifications);
     }
 
+    @GetMapping("/page")
+    @Operation(summary = "Get a page of notifications", description = "Retrieve notifications ordered by ID, starting after the given cursor")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved notifications"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<CursorPageDTO<NotificationDTO>> getNotificationsPage(
+            @Parameter(description = "Last notification ID of the previous page") @RequestParam(required = false) Long after,
+            @Parameter(description = "Page size, at most 500") @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(notificationService.getNotificationsPage(after, size));
+    }
+
+    @GetMapping(value = "/stream", produces = NdjsonWriter.CONTENT_TYPE)
+    @Operation(summary = "Stream all notifications", description = "Stream every notification as newline delimited JSON")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully streamed notifications"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public void streamAllNotifications(HttpServletResponse response) throws IOException {
+        response.setContentType(NdjsonWriter.CONTENT_TYPE);
+        notificationService.streamAllNotifications(new NdjsonWriter<>(objectMapper, response.getOutputStream()));
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get notification by ID", description = "Retrieve a specific notification by its ID")
     @ApiResponses(value = {
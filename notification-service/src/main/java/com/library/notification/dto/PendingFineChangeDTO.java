@@ -0,0 +1,57 @@
+package com.library.notification.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Just what a fine notification email needs, member and book already resolved; they are null
+// when the member or book was deleted, a lookup that fails fails the whole page instead
+public class PendingFineChangeDTO {
+    private Long fineId;
+    private Long memberId;
+    private String memberName;
+    private String memberEmail;
+    private String bookTitle;
+    private BigDecimal amount;
+    private String fineType;
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public PendingFineChangeDTO() {}
+
+    public PendingFineChangeDTO(Long fineId, Long memberId, String memberName, String memberEmail, String bookTitle,
+                                BigDecimal amount, String fineType, LocalDateTime updatedAt) {
+        this.fineId = fineId;
+        this.memberId = memberId;
+        this.memberName = memberName;
+        this.memberEmail = memberEmail;
+        this.bookTitle = bookTitle;
+        this.amount = amount;
+        this.fineType = fineType;
+        this.updatedAt = updatedAt;
+    }
+
+    // Getters and Setters
+    public Long getFineId() { return fineId; }
+    public void setFineId(Long fineId) { this.fineId = fineId; }
+
+    public Long getMemberId() { return memberId; }
+    public void setMemberId(Long memberId) { this.memberId = memberId; }
+
+    public String getMemberName() { return memberName; }
+    public void setMemberName(String memberName) { this.memberName = memberName; }
+
+    public String getMemberEmail() { return memberEmail; }
+    public void setMemberEmail(String memberEmail) { this.memberEmail = memberEmail; }
+
+    public String getBookTitle() { return bookTitle; }
+    public void setBookTitle(String bookTitle) { this.bookTitle = bookTitle; }
+
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+
+    public String getFineType() { return fineType; }
+    public void setFineType(String fineType) { this.fineType = fineType; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -0,0 +1,50 @@
+package com.library.notification.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// How far a feed-driven job has read, (changed_at, last_id) of the last item it handled
+@Entity
+@Table(name = "job_watermarks")
+public class JobWatermark {
+    @Id
+    @Column(name = "job_name", length = 100)
+    private String jobName;
+
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+
+    @Column(name = "last_id", nullable = false)
+    private Long lastId;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    // Constructors
+    public JobWatermark() {}
+
+    public JobWatermark(String jobName, LocalDateTime changedAt, Long lastId) {
+        this.jobName = jobName;
+        this.changedAt = changedAt;
+        this.lastId = lastId;
+    }
+
+    // Getters and Setters
+    public String getJobName() { return jobName; }
+    public void setJobName(String jobName) { this.jobName = jobName; }
+
+    public LocalDateTime getChangedAt() { return changedAt; }
+    public void setChangedAt(LocalDateTime changedAt) { this.changedAt = changedAt; }
+
+    public Long getLastId() { return lastId; }
+    public void setLastId(Long lastId) { this.lastId = lastId; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
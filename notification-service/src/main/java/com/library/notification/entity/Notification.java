@@ -50,6 +50,16 @@ public class Notification {
     @Column(name = "error_message")
     private String errorMessage;
 
+    // Outbox fields: what the dispatcher renders, and when the row is next due for a send
+    @Column(name = "template", length = 100)
+    private String template;
+
+    @Column(name = "template_variables", columnDefinition = "TEXT")
+    private String templateVariables;
+
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -109,6 +119,15 @@ public class Notification {
     public String getErrorMessage() { return errorMessage; }
     public void setErrorMessage(String errorMessage) { this.errorMessage = errorMessage; }
 
+    public String getTemplate() { return template; }
+    public void setTemplate(String template) { this.template = template; }
+
+    public String getTemplateVariables() { return templateVariables; }
+    public void setTemplateVariables(String templateVariables) { this.templateVariables = templateVariables; }
+
+    public LocalDateTime getNextAttemptAt() { return nextAttemptAt; }
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) { this.nextAttemptAt = nextAttemptAt; }
+
     public enum NotificationType {
         DUE_REMINDER, OVERDUE_ALERT, FINE_NOTICE, WELCOME, BOOK_AVAILABLE, CUSTOM
     }
@@ -0,0 +1,46 @@
+package com.library.notification.repository;
+
+import com.library.notification.entity.Notification;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Enqueues outbox rows as one JDBC batch. Notification IDs are IDENTITY, which keeps Hibernate
+// from batching the inserts of saveAll.
+@Repository
+public class NotificationJdbcRepository {
+
+    private static final String INSERT_PENDING_SQL =
+            "INSERT INTO notifications (member_id, message, type, status, recipient_email, subject, retry_count, " +
+            "template, template_variables, next_attempt_at, created_at, updated_at) " +
+            "VALUES (:memberId, :message, :type, 'PENDING', :recipientEmail, :subject, 0, " +
+            ":template, :templateVariables, :now, :now, :now)";
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    // Rows are due right away
+    public void insertPending(List<Notification> notifications) {
+        if (notifications.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_PENDING_SQL, notifications.stream()
+                .map(notification -> new MapSqlParameterSource()
+                        .addValue("memberId", notification.getMemberId())
+                        .addValue("message", notification.getMessage())
+                        .addValue("type", notification.getType().name())
+                        .addValue("recipientEmail", notification.getRecipientEmail())
+                        .addValue("subject", notification.getSubject())
+                        .addValue("template", notification.getTemplate())
+                        .addValue("templateVariables", notification.getTemplateVariables())
+                        .addValue("now", now))
+                .toArray(SqlParameterSource[]::new));
+    }
+}
@@ -1,13 +1,22 @@
 package com.library.notification.repository;
 
 import com.library.notification.entity.Notification;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.LockOptions;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
@@ -18,13 +27,27 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     
     List<Notification> findByType(Notification.NotificationType type);
     
-    @Query("SELECT n FROM Notification n WHERE n.status = 'PENDING' OR (n.status = 'RETRY' AND n.retryCount < 3)")
-    List<Notification> findPendingNotifications();
-    
     @Query("SELECT n FROM Notification n WHERE n.memberId = :memberId AND n.dateSent >= :fromDate ORDER BY n.dateSent DESC")
     List<Notification> findRecentNotificationsByMember(@Param("memberId") Long memberId, 
                                                       @Param("fromDate") LocalDateTime fromDate);
     
     @Query("SELECT COUNT(n) FROM Notification n WHERE n.status = 'SENT' AND n.dateSent >= :fromDate")
     Long countSentNotificationsSince(@Param("fromDate") LocalDateTime fromDate);
+
+    // Outbox rows due for a send. Rows locked by another dispatcher are skipped rather than waited for,
+    // so concurrent workers each take a disjoint batch. Longest-waiting rows first, so a backlog drains in order
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = AvailableSettings.JAKARTA_LOCK_TIMEOUT, value = "" + LockOptions.SKIP_LOCKED))
+    @Query("SELECT n FROM Notification n WHERE n.status IN ('PENDING', 'RETRY') AND n.nextAttemptAt <= :now " +
+            "ORDER BY n.nextAttemptAt, n.notificationId")
+    List<Notification> lockDue(@Param("now") LocalDateTime now, Limit limit);
+
+    List<Notification> findByNotificationIdGreaterThanOrderByNotificationIdAsc(Long notificationId, Limit limit);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT n FROM Notification n ORDER BY n.notificationId")
+    Stream<Notification> streamAll();
 }
@@ -1,17 +1,22 @@
 package com.library.notification.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
-import org.thymeleaf.TemplateEngine;
-import org.thymeleaf.context.Context;
 
+import jakarta.mail.Address;
 import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
 import jakarta.mail.internet.MimeMessage;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class EmailService {
@@ -20,7 +25,13 @@ public class EmailService {
     private JavaMailSender mailSender;
 
     @Autowired
-    private TemplateEngine templateEngine;
+    private EmailTemplateRenderer templateRenderer;
+
+    @Autowired
+    private SmtpTransportPool transportPool;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
 
     @Value("${spring.mail.username}")
     private String fromEmail;
@@ -31,24 +42,112 @@ public class EmailService {
         message.setTo(to);
         message.setSubject(subject);
         message.setText(text);
-        
+
         mailSender.send(message);
     }
 
-    public void sendHtmlEmail(String to, String subject, String templateName, Map<String, Object> variables) 
+    public void sendHtmlEmail(String to, String subject, String templateName, Map<String, Object> variables)
             throws MessagingException {
+        MessagingException failure = sendHtmlEmails(List.of(new HtmlEmail(to, subject, templateName, variables))).get(0);
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    // Sends every email over one pooled SMTP connection. Returns one entry per email, null when it was
+    // sent; a failed email does not stop the rest.
+    public List<MessagingException> sendHtmlEmails(List<HtmlEmail> emails) throws MessagingException {
+        List<MessagingException> failures = new ArrayList<>(emails.size());
+        EmailTemplateRenderer.Batch renderer = templateRenderer.newBatch();
+        SmtpTransportPool.PooledTransport pooled = transportPool.borrow();
+        boolean broken = false;
+        try {
+            for (HtmlEmail email : emails) {
+                if (broken) {
+                    // The connection died under an earlier email, the rest go out on a fresh one
+                    transportPool.release(pooled, true);
+                    pooled = null;
+                    try {
+                        pooled = transportPool.borrow();
+                    } catch (MessagingException e) {
+                        // Keep the results of the emails already sent, only the rest failed
+                        while (failures.size() < emails.size()) {
+                            failures.add(e);
+                        }
+                        return failures;
+                    }
+                    broken = false;
+                }
+                long start = System.nanoTime();
+                try {
+                    MimeMessage message = render(email, renderer);
+                    Address[] recipients = message.getAllRecipients();
+                    pooled.getTransport().sendMessage(message, recipients != null ? recipients : new Address[0]);
+                    pooled.sent();
+                    failures.add(null);
+                    recordSend("sent", start);
+                } catch (SendFailedException e) {
+                    // Rejected recipient, the connection is still usable
+                    failures.add(e);
+                    recordSend("failed", start);
+                } catch (MessagingException e) {
+                    failures.add(e);
+                    broken = !pooled.getTransport().isConnected();
+                    recordSend("failed", start);
+                } catch (RuntimeException e) {
+                    // Template errors; nothing was written to the connection
+                    failures.add(new MessagingException("Unable to render " + email.getTemplateName(), e));
+                    recordSend("failed", start);
+                }
+            }
+        } finally {
+            if (pooled != null) {
+                transportPool.release(pooled, broken);
+            }
+        }
+        return failures;
+    }
+
+    private MimeMessage render(HtmlEmail email, EmailTemplateRenderer.Batch renderer) throws MessagingException {
         MimeMessage message = mailSender.createMimeMessage();
         MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-        
-        Context context = new Context();
-        context.setVariables(variables);
-        String htmlContent = templateEngine.process(templateName, context);
-        
+
+        String htmlContent = renderer.render(email.getTemplateName(), email.getVariables());
+
         helper.setFrom(fromEmail);
-        helper.setTo(to);
-        helper.setSubject(subject);
+        helper.setTo(email.getTo());
+        helper.setSubject(email.getSubject());
         helper.setText(htmlContent, true);
-        
-        mailSender.send(message);
+        // What JavaMailSenderImpl does before handing a message to the transport
+        message.setSentDate(new Date());
+        message.saveChanges();
+        return message;
+    }
+
+    private void recordSend(String outcome, long start) {
+        meterRegistry.timer("notification.smtp.send", "outcome", outcome)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    public static class HtmlEmail {
+        private final String to;
+        private final String subject;
+        private final String templateName;
+        private final Map<String, Object> variables;
+
+        public HtmlEmail(String to, String subject, String templateName, Map<String, Object> variables) {
+            this.to = to;
+            this.subject = subject;
+            this.templateName = templateName;
+            this.variables = variables;
+        }
+
+        public String getTo() { return to; }
+
+        public String getSubject() { return subject; }
+
+        public String getTemplateName() { return templateName; }
+
+        public Map<String, Object> getVariables() { return variables; }
     }
 }
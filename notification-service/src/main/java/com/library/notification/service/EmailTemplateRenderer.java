@@ -0,0 +1,88 @@
+package com.library.notification.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.TemplateSpec;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.templatemode.TemplateMode;
+
+import java.io.StringWriter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renders the email templates. Parsed templates stay in the engine's template
+ * cache (spring.thymeleaf.cache), and the warm-up fills that cache at startup,
+ * so the first batch of the night does not pay for resolving and parsing.
+ * A {@link Batch} renders many recipients and reuses its template specs,
+ * context and output buffer from one email to the next.
+ */
+@Component
+public class EmailTemplateRenderer {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailTemplateRenderer.class);
+
+    @Autowired
+    private TemplateEngine templateEngine;
+
+    private List<String> warmUpTemplates = List.of("due-reminder", "fine-notification-template", "custom-email-template");
+
+    @Value("${notification.templates.warm-up:due-reminder,fine-notification-template,custom-email-template}")
+    void setWarmUpTemplates(List<String> warmUpTemplates) {
+        this.warmUpTemplates = warmUpTemplates;
+    }
+
+    public String render(String templateName, Map<String, Object> variables) {
+        return newBatch().render(templateName, variables);
+    }
+
+    // Not thread-safe, one per sending thread
+    public Batch newBatch() {
+        return new Batch();
+    }
+
+    // Renders each template once with no variables, which parses it into the template cache
+    @EventListener(ApplicationReadyEvent.class)
+    public int warmUp() {
+        Batch batch = newBatch();
+        int warmed = 0;
+        for (String templateName : warmUpTemplates) {
+            long start = System.nanoTime();
+            try {
+                batch.render(templateName, Map.of());
+                warmed++;
+                log.info("Warmed up email template {} in {} ms", templateName,
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            } catch (RuntimeException e) {
+                log.warn("Unable to warm up email template {}: {}", templateName, e.getMessage());
+            }
+        }
+        return warmed;
+    }
+
+    public class Batch {
+        private final Map<String, TemplateSpec> specs = new HashMap<>();
+        private final Context context = new Context();
+        private final StringWriter writer = new StringWriter(4096);
+
+        private Batch() {}
+
+        public String render(String templateName, Map<String, Object> variables) {
+            TemplateSpec spec = specs.computeIfAbsent(templateName, name -> new TemplateSpec(name, TemplateMode.HTML));
+            context.clearVariables();
+            context.setVariables(variables);
+            // Keeps the capacity the previous email grew the buffer to
+            writer.getBuffer().setLength(0);
+            templateEngine.process(spec, context, writer);
+            return writer.toString();
+        }
+    }
+}
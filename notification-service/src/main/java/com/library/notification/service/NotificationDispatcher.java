@@ -0,0 +1,215 @@
+package com.library.notification.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.notification.entity.Notification;
+import com.library.notification.entity.Notification.NotificationStatus;
+import com.library.notification.repository.NotificationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Sends the notifications outbox. Each worker locks a batch of due rows with
+ * SKIP LOCKED, sends them over one pooled SMTP connection and records the
+ * outcome in the same transaction, so workers on this and other instances never
+ * pick the same row. A failed send is retried with exponential backoff until
+ * the attempt ceiling, then left FAILED. A crash mid-batch rolls the batch back
+ * to its previous state, so delivery is at least once.
+ */
+@Component
+public class NotificationDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationDispatcher.class);
+
+    private static final TypeReference<Map<String, Object>> VARIABLES = new TypeReference<>() {};
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private int batchSize = 50;
+
+    private int workers = 4;
+
+    private int maxAttempts = 5;
+
+    private Duration backoff = Duration.ofSeconds(30);
+
+    private Duration maxBackoff = Duration.ofHours(1);
+
+    @Value("${notification.outbox.batch-size:50}")
+    void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    @Value("${notification.outbox.workers:4}")
+    void setWorkers(int workers) {
+        this.workers = workers;
+    }
+
+    @Value("${notification.outbox.max-attempts:5}")
+    void setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    // Delay before the first retry, doubled for every further failure up to maxBackoff
+    @Value("${notification.outbox.backoff:PT30S}")
+    void setBackoff(Duration backoff) {
+        this.backoff = backoff;
+    }
+
+    @Value("${notification.outbox.max-backoff:PT1H}")
+    void setMaxBackoff(Duration maxBackoff) {
+        this.maxBackoff = maxBackoff;
+    }
+
+    // Returns the number of notifications sent by this call
+    @Scheduled(fixedDelayString = "${notification.outbox.dispatch-interval-ms:1000}")
+    public int dispatch() {
+        // An idle tick costs one query, the workers only start once a full batch shows a backlog
+        Batch first = sendBatch();
+        if (first.claimed() < batchSize) {
+            return first.sent();
+        }
+        if (workers <= 1) {
+            return first.sent() + drain();
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(workers,
+                Thread.ofVirtual().name("notification-dispatch-", 0).factory());
+        try {
+            List<Callable<Integer>> tasks = new ArrayList<>();
+            for (int i = 0; i < workers; i++) {
+                tasks.add(this::drain);
+            }
+            int sent = first.sent();
+            for (Future<Integer> result : pool.invokeAll(tasks)) {
+                try {
+                    sent += result.get();
+                } catch (ExecutionException e) {
+                    log.error("Notification dispatch worker failed: {}", e.getCause().getMessage(), e.getCause());
+                }
+            }
+            return sent;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // One worker: takes batches until a short one shows nothing is left
+    private int drain() {
+        int sent = 0;
+        Batch batch;
+        do {
+            batch = sendBatch();
+            sent += batch.sent();
+        } while (batch.claimed() == batchSize);
+        return sent;
+    }
+
+    private Batch sendBatch() {
+        Batch batch = new TransactionTemplate(transactionManager).execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<Notification> due = notificationRepository.lockDue(now, Limit.of(batchSize));
+            return new Batch(due.size(), send(due, now));
+        });
+        return batch != null ? batch : new Batch(0, 0);
+    }
+
+    // The whole batch goes out over one pooled SMTP connection
+    private int send(List<Notification> due, LocalDateTime now) {
+        List<Notification> sendable = new ArrayList<>(due.size());
+        List<EmailService.HtmlEmail> emails = new ArrayList<>(due.size());
+        for (Notification notification : due) {
+            try {
+                Map<String, Object> variables = notification.getTemplateVariables() != null
+                        ? objectMapper.readValue(notification.getTemplateVariables(), VARIABLES)
+                        : Map.of();
+                emails.add(new EmailService.HtmlEmail(notification.getRecipientEmail(), notification.getSubject(),
+                        notification.getTemplate(), variables));
+                sendable.add(notification);
+            } catch (Exception e) {
+                failed(notification, now, e);
+            }
+        }
+        if (emails.isEmpty()) {
+            return 0;
+        }
+
+        List<? extends Exception> failures;
+        try {
+            failures = emailService.sendHtmlEmails(emails);
+        } catch (Exception e) {
+            // No SMTP connection at all, every email of the batch failed
+            failures = Collections.nCopies(emails.size(), e);
+        }
+        int sent = 0;
+        for (int i = 0; i < sendable.size(); i++) {
+            Notification notification = sendable.get(i);
+            if (failures.get(i) != null) {
+                failed(notification, now, failures.get(i));
+                continue;
+            }
+            notification.setStatus(NotificationStatus.SENT);
+            notification.setDateSent(now);
+            notification.setNextAttemptAt(null);
+            notification.setErrorMessage(null);
+            sent++;
+        }
+        return sent;
+    }
+
+    private void failed(Notification notification, LocalDateTime now, Exception e) {
+        int attempts = (notification.getRetryCount() != null ? notification.getRetryCount() : 0) + 1;
+        notification.setRetryCount(attempts);
+        String error = e.getMessage() != null && e.getMessage().length() > 255
+                ? e.getMessage().substring(0, 255) : e.getMessage();
+        notification.setErrorMessage(error);
+        if (attempts >= maxAttempts) {
+            notification.setStatus(NotificationStatus.FAILED);
+            notification.setNextAttemptAt(null);
+            log.error("Giving up on notification {} to {} after {} attempts: {}", notification.getNotificationId(),
+                    notification.getRecipientEmail(), attempts, e.getMessage());
+        } else {
+            notification.setStatus(NotificationStatus.RETRY);
+            notification.setNextAttemptAt(now.plus(backoffFor(attempts)));
+        }
+    }
+
+    Duration backoffFor(int attempts) {
+        // Shift capped well below overflow, the max backoff applies long before that
+        Duration delay = backoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private record Batch(int claimed, int sent) {}
+}
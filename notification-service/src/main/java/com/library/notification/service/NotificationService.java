@@ -1,21 +1,31 @@
 package com.library.notification.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.library.notification.client.FineServiceClient;
 import com.library.notification.client.MemberServiceClient;
 import com.library.notification.client.TransactionServiceClient;
-import com.library.notification.dto.FineResponseDTO;
+import com.library.notification.dto.CursorPageDTO;
 import com.library.notification.dto.MemberDTO;
 import com.library.notification.dto.BorrowingTransactionResponseDTO;
-import com.library.notification.dto.FineDTO;
 import com.library.notification.dto.NotificationDTO;
+import com.library.notification.dto.PendingFineChangeDTO;
+import com.library.notification.entity.JobWatermark;
 import com.library.notification.entity.Notification;
-import com.library.notification.entity.Notification.NotificationStatus;
+import com.library.notification.repository.JobWatermarkRepository;
+import com.library.notification.repository.NotificationJdbcRepository;
 import com.library.notification.repository.NotificationRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -28,7 +38,9 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
@@ -36,11 +48,16 @@ public class NotificationService {
 
     private static final Logger log = LoggerFactory.getLogger(NotificationService.class);
 
-    @Autowired
-    private NotificationRepository notificationRepository;
+    private static final int MAX_PAGE_SIZE = 500;
+
+    private static final int DUE_ALERT_PAGE_SIZE = 100;
+
+    static final String PENDING_FINE_JOB = "pending-fine-notifications";
+
+    private static final int PENDING_FINE_PAGE_SIZE = 100;
 
     @Autowired
-    private EmailService emailService;
+    private NotificationRepository notificationRepository;
 
     @Autowired
     private TransactionServiceClient transactionServiceClient;
@@ -48,12 +65,53 @@ public class NotificationService {
     @Autowired
     private FineServiceClient fineServiceClient;
 
+    @Autowired
+    private JobWatermarkRepository jobWatermarkRepository;
+
+    @Autowired
+    private NotificationJdbcRepository notificationJdbcRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     public List<NotificationDTO> getAllNotifications() {
         return notificationRepository.findAll().stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public CursorPageDTO<NotificationDTO> getNotificationsPage(Long after, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // Fetch one extra row to learn whether another page exists
+        List<Notification> rows = notificationRepository.findByNotificationIdGreaterThanOrderByNotificationIdAsc(
+                after == null ? 0L : after, Limit.of(pageSize + 1));
+        boolean hasMore = rows.size() > pageSize;
+        List<NotificationDTO> items = rows.stream()
+                .limit(pageSize)
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+        Long nextCursor = hasMore ? items.get(items.size() - 1).getNotificationId() : null;
+        return new CursorPageDTO<>(items, nextCursor, hasMore);
+    }
+
+    @Transactional(readOnly = true)
+    public void streamAllNotifications(Consumer<NotificationDTO> sink) {
+        try (Stream<Notification> notifications = notificationRepository.streamAll()) {
+            notifications.forEach(notification -> {
+                sink.accept(convertToDTO(notification));
+                // Keep the persistence context from growing with the result set
+                entityManager.detach(notification);
+            });
+        }
+    }
+
     public Optional<NotificationDTO> getNotificationById(Long id) {
         return notificationRepository.findById(id)
                 .map(this::convertToDTO);
@@ -71,191 +129,129 @@ public class NotificationService {
                 .collect(Collectors.toList());
     }
 
-    @Async
+    // Queued like every other email, the dispatcher sends it
     public void sendCustomEmail(Long memberId, String memberName, String memberEmail, String subject, String customMessage) {
         Map<String, Object> variables = new HashMap<>();
-        variables.put("memberName", memberName); 
+        variables.put("memberName", memberName);
         variables.put("subject", subject);
         variables.put("customMessage", customMessage);
-        
 
-        try {
-            // Send email
-            emailService.sendHtmlEmail(memberEmail, subject, "custom-email-template", variables);
-
-            // Save success notification
-            Notification notification = convertToEntity(new NotificationDTO(
-                    memberId,
-                    "Custom email sent successfully.",
-                    Notification.NotificationType.CUSTOM,
-                    memberEmail,
-                    subject));
-            notification.setStatus(Notification.NotificationStatus.SENT);
-            notification.setDateSent(LocalDateTime.now());
-            notificationRepository.save(notification);
-
-        } catch (Exception e) {
-            // Save failed notification
-            Notification failedNotification = convertToEntity(new NotificationDTO(
-                    memberId,
-                    "Failed to send custom email: " + e.getMessage(),
-                    Notification.NotificationType.CUSTOM,
-                    memberEmail,
-                    subject));
-            failedNotification.setStatus(Notification.NotificationStatus.FAILED);
-            failedNotification.setDateSent(LocalDateTime.now());
-            notificationRepository.save(failedNotification);
-        }
+        notificationJdbcRepository.insertPending(List.of(outboxEntry(memberId, memberEmail, subject,
+                Notification.NotificationType.CUSTOM, "Custom email.", "custom-email-template", variables)));
     }
 
+    // Not one transaction for the whole run: each page commits its notices with the watermark, and no
+    // connection is held across the calls to fine-service
     @Async
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void processPendingFineNotifications() {
-        List<FineResponseDTO> fines = fineServiceClient.getAllFines();
-
-        fines.stream()
-                .filter(fine -> fine.getFineDTO() != null
-                        && fine.getFineDTO().getStatus() == FineDTO.FineStatus.PENDING
-                        && fine.getBorrowingTransactionResponseDTO() != null
-                        && fine.getBorrowingTransactionResponseDTO().getMember() != null
-                        && fine.getBorrowingTransactionResponseDTO().getBook() != null)
-                .forEach(fine -> {
-                    try {
-                        Long memberId = fine.getBorrowingTransactionResponseDTO().getMember().getMemberId();
-                        String memberEmail = fine.getBorrowingTransactionResponseDTO().getMember().getEmail();
-                        String memberName = fine.getBorrowingTransactionResponseDTO().getMember().getName();
-                        String bookTitle = fine.getBorrowingTransactionResponseDTO().getBook().getTitle();
-                        String fineType = fine.getFineDTO().getFineType().name(); // Get fine type
-                        // Safely format fine amount
-                        String fineAmount = fine.getFineDTO().getAmount()
-                                .setScale(2, RoundingMode.HALF_UP)
-                                .toString();
-
-                        // Send notification
-                        createFineNotification(memberId, memberEmail, memberName, bookTitle, fineAmount, fineType);
-
-                    } catch (Exception e) {
-
-                        // Optional: Log specific fine ID or transaction ID for traceability
-                        log.error("Failed to send fine notification for fineId: {}, error: {}",
-                                fine.getFineDTO().getFineId(), e.getMessage(), e);
-                    }
-                });
+        // Only fines that turned pending or changed amount since the last run are fetched, from the stored watermark on
+        JobWatermark watermark = jobWatermarkRepository.findById(PENDING_FINE_JOB)
+                .orElseGet(() -> new JobWatermark(PENDING_FINE_JOB, null, null));
+        TransactionTemplate pageTransaction = new TransactionTemplate(transactionManager);
+        CursorPageDTO<PendingFineChangeDTO> page;
+        do {
+            // A failed lookup fails the whole page request, so the run stops here and the next one asks again
+            page = fineServiceClient.getPendingFineChanges(watermark.getChangedAt(), watermark.getLastId(),
+                    PENDING_FINE_PAGE_SIZE);
+            List<PendingFineChangeDTO> items = page.getItems();
+            // Member or book missing from a successful page means it was deleted or has no email; such a fine
+            // can never be sent, so it is skipped rather than blocking every notice after it
+            items.stream()
+                    .filter(fine -> fine.getMemberEmail() == null || fine.getBookTitle() == null)
+                    .forEach(fine -> log.warn("Skipping notice for fine {}: member {} or the book no longer exists, or the member has no email",
+                            fine.getFineId(), fine.getMemberId()));
+            List<Notification> notices = items.stream()
+                    .filter(fine -> fine.getMemberEmail() != null && fine.getBookTitle() != null)
+                    .map(fine -> fineNotice(fine.getMemberId(), fine.getMemberEmail(), fine.getMemberName(),
+                            fine.getBookTitle(), fine.getAmount().setScale(2, RoundingMode.HALF_UP).toString(),
+                            fine.getFineType()))
+                    .collect(Collectors.toList());
+            JobWatermark current = watermark;
+            if (!items.isEmpty()) {
+                PendingFineChangeDTO last = items.get(items.size() - 1);
+                current.setChangedAt(last.getUpdatedAt());
+                current.setLastId(last.getFineId());
+            }
+            // One batch insert per page, committed with the watermark, so a failed run resumes after the last page it finished
+            watermark = pageTransaction.execute(status -> {
+                notificationJdbcRepository.insertPending(notices);
+                return items.isEmpty() ? current : jobWatermarkRepository.save(current);
+            });
+        } while (page.isHasMore());
     }
 
     @Async
     public void processUpcomingDueAlerts() {
-        List<BorrowingTransactionResponseDTO> transactions = transactionServiceClient.getAllTransactions();
-
         LocalDate today = LocalDate.now();
         LocalDate upcomingLimit = today.plusDays(3);
 
-        transactions.stream()
-                .filter(transaction -> transaction.getDueDate() != null &&
-                        !transaction.getDueDate().isBefore(today) && // dueDate >= today
-                        !transaction.getDueDate().isAfter(upcomingLimit) && // dueDate <= today + 3
-                        transaction.getStatus() != null && transaction.getStatus().equals("BORROWED") &&
-                        transaction.getMember() != null &&
-                        transaction.getBook() != null)
-                .forEach(transaction -> {
-                    try {
-                        Long memberId = transaction.getMember().getMemberId();
-                        String memberEmail = transaction.getMember().getEmail();
-                        String memberName = transaction.getMember().getName();
-                        String bookTitle = transaction.getBook().getTitle();
-                        String dueDate = transaction.getDueDate().toString();
-
-                        // Send upcoming due date alert
-                        System.out.println(transaction.getMember().getName()
-                                + "                                                                                    ");
-                        createOverdueAlert(memberId, memberEmail, memberName, bookTitle, dueDate);
-
-                    } catch (Exception e) {
-                        log.error("Failed to send due soon alert for transactionId: {}, error: {}",
-                                transaction.getTransactionId(), e.getMessage(), e);
-                    }
-                });
+        // Only BORROWED transactions due in the next 3 days are fetched, one keyset page at a time
+        LocalDate afterDue = null;
+        Long after = null;
+        CursorPageDTO<BorrowingTransactionResponseDTO> page;
+        do {
+            page = transactionServiceClient.getDueTransactions(today, upcomingLimit, afterDue, after, DUE_ALERT_PAGE_SIZE);
+            List<BorrowingTransactionResponseDTO> items = page.getItems();
+            notificationJdbcRepository.insertPending(items.stream()
+                    .filter(transaction -> transaction.getMember() != null && transaction.getBook() != null)
+                    .map(transaction -> overdueAlert(transaction.getMember().getMemberId(),
+                            transaction.getMember().getEmail(), transaction.getMember().getName(),
+                            transaction.getBook().getTitle(), transaction.getDueDate().toString()))
+                    .collect(Collectors.toList()));
+            if (!items.isEmpty()) {
+                afterDue = items.get(items.size() - 1).getDueDate();
+                after = page.getNextCursor();
+            }
+        } while (page.isHasMore());
     }
 
-    @Async
     public void createOverdueAlert(Long memberId, String memberEmail, String memberName, String bookTitle,
             String dueDate) {
-        String subject = "Overdue Alert - Library Management System";
+        notificationJdbcRepository.insertPending(List.of(
+                overdueAlert(memberId, memberEmail, memberName, bookTitle, dueDate)));
+    }
 
+    public void createFineNotification(Long memberId, String memberEmail, String memberName, String bookTitle,
+            String fineAmount, String fineType) {
+        notificationJdbcRepository.insertPending(List.of(
+                fineNotice(memberId, memberEmail, memberName, bookTitle, fineAmount, fineType)));
+    }
+
+    private Notification overdueAlert(Long memberId, String memberEmail, String memberName, String bookTitle,
+            String dueDate) {
         Map<String, Object> variables = new HashMap<>();
         variables.put("memberName", memberName);
         variables.put("bookTitle", bookTitle);
         variables.put("dueDate", dueDate);
-
-        try {
-            emailService.sendHtmlEmail(memberEmail, subject, "due-reminder", variables);
-            // NotificationDTO notificationDTO = ;
-            Notification successfullNotification = convertToEntity(new NotificationDTO(
-                    memberId,
-                    "An overdue alert email has been sent.",
-                    Notification.NotificationType.OVERDUE_ALERT,
-                    memberEmail,
-                    subject));
-            successfullNotification.setStatus(NotificationStatus.SENT);
-            successfullNotification.setDateSent(LocalDateTime.now());
-            notificationRepository.save(successfullNotification);
-
-            // save notification (optional)
-            // createNotification(notification);
-
-        } catch (Exception e) {
-            // NotificationDTO failedNotification =
-            Notification failedNotification = convertToEntity(new NotificationDTO(
-                    memberId,
-                    "Failed to send overdue alert email: " + e.getMessage(),
-                    Notification.NotificationType.OVERDUE_ALERT,
-                    memberEmail,
-                    subject));
-            failedNotification.setStatus(NotificationStatus.FAILED);
-            failedNotification.setDateSent(LocalDateTime.now());
-            notificationRepository.save(failedNotification);
-            // createNotification(failedNotification);
-        }
+        return outboxEntry(memberId, memberEmail, "Overdue Alert - Library Management System",
+                Notification.NotificationType.OVERDUE_ALERT, "Overdue alert for " + bookTitle + " due " + dueDate + ".",
+                "due-reminder", variables);
     }
 
-    @Async
-    public void createFineNotification(Long memberId, String memberEmail, String memberName, String bookTitle,
+    private Notification fineNotice(Long memberId, String memberEmail, String memberName, String bookTitle,
             String fineAmount, String fineType) {
-        String subject = "Fine Notice - Library Management System";
-
         // HTML template variables
         Map<String, Object> variables = new HashMap<>();
         variables.put("memberName", memberName);
         variables.put("bookTitle", bookTitle);
         variables.put("fineAmount", fineAmount);
-        variables.put("fineType", fineType); // Add fine type to the template variables
+        variables.put("fineType", fineType);
+        return outboxEntry(memberId, memberEmail, "Fine Notice - Library Management System",
+                Notification.NotificationType.FINE_NOTICE, "Fine notice of Rs." + fineAmount + " for " + bookTitle + ".",
+                "fine-notification-template", variables);
+    }
 
+    private Notification outboxEntry(Long memberId, String memberEmail, String subject,
+            Notification.NotificationType type, String message, String template, Map<String, Object> variables) {
+        Notification notification = convertToEntity(new NotificationDTO(memberId, message, type, memberEmail, subject));
+        notification.setTemplate(template);
         try {
-            // Send HTML email using Thymeleaf template
-            emailService.sendHtmlEmail(memberEmail, subject, "fine-notification-template", variables);
-            Notification successfulNotification = convertToEntity(new NotificationDTO(
-                    memberId,
-                    "An Fine alert email has been sent.",
-                    Notification.NotificationType.FINE_NOTICE,
-                    memberEmail,
-                    subject));
-            successfulNotification.setStatus(Notification.NotificationStatus.SENT);
-            successfulNotification.setDateSent(LocalDateTime.now());
-            notificationRepository.save(successfulNotification);
-        } catch (Exception e) {
-            // Create failure notification with error message
-            Notification failedNotification = convertToEntity(new NotificationDTO(
-                    memberId,
-                    "An Fine alert email failed to send..",
-                    Notification.NotificationType.FINE_NOTICE,
-                    memberEmail,
-                    subject));
-            failedNotification.setStatus(Notification.NotificationStatus.FAILED);
-            failedNotification.setDateSent(LocalDateTime.now());
-            notificationRepository.save(failedNotification);
-            // createNotification(notification);
-
-            log.error("Error sending fine email to {}: {}", memberEmail, e.getMessage(), e);
+            notification.setTemplateVariables(objectMapper.writeValueAsString(variables));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Unable to store the variables of template " + template, e);
         }
+        return notification;
     }
 
     public Map<String, Object> getNotificationStats() {
@@ -0,0 +1,134 @@
+package com.library.notification.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Keeps a few connected, authenticated SMTP transports open between sends.
+ * {@link JavaMailSenderImpl#send} connects, runs STARTTLS and logs in for every
+ * call; a borrowed transport has done that already. At most {@code size}
+ * transports exist at a time, a connection is retired after
+ * {@code maxMessagesPerConnection} messages, and an idle one the server has
+ * dropped is noticed by {@link Transport#isConnected()} and replaced.
+ */
+@Component
+public class SmtpTransportPool {
+
+    private static final Logger log = LoggerFactory.getLogger(SmtpTransportPool.class);
+
+    @Autowired
+    private JavaMailSenderImpl mailSender;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Most recently returned first, so the warmest connection is reused
+    private final LinkedBlockingDeque<PooledTransport> idle = new LinkedBlockingDeque<>();
+
+    private Semaphore permits = new Semaphore(4);
+
+    private int maxMessagesPerConnection = 500;
+
+    @Value("${notification.mail.pool.size:4}")
+    void setSize(int size) {
+        this.permits = new Semaphore(Math.max(1, size));
+    }
+
+    @Value("${notification.mail.pool.max-messages-per-connection:500}")
+    void setMaxMessagesPerConnection(int maxMessagesPerConnection) {
+        this.maxMessagesPerConnection = maxMessagesPerConnection;
+    }
+
+    // Blocks while all transports are lent out
+    public PooledTransport borrow() throws MessagingException {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MessagingException("Interrupted while waiting for an SMTP connection");
+        }
+        try {
+            PooledTransport pooled;
+            while ((pooled = idle.pollFirst()) != null) {
+                if (pooled.transport.isConnected()) {
+                    meterRegistry.counter("notification.smtp.connections", "outcome", "reused").increment();
+                    return pooled;
+                }
+                close(pooled);
+            }
+            return connect();
+        } catch (MessagingException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    // A transport that failed mid-conversation is closed instead of going back to the pool
+    public void release(PooledTransport pooled, boolean broken) {
+        if (broken || pooled.messagesSent >= maxMessagesPerConnection) {
+            close(pooled);
+        } else {
+            idle.offerFirst(pooled);
+        }
+        permits.release();
+    }
+
+    @PreDestroy
+    public void closeAll() {
+        PooledTransport pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            close(pooled);
+        }
+    }
+
+    private PooledTransport connect() throws MessagingException {
+        // Same protocol resolution as JavaMailSenderImpl
+        String protocol = mailSender.getProtocol();
+        if (protocol == null) {
+            protocol = mailSender.getSession().getProperty("mail.transport.protocol");
+        }
+        Transport transport = mailSender.getSession().getTransport(protocol != null ? protocol : "smtp");
+        String username = mailSender.getUsername();
+        String password = mailSender.getPassword();
+        if ("".equals(username)) {
+            username = null;
+            password = null;
+        }
+        transport.connect(mailSender.getHost(), mailSender.getPort(), username, password);
+        meterRegistry.counter("notification.smtp.connections", "outcome", "opened").increment();
+        return new PooledTransport(transport);
+    }
+
+    private void close(PooledTransport pooled) {
+        meterRegistry.summary("notification.smtp.messages.per.connection").record(pooled.messagesSent);
+        try {
+            pooled.transport.close();
+        } catch (MessagingException e) {
+            log.debug("Closing SMTP connection failed: {}", e.getMessage());
+        }
+    }
+
+    public static class PooledTransport {
+        private final Transport transport;
+        private int messagesSent;
+
+        PooledTransport(Transport transport) {
+            this.transport = transport;
+        }
+
+        public Transport getTransport() { return transport; }
+
+        public void sent() { messagesSent++; }
+    }
+}
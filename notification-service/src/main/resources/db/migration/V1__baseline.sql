@@ -0,0 +1,18 @@
+-- Schema as Hibernate created it before migrations were introduced.
+-- Existing databases are baselined at this version and skip it.
+
+CREATE TABLE IF NOT EXISTS notifications (
+    notification_id BIGINT NOT NULL AUTO_INCREMENT,
+    member_id BIGINT NOT NULL,
+    message TEXT NOT NULL,
+    type VARCHAR(20) NOT NULL,
+    status VARCHAR(20),
+    date_sent DATETIME(6),
+    created_at DATETIME(6),
+    updated_at DATETIME(6),
+    recipient_email VARCHAR(255),
+    subject VARCHAR(255),
+    retry_count INT,
+    error_message VARCHAR(255),
+    PRIMARY KEY (notification_id)
+);
@@ -0,0 +1,5 @@
+-- Recent notifications of one member: equality on member_id, range and order on date_sent
+CREATE INDEX idx_notifications_member_sent ON notifications (member_id, date_sent);
+
+-- Sent counts since a date, and the status prefix serves the pending/retry pick-up
+CREATE INDEX idx_notifications_status_sent ON notifications (status, date_sent);
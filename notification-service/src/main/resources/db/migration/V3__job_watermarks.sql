@@ -0,0 +1,8 @@
+-- Feed position of each watermark-driven job, such as the pending fine notices
+CREATE TABLE job_watermarks (
+    job_name VARCHAR(100) NOT NULL,
+    changed_at DATETIME(6) NOT NULL,
+    last_id BIGINT NOT NULL,
+    updated_at DATETIME(6),
+    PRIMARY KEY (job_name)
+);
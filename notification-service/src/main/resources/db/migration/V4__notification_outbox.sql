@@ -0,0 +1,16 @@
+-- notifications doubles as the email outbox: producers insert PENDING rows with the
+-- template to render, the dispatcher sends the rows that are due and backs off on failure
+ALTER TABLE notifications ADD COLUMN template VARCHAR(100);
+ALTER TABLE notifications ADD COLUMN template_variables TEXT;
+ALTER TABLE notifications ADD COLUMN next_attempt_at DATETIME(6);
+
+-- Rows queued before the outbox have no template, and their variables only survive inside the
+-- free-text message, so they cannot be rendered. They are failed with the reason instead of
+-- being sent as broken emails; the dispatcher only claims rows with next_attempt_at set
+UPDATE notifications
+SET status = 'FAILED',
+    error_message = 'Queued before the email outbox, no template to render'
+WHERE status IN ('PENDING', 'RETRY') AND template IS NULL;
+
+-- Due PENDING/RETRY rows: equality on status, range on next_attempt_at
+CREATE INDEX idx_notifications_status_next_attempt ON notifications (status, next_attempt_at);
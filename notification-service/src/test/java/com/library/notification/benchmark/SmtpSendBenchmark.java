@@ -0,0 +1,120 @@
+package com.library.notification.benchmark;
+
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.library.notification.service.EmailService;
+import com.library.notification.service.SmtpTransportPool;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templateresolver.StringTemplateResolver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Emails per second against GreenMail's local SMTP server: one JavaMailSender.send
+ * per message, which connects for every message, against EmailService's bulk send
+ * over a pooled connection. The local server has no TLS or login, so a real mail
+ * host, where every connect also runs STARTTLS and AUTH, widens the gap. Run
+ * through {@link SmtpSendBenchmarkTest}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SmtpSendBenchmark {
+
+    private static final int BATCH = 50;
+
+    private GreenMail greenMail;
+    private JavaMailSenderImpl mailSender;
+    private TemplateEngine templateEngine;
+    private SmtpTransportPool transportPool;
+    private EmailService emailService;
+    private List<EmailService.HtmlEmail> batch;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        greenMail = new GreenMail(ServerSetupTest.SMTP.dynamicPort());
+        greenMail.start();
+        mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(greenMail.getSmtp().getPort());
+
+        templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(new StringTemplateResolver());
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        transportPool = new SmtpTransportPool();
+        ReflectionTestUtils.setField(transportPool, "mailSender", mailSender);
+        ReflectionTestUtils.setField(transportPool, "meterRegistry", meterRegistry);
+        emailService = new EmailService();
+        ReflectionTestUtils.setField(emailService, "mailSender", mailSender);
+        ReflectionTestUtils.setField(emailService, "templateEngine", templateEngine);
+        ReflectionTestUtils.setField(emailService, "transportPool", transportPool);
+        ReflectionTestUtils.setField(emailService, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(emailService, "fromEmail", "library@example.com");
+
+        batch = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            batch.add(new EmailService.HtmlEmail("member" + i + "@example.com", "Fine Notice",
+                    "<p>Dear [[${memberName}]], your fine is Rs.[[${fineAmount}]]</p>",
+                    Map.of("memberName", "Member " + i, "fineAmount", "30.00")));
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void purge() throws Exception {
+        greenMail.purgeEmailFromAllMailboxes();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        transportPool.closeAll();
+        greenMail.stop();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void connectPerMessage() throws MessagingException {
+        for (EmailService.HtmlEmail email : batch) {
+            MimeMessage message = mailSender.createMimeMessage();
+            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+            helper.setFrom("library@example.com");
+            helper.setTo(email.getTo());
+            helper.setSubject(email.getSubject());
+            helper.setText(templateEngine.process(email.getTemplateName(), new Context(null, email.getVariables())), true);
+            mailSender.send(message);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public List<MessagingException> pooledBulkSend() throws MessagingException {
+        return emailService.sendHtmlEmails(batch);
+    }
+}
@@ -0,0 +1,18 @@
+package com.library.notification.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+class SmtpSendBenchmarkTest {
+
+    // mvn test -Dbenchmark=true -Dtest=SmtpSendBenchmarkTest
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void runBenchmark() throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(SmtpSendBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,97 @@
+package com.library.notification.benchmark;
+
+import com.library.notification.service.EmailTemplateRenderer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fine notices rendered per second from the real template, with the template
+ * cache off (every email resolves and parses the file, as with
+ * spring.thymeleaf.cache=false) and on. Each setting runs the old
+ * one-process-call-per-email path and the reusing {@link EmailTemplateRenderer.Batch}.
+ * Run through {@link TemplateRenderBenchmarkTest}, whose GC profiler reports
+ * gc.alloc.rate.norm as bytes allocated per email.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TemplateRenderBenchmark {
+
+    private static final int RECIPIENTS = 100;
+
+    private static final String TEMPLATE = "fine-notification-template";
+
+    @Param({"false", "true"})
+    private boolean cached;
+
+    private TemplateEngine templateEngine;
+    private EmailTemplateRenderer templateRenderer;
+    private List<Map<String, Object>> recipients;
+
+    @Setup
+    public void setUp() {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding("UTF-8");
+        resolver.setCacheable(cached);
+        SpringTemplateEngine engine = new SpringTemplateEngine();
+        engine.setTemplateResolver(resolver);
+        templateEngine = engine;
+
+        templateRenderer = new EmailTemplateRenderer();
+        ReflectionTestUtils.setField(templateRenderer, "templateEngine", templateEngine);
+        templateRenderer.warmUp();
+
+        recipients = new ArrayList<>(RECIPIENTS);
+        for (int i = 0; i < RECIPIENTS; i++) {
+            recipients.add(Map.of("memberName", "Member " + i, "bookTitle", "Book " + i,
+                    "fineAmount", (10 + i) + ".00", "fineType", "LATE_RETURN"));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECIPIENTS)
+    public void processPerEmail(Blackhole blackhole) {
+        for (Map<String, Object> variables : recipients) {
+            Context context = new Context();
+            context.setVariables(variables);
+            blackhole.consume(templateEngine.process(TEMPLATE, context));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECIPIENTS)
+    public void batchRenderer(Blackhole blackhole) {
+        EmailTemplateRenderer.Batch batch = templateRenderer.newBatch();
+        for (Map<String, Object> variables : recipients) {
+            blackhole.consume(batch.render(TEMPLATE, variables));
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.library.notification.repository;
+
+import com.library.notification.entity.Notification;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+@Import(NotificationJdbcRepository.class)
+class NotificationJdbcRepositoryTest {
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private NotificationJdbcRepository notificationJdbcRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void insertPending_QueuedRowsAreDueRightAway() {
+        notificationJdbcRepository.insertPending(List.of(
+                queued("first@example.com"),
+                queued("second@example.com")));
+
+        entityManager.clear();
+        List<Notification> due = notificationRepository.lockDue(LocalDateTime.now().plusSeconds(1), Limit.of(10));
+        assertEquals(2, due.size());
+        Notification notification = due.get(0);
+        assertEquals(Notification.NotificationStatus.PENDING, notification.getStatus());
+        assertEquals(0, notification.getRetryCount());
+        assertEquals("fine-notification-template", notification.getTemplate());
+        assertEquals("{\"fineAmount\":\"30.00\"}", notification.getTemplateVariables());
+        assertNotNull(notification.getCreatedAt());
+    }
+
+    @Test
+    void lockDue_SkipsRowsWaitingForBackoffAndFinishedRows() {
+        Notification waiting = queued("waiting@example.com");
+        waiting.setStatus(Notification.NotificationStatus.RETRY);
+        waiting.setNextAttemptAt(LocalDateTime.now().plusMinutes(5));
+        Notification sent = queued("sent@example.com");
+        sent.setStatus(Notification.NotificationStatus.SENT);
+        sent.setNextAttemptAt(LocalDateTime.now().minusMinutes(5));
+        Notification due = queued("due@example.com");
+        due.setStatus(Notification.NotificationStatus.RETRY);
+        due.setNextAttemptAt(LocalDateTime.now().minusMinutes(1));
+        notificationRepository.saveAll(List.of(waiting, sent, due));
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Notification> locked = notificationRepository.lockDue(LocalDateTime.now(), Limit.of(10));
+
+        assertEquals(1, locked.size());
+        assertEquals("due@example.com", locked.get(0).getRecipientEmail());
+    }
+
+    private Notification queued(String recipientEmail) {
+        Notification notification = new Notification(1L, "Fine notice", Notification.NotificationType.FINE_NOTICE,
+                recipientEmail, "Fine Notice");
+        notification.setTemplate("fine-notification-template");
+        notification.setTemplateVariables("{\"fineAmount\":\"30.00\"}");
+        return notification;
+    }
+}
@@ -0,0 +1,52 @@
+package com.library.notification.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Upgrades a database that already has queued notifications, which predate templates, to the outbox schema
+class NotificationOutboxMigrationTest {
+
+    @Test
+    void outboxMigration_FailsWaitingRowsWithoutTemplate() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:outbox-migration;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        flyway(dataSource, "3").migrate();
+        Timestamp queuedAt = Timestamp.valueOf(LocalDateTime.of(2026, 1, 5, 9, 30));
+        insert(jdbcTemplate, 1L, "PENDING", queuedAt);
+        insert(jdbcTemplate, 2L, "RETRY", null);
+        insert(jdbcTemplate, 3L, "SENT", queuedAt);
+
+        flyway(dataSource, "latest").migrate();
+
+        for (Long id : new Long[] {1L, 2L}) {
+            assertEquals("FAILED", column(jdbcTemplate, "status", id));
+            assertEquals("Queued before the email outbox, no template to render",
+                    column(jdbcTemplate, "error_message", id));
+            assertNull(column(jdbcTemplate, "next_attempt_at", id));
+        }
+        assertEquals("SENT", column(jdbcTemplate, "status", 3L));
+        assertNull(column(jdbcTemplate, "error_message", 3L));
+    }
+
+    private Flyway flyway(DriverManagerDataSource dataSource, String target) {
+        return Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").target(target).load();
+    }
+
+    private void insert(JdbcTemplate jdbcTemplate, Long id, String status, Timestamp createdAt) {
+        jdbcTemplate.update("INSERT INTO notifications (notification_id, member_id, message, type, status, created_at) " +
+                "VALUES (?, 1, 'Fine notice', 'FINE_NOTICE', ?, ?)", id, status, createdAt);
+    }
+
+    private String column(JdbcTemplate jdbcTemplate, String column, Long id) {
+        return jdbcTemplate.queryForObject("SELECT " + column + " FROM notifications WHERE notification_id = ?",
+                String.class, id);
+    }
+}
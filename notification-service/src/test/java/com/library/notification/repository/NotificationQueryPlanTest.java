@@ -0,0 +1,88 @@
+package com.library.notification.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the hot notification queries against the schema built by the migrations alone,
+ * validated against the entities, and asks H2 for the plan of the SQL Hibernate
+ * generated. Fails when a query stops using its index and scans the table.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.library.notification.repository.NotificationQueryPlanTest$CapturingInspector"
+})
+class NotificationQueryPlanTest {
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        CapturingInspector.statements.clear();
+    }
+
+    @Test
+    void findRecentNotificationsByMember_UsesMemberSentIndex() {
+        notificationRepository.findRecentNotificationsByMember(1L, LocalDateTime.now().minusDays(30));
+
+        assertUsesIndex("IDX_NOTIFICATIONS_MEMBER_SENT");
+    }
+
+    @Test
+    void findByMemberId_UsesMemberSentIndex() {
+        notificationRepository.findByMemberId(1L);
+
+        assertUsesIndex("IDX_NOTIFICATIONS_MEMBER_SENT");
+    }
+
+    @Test
+    void countSentNotificationsSince_UsesStatusSentIndex() {
+        notificationRepository.countSentNotificationsSince(LocalDateTime.now().minusDays(1));
+
+        assertUsesIndex("IDX_NOTIFICATIONS_STATUS_SENT");
+    }
+
+    @Test
+    void lockDue_UsesStatusNextAttemptIndex() {
+        notificationRepository.lockDue(LocalDateTime.now(), Limit.of(50));
+
+        assertUsesIndex("IDX_NOTIFICATIONS_STATUS_NEXT_ATTEMPT");
+    }
+
+    private void assertUsesIndex(String index) {
+        assertFalse(CapturingInspector.statements.isEmpty(), "No SQL was captured");
+        String sql = CapturingInspector.statements.get(CapturingInspector.statements.size() - 1);
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+
+        assertFalse(plan.contains("tableScan"), () -> "Full scan in plan:\n" + plan);
+        assertTrue(plan.contains(index), () -> "Expected " + index + " in plan:\n" + plan);
+    }
+
+    public static class CapturingInspector implements StatementInspector {
+        static final List<String> statements = new ArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.library.notification.service;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.mockito.InjectMocks;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+// Sends through GreenMail's in-process SMTP server instead of a real mail host
+class EmailServiceTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Spy
+    private JavaMailSenderImpl mailSender = greenMailSender();
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @InjectMocks
+    private SmtpTransportPool transportPool;
+    @InjectMocks
+    private EmailService emailService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        transportPool.setSize(2);
+        ReflectionTestUtils.setField(emailService, "transportPool", transportPool);
+        ReflectionTestUtils.setField(emailService, "fromEmail", "library@example.com");
+        ReflectionTestUtils.setField(emailService, "templateRenderer", EmailTemplateRendererTest.renderer());
+    }
+
+    @AfterEach
+    void tearDown() {
+        transportPool.closeAll();
+    }
+
+    @Test
+    void sendHtmlEmails_SendsBatchOverOneConnection() throws Exception {
+        List<MessagingException> failures = emailService.sendHtmlEmails(List.of(
+                fineNotice("first@example.com"),
+                fineNotice("second@example.com"),
+                fineNotice("third@example.com")));
+
+        assertEquals(3, failures.size());
+        assertTrue(failures.stream().allMatch(failure -> failure == null));
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertEquals(3, received.length);
+        assertEquals("Fine Notice", received[0].getSubject());
+        assertEquals(1.0, connections("opened"));
+        verify(mailSender, never()).send(any(MimeMessage.class));
+    }
+
+    @Test
+    void sendHtmlEmail_ReusesIdleConnection() throws Exception {
+        emailService.sendHtmlEmail("first@example.com", "Fine Notice", "fine-notification-template", Map.of());
+        emailService.sendHtmlEmail("second@example.com", "Fine Notice", "fine-notification-template", Map.of());
+
+        assertEquals(2, greenMail.getReceivedMessages().length);
+        assertEquals(1.0, connections("opened"));
+        assertEquals(1.0, connections("reused"));
+        assertEquals(2, meterRegistry.get("notification.smtp.send").tag("outcome", "sent").timer().count());
+    }
+
+    @Test
+    void sendHtmlEmail_ReconnectsWhenServerDroppedIdleConnection() throws Exception {
+        emailService.sendHtmlEmail("first@example.com", "Fine Notice", "fine-notification-template", Map.of());
+        greenMail.reset();
+
+        emailService.sendHtmlEmail("second@example.com", "Fine Notice", "fine-notification-template", Map.of());
+
+        assertEquals(1, greenMail.getReceivedMessages().length);
+        assertEquals(2.0, connections("opened"));
+    }
+
+    @Test
+    void sendHtmlEmails_TemplateFailureDoesNotStopBatch() throws Exception {
+        List<MessagingException> failures = emailService.sendHtmlEmails(List.of(
+                new EmailService.HtmlEmail("first@example.com", "Custom", "missing-template", Map.of()),
+                fineNotice("second@example.com")));
+
+        assertNotNull(failures.get(0));
+        assertNull(failures.get(1));
+        assertEquals(1, greenMail.getReceivedMessages().length);
+    }
+
+    @Test
+    void sendHtmlEmails_KeepsSentResultsWhenReconnectIsRefused() throws Exception {
+        // The server goes away while the second email is being prepared and does not come back
+        doCallRealMethod()
+                .doAnswer(invocation -> {
+                    greenMail.stop();
+                    return invocation.callRealMethod();
+                })
+                .doCallRealMethod()
+                .when(mailSender).createMimeMessage();
+
+        List<MessagingException> failures = emailService.sendHtmlEmails(List.of(
+                fineNotice("first@example.com"),
+                fineNotice("second@example.com"),
+                fineNotice("third@example.com")));
+
+        assertEquals(3, failures.size());
+        assertNull(failures.get(0));
+        assertNotNull(failures.get(1));
+        assertNotNull(failures.get(2));
+        assertEquals(1.0, connections("opened"));
+    }
+
+    @Test
+    void retiresConnectionAfterMessageLimit() throws Exception {
+        transportPool.setMaxMessagesPerConnection(2);
+
+        emailService.sendHtmlEmails(List.of(fineNotice("first@example.com"), fineNotice("second@example.com")));
+        emailService.sendHtmlEmail("third@example.com", "Fine Notice", "fine-notification-template", Map.of());
+
+        assertEquals(3, greenMail.getReceivedMessages().length);
+        assertEquals(2.0, connections("opened"));
+        assertEquals(2.0, meterRegistry.get("notification.smtp.messages.per.connection").summary().max());
+    }
+
+    private EmailService.HtmlEmail fineNotice(String to) {
+        return new EmailService.HtmlEmail(to, "Fine Notice", "fine-notification-template",
+                Map.of("fineAmount", "30.00"));
+    }
+
+    private double connections(String outcome) {
+        return meterRegistry.get("notification.smtp.connections").tag("outcome", outcome).counter().count();
+    }
+
+    private static JavaMailSenderImpl greenMailSender() {
+        JavaMailSenderImpl sender = new JavaMailSenderImpl();
+        sender.setHost("localhost");
+        sender.setPort(ServerSetupTest.SMTP.getPort());
+        return sender;
+    }
+}
@@ -0,0 +1,86 @@
+package com.library.notification.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.exceptions.TemplateInputException;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Renders the real templates from src/main/resources/templates
+class EmailTemplateRendererTest {
+
+    private TemplateEngine templateEngine;
+    private EmailTemplateRenderer templateRenderer;
+
+    @BeforeEach
+    void setUp() {
+        templateEngine = templateEngine();
+        templateRenderer = new EmailTemplateRenderer();
+        ReflectionTestUtils.setField(templateRenderer, "templateEngine", templateEngine);
+    }
+
+    @Test
+    void warmUp_ParsesEveryTemplateIntoCache() {
+        assertEquals(3, templateRenderer.warmUp());
+
+        assertEquals(3, templateEngine.getConfiguration().getCacheManager().getTemplateCache().keySet().size());
+    }
+
+    @Test
+    void warmUp_SkipsMissingTemplate() {
+        templateRenderer.setWarmUpTemplates(List.of("due-reminder", "no-such-template"));
+
+        assertEquals(1, templateRenderer.warmUp());
+    }
+
+    @Test
+    void batch_KeepsRecipientsApart() {
+        EmailTemplateRenderer.Batch batch = templateRenderer.newBatch();
+
+        String first = batch.render("fine-notification-template", Map.of(
+                "memberName", "Asha", "bookTitle", "A Very Long Book Title About Distributed Systems",
+                "fineAmount", "130.00", "fineType", "LATE_RETURN"));
+        String second = batch.render("fine-notification-template", Map.of("memberName", "Ravi", "fineAmount", "10.00"));
+        String reminder = batch.render("due-reminder", Map.of("memberName", "Meera", "bookTitle", "Dune"));
+
+        assertTrue(first.contains("Asha") && first.contains("130.00"));
+        assertTrue(second.contains("Ravi") && second.contains("10.00"));
+        assertFalse(second.contains("Asha") || second.contains("Distributed Systems") || second.contains("LATE_RETURN"));
+        assertTrue(reminder.contains("Meera") && reminder.contains("Dune"));
+        assertEquals(first.length(), templateRenderer.render("fine-notification-template", Map.of(
+                "memberName", "Asha", "bookTitle", "A Very Long Book Title About Distributed Systems",
+                "fineAmount", "130.00", "fineType", "LATE_RETURN")).length());
+    }
+
+    @Test
+    void render_MissingTemplateThrows() {
+        assertThrows(TemplateInputException.class, () -> templateRenderer.render("no-such-template", Map.of()));
+    }
+
+    // The resolver Spring Boot configures, minus the Spring resource loading
+    static TemplateEngine templateEngine() {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding("UTF-8");
+        resolver.setCacheable(true);
+        SpringTemplateEngine engine = new SpringTemplateEngine();
+        engine.setTemplateResolver(resolver);
+        return engine;
+    }
+
+    static EmailTemplateRenderer renderer() {
+        EmailTemplateRenderer renderer = new EmailTemplateRenderer();
+        ReflectionTestUtils.setField(renderer, "templateEngine", templateEngine());
+        return renderer;
+    }
+}
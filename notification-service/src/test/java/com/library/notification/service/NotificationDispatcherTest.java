@@ -0,0 +1,152 @@
+package com.library.notification.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.notification.entity.Notification;
+import com.library.notification.entity.Notification.NotificationStatus;
+import com.library.notification.repository.NotificationRepository;
+import jakarta.mail.MessagingException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class NotificationDispatcherTest {
+    @Mock
+    private NotificationRepository notificationRepository;
+    @Mock
+    private EmailService emailService;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+    @InjectMocks
+    private NotificationDispatcher notificationDispatcher;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        notificationDispatcher.setBatchSize(2);
+        notificationDispatcher.setWorkers(1);
+        notificationDispatcher.setMaxAttempts(3);
+        notificationDispatcher.setBackoff(Duration.ofSeconds(30));
+        notificationDispatcher.setMaxBackoff(Duration.ofMinutes(5));
+    }
+
+    @Test
+    void testDispatch_SendsDueBatchesUntilShortBatch() throws Exception {
+        Notification first = queued(1L, 0);
+        Notification second = queued(2L, 0);
+        Notification third = queued(3L, 0);
+        when(notificationRepository.lockDue(any(LocalDateTime.class), eq(Limit.of(2))))
+                .thenReturn(List.of(first, second))
+                .thenReturn(List.of(third));
+        when(emailService.sendHtmlEmails(anyList())).thenAnswer(invocation -> allSent(invocation.getArgument(0)));
+
+        assertEquals(3, notificationDispatcher.dispatch());
+
+        // One bulk send per batch
+        verify(emailService).sendHtmlEmails(argThat(emails -> emails.size() == 2
+                && emails.get(0).getTo().equals("reader@example.com")
+                && emails.get(0).getTemplateName().equals("fine-notification-template")
+                && "30.00".equals(emails.get(0).getVariables().get("fineAmount"))));
+        verify(emailService).sendHtmlEmails(argThat(emails -> emails.size() == 1));
+        assertEquals(NotificationStatus.SENT, first.getStatus());
+        assertNotNull(third.getDateSent());
+        assertNull(third.getNextAttemptAt());
+        verify(notificationRepository, times(2)).lockDue(any(LocalDateTime.class), eq(Limit.of(2)));
+    }
+
+    @Test
+    void testDispatch_FailedSendIsRetriedWithBackoff() throws Exception {
+        Notification notification = queued(1L, 1);
+        when(notificationRepository.lockDue(any(LocalDateTime.class), eq(Limit.of(2)))).thenReturn(List.of(notification));
+        when(emailService.sendHtmlEmails(anyList())).thenReturn(List.of(new MessagingException("SMTP down")));
+
+        assertEquals(0, notificationDispatcher.dispatch());
+
+        assertEquals(NotificationStatus.RETRY, notification.getStatus());
+        assertEquals(2, notification.getRetryCount());
+        assertEquals("SMTP down", notification.getErrorMessage());
+        // Second failure waits twice the base delay
+        assertTrue(notification.getNextAttemptAt().isAfter(LocalDateTime.now().plusSeconds(50)));
+        assertTrue(notification.getNextAttemptAt().isBefore(LocalDateTime.now().plusSeconds(61)));
+    }
+
+    @Test
+    void testDispatch_GivesUpAtAttemptCeiling() throws Exception {
+        Notification notification = queued(1L, 2);
+        when(notificationRepository.lockDue(any(LocalDateTime.class), eq(Limit.of(2)))).thenReturn(List.of(notification));
+        when(emailService.sendHtmlEmails(anyList())).thenThrow(new MessagingException("Mailbox unavailable"));
+
+        notificationDispatcher.dispatch();
+
+        assertEquals(NotificationStatus.FAILED, notification.getStatus());
+        assertEquals(3, notification.getRetryCount());
+        assertNull(notification.getNextAttemptAt());
+    }
+
+    @Test
+    void testDispatch_ParallelWorkersShareTheQueue() throws Exception {
+        notificationDispatcher.setWorkers(3);
+        when(notificationRepository.lockDue(any(LocalDateTime.class), eq(Limit.of(2))))
+                .thenReturn(List.of(queued(1L, 0), queued(2L, 0)))
+                .thenReturn(Collections.emptyList());
+        when(emailService.sendHtmlEmails(anyList())).thenAnswer(invocation -> allSent(invocation.getArgument(0)));
+
+        assertEquals(2, notificationDispatcher.dispatch());
+
+        // The full first batch starts the three workers, each stops at its first empty batch
+        verify(notificationRepository, times(4)).lockDue(any(LocalDateTime.class), eq(Limit.of(2)));
+    }
+
+    @Test
+    void testDispatch_IdleTickIsOneQuery() {
+        notificationDispatcher.setWorkers(3);
+        when(notificationRepository.lockDue(any(LocalDateTime.class), eq(Limit.of(2)))).thenReturn(List.of());
+
+        assertEquals(0, notificationDispatcher.dispatch());
+
+        verify(notificationRepository, times(1)).lockDue(any(LocalDateTime.class), eq(Limit.of(2)));
+        verifyNoInteractions(emailService);
+    }
+
+    @Test
+    void testBackoffFor_DoublesUpToMax() {
+        assertEquals(Duration.ofSeconds(30), notificationDispatcher.backoffFor(1));
+        assertEquals(Duration.ofSeconds(120), notificationDispatcher.backoffFor(3));
+        assertEquals(Duration.ofMinutes(5), notificationDispatcher.backoffFor(10));
+        assertEquals(Duration.ofMinutes(5), notificationDispatcher.backoffFor(200));
+    }
+
+    private List<MessagingException> allSent(List<EmailService.HtmlEmail> emails) {
+        return Collections.nCopies(emails.size(), null);
+    }
+
+    private Notification queued(Long notificationId, int retryCount) {
+        Notification notification = new Notification(1L, "Fine notice", Notification.NotificationType.FINE_NOTICE,
+                "reader@example.com", "Fine Notice");
+        notification.setNotificationId(notificationId);
+        notification.setRetryCount(retryCount);
+        notification.setStatus(retryCount == 0 ? NotificationStatus.PENDING : NotificationStatus.RETRY);
+        notification.setTemplate("fine-notification-template");
+        notification.setTemplateVariables("{\"fineAmount\":\"30.00\"}");
+        notification.setNextAttemptAt(LocalDateTime.now());
+        return notification;
+    }
+}
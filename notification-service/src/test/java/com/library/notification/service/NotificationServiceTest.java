@@ -1,22 +1,55 @@
 package com.library.notification.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.notification.client.FineServiceClient;
+import com.library.notification.client.TransactionServiceClient;
+import com.library.notification.dto.BookDTO;
+import com.library.notification.dto.BorrowingTransactionResponseDTO;
+import com.library.notification.dto.MemberDTO;
 import com.library.notification.dto.NotificationDTO;
+import com.library.notification.dto.PendingFineChangeDTO;
+import com.library.notification.entity.JobWatermark;
 import com.library.notification.entity.Notification;
+import com.library.notification.repository.JobWatermarkRepository;
+import com.library.notification.repository.NotificationJdbcRepository;
 import com.library.notification.repository.NotificationRepository;
+import com.library.notification.dto.CursorPageDTO;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Optional;
 import java.util.Collections;
 import java.util.List;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class NotificationServiceTest {
     @Mock
     private NotificationRepository notificationRepository;
+    @Mock
+    private TransactionServiceClient transactionServiceClient;
+    @Mock
+    private NotificationJdbcRepository notificationJdbcRepository;
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+    @Mock
+    private FineServiceClient fineServiceClient;
+    @Mock
+    private JobWatermarkRepository jobWatermarkRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
     @InjectMocks
     private NotificationService notificationService;
 
@@ -52,4 +85,130 @@ class NotificationServiceTest {
     }
 
     // Add more tests for notification creation, reminders, and edge cases
+
+    @Test
+    void testGetNotificationsPage_LastPage() {
+        Notification notification = new Notification();
+        notification.setNotificationId(3L);
+        when(notificationRepository.findByNotificationIdGreaterThanOrderByNotificationIdAsc(2L, Limit.of(51)))
+                .thenReturn(List.of(notification));
+        CursorPageDTO<NotificationDTO> page = notificationService.getNotificationsPage(2L, 50);
+        assertEquals(1, page.getItems().size());
+        assertFalse(page.isHasMore());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void testProcessUpcomingDueAlerts_PagesDueWindow() {
+        LocalDate today = LocalDate.now();
+        BorrowingTransactionResponseDTO first = dueTransaction(4L, today.plusDays(1));
+        BorrowingTransactionResponseDTO second = dueTransaction(2L, today.plusDays(2));
+        when(transactionServiceClient.getDueTransactions(today, today.plusDays(3), null, null, 100))
+                .thenReturn(new CursorPageDTO<>(List.of(first), 4L, true));
+        when(transactionServiceClient.getDueTransactions(today, today.plusDays(3), today.plusDays(1), 4L, 100))
+                .thenReturn(new CursorPageDTO<>(List.of(second), null, false));
+
+        notificationService.processUpcomingDueAlerts();
+
+        // One batch insert per page, nothing is sent inline
+        verify(notificationJdbcRepository, times(2)).insertPending(argThat(queued -> queued.size() == 1
+                && queued.get(0).getRecipientEmail().equals("reader@example.com")
+                && queued.get(0).getTemplate().equals("due-reminder")
+                && queued.get(0).getType() == Notification.NotificationType.OVERDUE_ALERT));
+        verify(notificationRepository, never()).save(any(Notification.class));
+    }
+
+    @Test
+    void testProcessPendingFineNotifications_ResumesFromWatermark() {
+        LocalDateTime watermarkAt = LocalDateTime.now().minusDays(1);
+        LocalDateTime changedAt = LocalDateTime.now().minusHours(2);
+        when(jobWatermarkRepository.findById(NotificationService.PENDING_FINE_JOB))
+                .thenReturn(Optional.of(new JobWatermark(NotificationService.PENDING_FINE_JOB, watermarkAt, 3L)));
+        when(jobWatermarkRepository.save(any(JobWatermark.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(fineServiceClient.getPendingFineChanges(watermarkAt, 3L, 100))
+                .thenReturn(new CursorPageDTO<>(List.of(fineChange(9L, changedAt)), 9L, true));
+        when(fineServiceClient.getPendingFineChanges(changedAt, 9L, 100))
+                .thenReturn(new CursorPageDTO<>(List.of(fineChange(5L, changedAt.plusMinutes(1))), null, false));
+
+        notificationService.processPendingFineNotifications();
+
+        verify(notificationJdbcRepository, times(2)).insertPending(argThat(queued -> queued.size() == 1
+                && queued.get(0).getTemplate().equals("fine-notification-template")
+                && queued.get(0).getTemplateVariables().contains("\"fineAmount\":\"30.00\"")));
+        verify(jobWatermarkRepository, times(2)).save(argThat(watermark ->
+                watermark.getJobName().equals(NotificationService.PENDING_FINE_JOB)));
+        verify(fineServiceClient, times(2)).getPendingFineChanges(any(), any(), eq(100));
+    }
+
+    @Test
+    void testProcessPendingFineNotifications_SkipsFineOfDeletedMember() {
+        LocalDateTime changedAt = LocalDateTime.now().minusHours(2);
+        when(jobWatermarkRepository.findById(NotificationService.PENDING_FINE_JOB)).thenReturn(Optional.empty());
+        when(jobWatermarkRepository.save(any(JobWatermark.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        PendingFineChangeDTO deletedMember = fineChange(6L, changedAt.plusMinutes(1));
+        deletedMember.setMemberEmail(null);
+        deletedMember.setMemberName(null);
+        when(fineServiceClient.getPendingFineChanges(null, null, 100)).thenReturn(new CursorPageDTO<>(
+                List.of(fineChange(4L, changedAt), deletedMember, fineChange(8L, changedAt.plusMinutes(2))), 8L, true));
+        when(fineServiceClient.getPendingFineChanges(changedAt.plusMinutes(2), 8L, 100))
+                .thenReturn(new CursorPageDTO<>(Collections.emptyList(), null, false));
+
+        notificationService.processPendingFineNotifications();
+
+        verify(notificationJdbcRepository).insertPending(argThat(queued -> queued.size() == 2));
+        // The watermark moves past the skipped fine, it does not block the notices after it
+        verify(jobWatermarkRepository).save(argThat(watermark -> watermark.getLastId().equals(8L)));
+        verify(fineServiceClient, times(2)).getPendingFineChanges(any(), any(), anyInt());
+    }
+
+    @Test
+    void testProcessPendingFineNotifications_FailedLookupKeepsFinishedPages() {
+        LocalDateTime changedAt = LocalDateTime.now().minusHours(2);
+        when(jobWatermarkRepository.findById(NotificationService.PENDING_FINE_JOB)).thenReturn(Optional.empty());
+        when(jobWatermarkRepository.save(any(JobWatermark.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(fineServiceClient.getPendingFineChanges(null, null, 100))
+                .thenReturn(new CursorPageDTO<>(List.of(fineChange(4L, changedAt)), 4L, true));
+        when(fineServiceClient.getPendingFineChanges(changedAt, 4L, 100))
+                .thenThrow(new RuntimeException("member-service unavailable"));
+
+        assertThrows(RuntimeException.class, () -> notificationService.processPendingFineNotifications());
+
+        // The first page committed on its own; the next run resumes after it and asks for the failed page again
+        verify(transactionManager, times(1)).commit(any());
+        verify(notificationJdbcRepository, times(1)).insertPending(argThat(queued -> queued.size() == 1));
+        verify(jobWatermarkRepository, times(1)).save(argThat(watermark -> watermark.getLastId().equals(4L)));
+    }
+
+    @Test
+    void testProcessPendingFineNotifications_NoChangesKeepsWatermark() {
+        when(jobWatermarkRepository.findById(NotificationService.PENDING_FINE_JOB)).thenReturn(Optional.empty());
+        when(fineServiceClient.getPendingFineChanges(null, null, 100))
+                .thenReturn(new CursorPageDTO<>(Collections.emptyList(), null, false));
+
+        notificationService.processPendingFineNotifications();
+
+        verify(notificationJdbcRepository).insertPending(Collections.emptyList());
+        verify(jobWatermarkRepository, never()).save(any());
+    }
+
+    private PendingFineChangeDTO fineChange(Long fineId, LocalDateTime updatedAt) {
+        return new PendingFineChangeDTO(fineId, 1L, "Reader", "reader@example.com", "Dune",
+                new BigDecimal("30.00"), "LATE_RETURN", updatedAt);
+    }
+
+    private BorrowingTransactionResponseDTO dueTransaction(Long transactionId, LocalDate dueDate) {
+        MemberDTO member = new MemberDTO();
+        member.setMemberId(1L);
+        member.setName("Reader");
+        member.setEmail("reader@example.com");
+        BookDTO book = new BookDTO();
+        book.setTitle("Dune");
+        BorrowingTransactionResponseDTO transaction = new BorrowingTransactionResponseDTO();
+        transaction.setTransactionId(transactionId);
+        transaction.setDueDate(dueDate);
+        transaction.setStatus("BORROWED");
+        transaction.setMember(member);
+        transaction.setBook(book);
+        return transaction;
+    }
 }
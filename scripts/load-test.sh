@@ -0,0 +1,48 @@
+echo "📈 Library Management System Load Test"
+
+# Measures how throughput and latency behave as concurrency grows against one endpoint.
+# Run it once with the service started normally and once after restarting it with
+# VIRTUAL_THREADS_ENABLED=false (or true), then compare the two tables.
+#
+# Usage: scripts/load-test.sh [url] [requests-per-step] [concurrency levels...]
+# Example: scripts/load-test.sh http://localhost:8083/api/transactions/1 2000 50 100 200 400 800
+#
+# Requires hey (https://github.com/rakyll/hey) on the PATH.
+
+URL=${1:-http://localhost:8083/api/transactions/1}
+REQUESTS=${2:-2000}
+shift 2 2>/dev/null
+LEVELS=("$@")
+if [ ${#LEVELS[@]} -eq 0 ]; then
+    LEVELS=(50 100 200 400 800)
+fi
+
+if ! command -v hey > /dev/null 2>&1; then
+    echo "❌ hey is not installed, see https://github.com/rakyll/hey"
+    exit 1
+fi
+
+if ! curl -s -o /dev/null "$URL"; then
+    echo "❌ $URL is not reachable"
+    exit 1
+fi
+
+mkdir -p logs
+REPORT=logs/load-test-$(date +%Y%m%d-%H%M%S).txt
+
+echo "🎯 Target: $URL ($REQUESTS requests per step)"
+printf "%-12s %-12s %-10s %-10s %-10s\n" "concurrency" "req/sec" "p50(s)" "p99(s)" "errors" | tee "$REPORT"
+
+for level in "${LEVELS[@]}"; do
+    output=$(hey -n "$REQUESTS" -c "$level" -t 30 "$URL")
+    rps=$(echo "$output" | awk '/Requests\/sec/ {print $2}')
+    p50=$(echo "$output" | awk '/ 50% in/ {print $3}')
+    p99=$(echo "$output" | awk '/ 99% in/ {print $3}')
+    ok=$(echo "$output" | awk '/\[200\]/ {print $2}')
+    errors=$((REQUESTS - ${ok:-0}))
+    printf "%-12s %-12s %-10s %-10s %-10s\n" "$level" "$rps" "$p50" "$p99" "$errors" | tee -a "$REPORT"
+done
+
+echo "📄 Results saved to $REPORT"
+echo "💡 The ceiling is the concurrency where req/sec stops growing and p99 climbs."
+echo "   If req/sec is flat from the first level, the Hikari pool is the limit, not the thread model."
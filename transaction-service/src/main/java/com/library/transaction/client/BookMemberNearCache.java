@@ -0,0 +1,164 @@
+package com.library.transaction.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.library.transaction.dto.BookDTO;
+import com.library.transaction.dto.MemberDTO;
+
+import feign.FeignException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Short-lived in-process copies of books and members in front of the Feign
+ * clients. Lookups that came back empty are remembered too, for a shorter time.
+ * Entries can be up to one TTL old, so callers that act on copy counts must use
+ * {@link #refreshBook(Long)}.
+ */
+@Component
+public class BookMemberNearCache {
+
+    @Autowired
+    private BookServiceClient bookServiceClient;
+
+    @Autowired
+    private MemberServiceClient memberServiceClient;
+
+    private final Cache<Long, Optional<BookDTO>> books;
+    private final Cache<Long, Optional<MemberDTO>> members;
+
+    public BookMemberNearCache(MeterRegistry meterRegistry,
+                               @Value("${transaction.near-cache.ttl-seconds:30}") long ttlSeconds,
+                               @Value("${transaction.near-cache.negative-ttl-seconds:5}") long negativeTtlSeconds,
+                               @Value("${transaction.near-cache.maximum-size:10000}") long maximumSize) {
+        Expiry<Long, Optional<?>> expiry = new PresenceExpiry(
+                Duration.ofSeconds(ttlSeconds), Duration.ofSeconds(negativeTtlSeconds));
+        this.books = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .<Long, Optional<BookDTO>>expireAfter(expiry)
+                .build();
+        this.members = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .<Long, Optional<MemberDTO>>expireAfter(expiry)
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, books, "bookNearCache");
+        CaffeineCacheMetrics.monitor(meterRegistry, members, "memberNearCache");
+    }
+
+    // Loads run outside Caffeine's compute lock so a slow remote call never blocks other keys
+    public Optional<BookDTO> getBook(Long bookId) {
+        Optional<BookDTO> cached = books.getIfPresent(bookId);
+        return cached != null ? cached : refreshBook(bookId);
+    }
+
+    // Always goes to book-service and replaces whatever was cached
+    public Optional<BookDTO> refreshBook(Long bookId) {
+        Optional<BookDTO> book = loadBook(bookId);
+        books.put(bookId, book);
+        return book;
+    }
+
+    public Optional<MemberDTO> getMember(Long memberId) {
+        Optional<MemberDTO> cached = members.getIfPresent(memberId);
+        if (cached != null) {
+            return cached;
+        }
+        Optional<MemberDTO> member = loadMember(memberId);
+        members.put(memberId, member);
+        return member;
+    }
+
+    // Only the IDs missing from the cache are sent to book-service, in one bulk call
+    public List<BookDTO> getBooks(Collection<Long> bookIds) {
+        return present(books.getAll(bookIds,
+                missing -> loadAll(missing, bookServiceClient::getBooksByIds, BookDTO::getBookId)));
+    }
+
+    public List<MemberDTO> getMembers(Collection<Long> memberIds) {
+        return present(members.getAll(memberIds,
+                missing -> loadAll(missing, memberServiceClient::getMembersByIds, MemberDTO::getMemberId)));
+    }
+
+    public void evictBooks(Collection<Long> bookIds) {
+        books.invalidateAll(bookIds);
+    }
+
+    private Optional<BookDTO> loadBook(Long bookId) {
+        try {
+            ResponseEntity<BookDTO> response = bookServiceClient.getBookById(bookId);
+            return Optional.ofNullable(response != null ? response.getBody() : null);
+        } catch (FeignException.NotFound e) {
+            return Optional.empty();
+        }
+    }
+
+    private Optional<MemberDTO> loadMember(Long memberId) {
+        try {
+            ResponseEntity<MemberDTO> response = memberServiceClient.getMemberById(memberId);
+            return Optional.ofNullable(response != null ? response.getBody() : null);
+        } catch (FeignException.NotFound e) {
+            return Optional.empty();
+        }
+    }
+
+    private <T> Map<Long, Optional<T>> loadAll(Set<? extends Long> ids, Function<List<Long>, List<T>> loader,
+            Function<T, Long> idOf) {
+        Map<Long, Optional<T>> loaded = new HashMap<>();
+        // IDs the bulk endpoint skipped are unknown and get cached as empty
+        ids.forEach(id -> loaded.put(id, Optional.empty()));
+        List<T> found = loader.apply(new ArrayList<>(ids));
+        if (found != null) {
+            found.forEach(item -> loaded.put(idOf.apply(item), Optional.of(item)));
+        }
+        return loaded;
+    }
+
+    private <T> List<T> present(Map<Long, Optional<T>> entries) {
+        List<T> result = new ArrayList<>(entries.size());
+        entries.values().forEach(entry -> entry.ifPresent(result::add));
+        return result;
+    }
+
+    private static class PresenceExpiry implements Expiry<Long, Optional<?>> {
+        private final long ttlNanos;
+        private final long negativeTtlNanos;
+
+        PresenceExpiry(Duration ttl, Duration negativeTtl) {
+            this.ttlNanos = ttl.toNanos();
+            this.negativeTtlNanos = negativeTtl.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(Long key, Optional<?> value, long currentTime) {
+            return value.isPresent() ? ttlNanos : negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(Long key, Optional<?> value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Long key, Optional<?> value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -6,9 +6,14 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 
+import com.library.transaction.dto.AvailabilityChangeDTO;
+import com.library.transaction.dto.AvailabilityChangeResultDTO;
 import com.library.transaction.dto.BookDTO;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 
 @FeignClient(name = "book-service")
@@ -17,8 +22,16 @@ public interface BookServiceClient {
     @GetMapping("/api/books/{id}")
     ResponseEntity<BookDTO> getBookById(@PathVariable("id") Long bookId);
 
+    @GetMapping("/api/books")
+    List<BookDTO> getBooksByIds(@RequestParam("ids") Collection<Long> bookIds);
+
     @PutMapping("/api/books/{id}/availability")
     ResponseEntity<Map<String, String>> updateBookAvailability(
             @PathVariable("id") Long bookId,
             @RequestBody Map<String, Integer> request);
+
+    @PutMapping("/api/books/availability/batch")
+    List<AvailabilityChangeResultDTO> updateBookAvailabilityBatch(
+            @RequestBody List<AvailabilityChangeDTO> changes,
+            @RequestParam("allOrNothing") boolean allOrNothing);
 }
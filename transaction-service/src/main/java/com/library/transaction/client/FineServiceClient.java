@@ -1,5 +1,18 @@
 package com.library.transaction.client;
 
-public class FineServiceClient {
-    
+import com.library.transaction.dto.TransactionEventDTO;
+import com.library.transaction.dto.TransactionEventResultDTO;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+import java.util.List;
+
+@FeignClient(name = "fine-service")
+public interface FineServiceClient {
+
+    // Delivery is at least once, fine-service skips event IDs it has already applied and
+    // reports the events it could not apply instead of failing the batch
+    @PostMapping("/api/fines/events")
+    TransactionEventResultDTO publishTransactionEvents(@RequestBody List<TransactionEventDTO> events);
 }
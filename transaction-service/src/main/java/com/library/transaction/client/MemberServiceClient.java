@@ -6,11 +6,18 @@ import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 
 import com.library.transaction.dto.MemberDTO;
 
+import java.util.Collection;
+import java.util.List;
+
 @FeignClient(name = "member-service")
 public interface MemberServiceClient {
     @GetMapping("/api/members/{id}")
     ResponseEntity<MemberDTO> getMemberById(@PathVariable("id") Long memberId);
+
+    @GetMapping("/api/members")
+    List<MemberDTO> getMembersByIds(@RequestParam("ids") Collection<Long> memberIds);
 }
@@ -0,0 +1,37 @@
+package com.library.transaction.controller;
+
+import com.library.transaction.service.JobLockService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+// GET /actuator/jobs: lease holders and recent runs of the scheduled jobs, /actuator/jobs/{jobName} for one job
+@Component
+@Endpoint(id = "jobs")
+public class JobsEndpoint {
+
+    @Autowired
+    private JobLockService jobLockService;
+
+    @ReadOperation
+    public Map<String, Object> jobs() {
+        return Map.of(
+                "instance", jobLockService.getInstanceId(),
+                "locks", jobLockService.getLocks(),
+                "runs", jobLockService.getRecentRuns(null));
+    }
+
+    @ReadOperation
+    public Map<String, Object> job(@Selector String jobName) {
+        return Map.of(
+                "instance", jobLockService.getInstanceId(),
+                "locks", jobLockService.getLocks().stream()
+                        .filter(lock -> lock.getJobName().equals(jobName))
+                        .toList(),
+                "runs", jobLockService.getRecentRuns(jobName));
+    }
+}
@@ -1,15 +1,25 @@
 package com.library.transaction.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.transaction.dto.BasketBorrowDTO;
 import com.library.transaction.dto.BorrowingTransactionDTO;
 import com.library.transaction.dto.BorrowingTransactionResponseDTO;
+import com.library.transaction.dto.CursorPageDTO;
+import com.library.transaction.dto.IdRangeDTO;
+import com.library.transaction.dto.OverdueSweepResultDTO;
+import com.library.transaction.dto.OverdueTransactionDTO;
 import com.library.transaction.repository.BorrowingTransactionRepository;
 import com.library.transaction.service.TransactionService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
@@ -21,12 +31,60 @@ public class TransactionController {
     @Autowired
     private TransactionService transactionService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @GetMapping
     public ResponseEntity<List<BorrowingTransactionResponseDTO>> getAllTransactions() {
         List<BorrowingTransactionResponseDTO> transactions = transactionService.getAllTransactions();
         return ResponseEntity.ok(transactions);
     }
 
+    // Unknown IDs are skipped; a deleted book or member is returned as null, a failed lookup is an error
+    @GetMapping(params = "ids")
+    public ResponseEntity<List<BorrowingTransactionResponseDTO>> getTransactionsByIds(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(transactionService.getTransactionsByIds(ids));
+    }
+
+    @GetMapping("/page")
+    public ResponseEntity<CursorPageDTO<BorrowingTransactionResponseDTO>> getTransactionsPage(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(transactionService.getTransactionsPage(after, size));
+    }
+
+    @GetMapping("/overdue/feed")
+    public ResponseEntity<CursorPageDTO<OverdueTransactionDTO>> getOverdueFeed(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Long until,
+            @RequestParam(defaultValue = "500") int size) {
+        return ResponseEntity.ok(transactionService.getOverdueFeed(after, until, size));
+    }
+
+    @GetMapping("/overdue/range")
+    public ResponseEntity<IdRangeDTO> getOverdueIdRange() {
+        return ResponseEntity.ok(transactionService.getOverdueIdRange());
+    }
+
+    @GetMapping("/due")
+    public ResponseEntity<?> getDueTransactionsPage(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate afterDue,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "50") int size) {
+        if (from.isAfter(to)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "from must not be after to"));
+        }
+        return ResponseEntity.ok(transactionService.getDueTransactionsPage(from, to, afterDue, after, size));
+    }
+
+    @GetMapping(value = "/stream", produces = NdjsonWriter.CONTENT_TYPE)
+    public void streamAllTransactions(HttpServletResponse response) throws IOException {
+        response.setContentType(NdjsonWriter.CONTENT_TYPE);
+        transactionService.streamAllTransactions(new NdjsonWriter<>(objectMapper, response.getOutputStream()));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<BorrowingTransactionResponseDTO> getTransactionById(@PathVariable Long id) {
         return transactionService.getTransactionById(id)
@@ -64,6 +122,16 @@ public class TransactionController {
         }
     }
 
+    @PostMapping("/borrow/basket")
+    public ResponseEntity<?> borrowBasket(@Valid @RequestBody BasketBorrowDTO basketDTO) {
+        try {
+            List<BorrowingTransactionResponseDTO> borrowedTransactions = transactionService.borrowBasket(basketDTO);
+            return ResponseEntity.status(HttpStatus.CREATED).body(borrowedTransactions);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @PutMapping("/{id}/return")
     public ResponseEntity<?> returnBook(@PathVariable Long id) {
         try {
@@ -76,8 +144,7 @@ public class TransactionController {
     }
 
     @PostMapping("/update-overdue")
-    public ResponseEntity<Map<String, String>> updateOverdueTransactions() {
-        transactionService.updateOverdueTransactions();
-        return ResponseEntity.ok(Map.of("message", "Overdue transactions updated successfully"));
+    public ResponseEntity<OverdueSweepResultDTO> updateOverdueTransactions() {
+        return ResponseEntity.ok(transactionService.updateOverdueTransactions());
     }
 }
@@ -0,0 +1,26 @@
+package com.library.transaction.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+public class AvailabilityChangeDTO {
+    @NotNull(message = "Book ID is required")
+    private Long bookId;
+
+    @NotNull(message = "Change value is required")
+    private Integer change;
+
+    // Constructors
+    public AvailabilityChangeDTO() {}
+
+    public AvailabilityChangeDTO(Long bookId, Integer change) {
+        this.bookId = bookId;
+        this.change = change;
+    }
+
+    // Getters and Setters
+    public Long getBookId() { return bookId; }
+    public void setBookId(Long bookId) { this.bookId = bookId; }
+
+    public Integer getChange() { return change; }
+    public void setChange(Integer change) { this.change = change; }
+}
@@ -0,0 +1,35 @@
+package com.library.transaction.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import java.time.LocalDate;
+import java.util.List;
+
+public class BasketBorrowDTO {
+    @NotNull(message = "Member ID is required")
+    private Long memberId;
+
+    @NotEmpty(message = "At least one book ID is required")
+    private List<@NotNull Long> bookIds;
+
+    private LocalDate dueDate;
+
+    // Constructors
+    public BasketBorrowDTO() {}
+
+    public BasketBorrowDTO(Long memberId, List<Long> bookIds, LocalDate dueDate) {
+        this.memberId = memberId;
+        this.bookIds = bookIds;
+        this.dueDate = dueDate;
+    }
+
+    // Getters and Setters
+    public Long getMemberId() { return memberId; }
+    public void setMemberId(Long memberId) { this.memberId = memberId; }
+
+    public List<Long> getBookIds() { return bookIds; }
+    public void setBookIds(List<Long> bookIds) { this.bookIds = bookIds; }
+
+    public LocalDate getDueDate() { return dueDate; }
+    public void setDueDate(LocalDate dueDate) { this.dueDate = dueDate; }
+}
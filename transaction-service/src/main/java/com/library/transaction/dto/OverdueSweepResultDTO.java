@@ -0,0 +1,24 @@
+package com.library.transaction.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class OverdueSweepResultDTO {
+    private int updatedCount;
+    private List<Long> transactionIds = new ArrayList<>();
+
+    // Constructors
+    public OverdueSweepResultDTO() {}
+
+    public OverdueSweepResultDTO(int updatedCount, List<Long> transactionIds) {
+        this.updatedCount = updatedCount;
+        this.transactionIds = transactionIds;
+    }
+
+    // Getters and Setters
+    public int getUpdatedCount() { return updatedCount; }
+    public void setUpdatedCount(int updatedCount) { this.updatedCount = updatedCount; }
+
+    public List<Long> getTransactionIds() { return transactionIds; }
+    public void setTransactionIds(List<Long> transactionIds) { this.transactionIds = transactionIds; }
+}
@@ -0,0 +1,62 @@
+package com.library.transaction.repository;
+
+import com.library.transaction.entity.BorrowingTransaction;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+// Inserts a set of transactions as one JDBC batch instead of one persist per row
+@Repository
+public class BorrowingTransactionJdbcRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO borrowing_transactions " +
+            "(book_id, member_id, borrow_date, due_date, status, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Generated IDs are written back onto the given entities
+    public void insertAll(List<BorrowingTransaction> transactions) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_SQL, new String[] {"transaction_id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        BorrowingTransaction transaction = transactions.get(i);
+                        ps.setLong(1, transaction.getBookId());
+                        ps.setLong(2, transaction.getMemberId());
+                        ps.setDate(3, Date.valueOf(transaction.getBorrowDate()));
+                        ps.setDate(4, Date.valueOf(transaction.getDueDate()));
+                        ps.setString(5, transaction.getStatus().name());
+                        ps.setTimestamp(6, now);
+                        ps.setTimestamp(7, now);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return transactions.size();
+                    }
+                },
+                keyHolder);
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < transactions.size(); i++) {
+            transactions.get(i).setTransactionId(((Number) keys.get(i).values().iterator().next()).longValue());
+        }
+    }
+}
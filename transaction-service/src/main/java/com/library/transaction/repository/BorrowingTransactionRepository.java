@@ -1,13 +1,24 @@
 package com.library.transaction.repository;
 
+import com.library.transaction.dto.IdRangeDTO;
 import com.library.transaction.entity.BorrowingTransaction;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface BorrowingTransactionRepository extends JpaRepository<BorrowingTransaction, Long> {
@@ -25,4 +36,46 @@ public interface BorrowingTransactionRepository extends JpaRepository<BorrowingT
     
     @Query("SELECT t FROM BorrowingTransaction t WHERE t.memberId = :memberId AND t.status IN ('BORROWED', 'OVERDUE')")
     List<BorrowingTransaction> findActiveBorrowingsByMemberId(@Param("memberId") Long memberId);
+
+    // Locks the chunk so the IDs returned are exactly the rows markOverdue changes
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM BorrowingTransaction t WHERE t.dueDate < :currentDate AND t.status = 'BORROWED' " +
+            "ORDER BY t.transactionId")
+    List<BorrowingTransaction> lockOverdueChunk(@Param("currentDate") LocalDate currentDate, Limit limit);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE BorrowingTransaction t SET t.status = 'OVERDUE', t.updatedAt = :updatedAt " +
+            "WHERE t.transactionId IN :ids AND t.status = 'BORROWED'")
+    int markOverdue(@Param("ids") Collection<Long> ids, @Param("updatedAt") LocalDateTime updatedAt);
+
+    // Keyset on (due_date, transaction_id), the order of the (status, due_date) index, so a page reads
+    // only its own rows of the window
+    @Query("SELECT t FROM BorrowingTransaction t WHERE t.status = 'BORROWED' " +
+            "AND t.dueDate >= :afterDue AND t.dueDate <= :to " +
+            "AND (t.dueDate > :afterDue OR t.transactionId > :afterId) " +
+            "ORDER BY t.dueDate, t.transactionId")
+    List<BorrowingTransaction> findBorrowedDueBetween(@Param("afterDue") LocalDate afterDue,
+                                                      @Param("afterId") Long afterId,
+                                                      @Param("to") LocalDate to,
+                                                      Limit limit);
+
+    List<BorrowingTransaction> findByStatusAndTransactionIdGreaterThanOrderByTransactionIdAsc(
+            BorrowingTransaction.TransactionStatus status, Long transactionId, Limit limit);
+
+    List<BorrowingTransaction> findByStatusAndTransactionIdGreaterThanAndTransactionIdLessThanEqualOrderByTransactionIdAsc(
+            BorrowingTransaction.TransactionStatus status, Long after, Long until, Limit limit);
+
+    // Both ends come from the (status, transaction_id) index; nulls when nothing has the status
+    @Query("SELECT new com.library.transaction.dto.IdRangeDTO(MIN(t.transactionId), MAX(t.transactionId)) " +
+            "FROM BorrowingTransaction t WHERE t.status = :status")
+    IdRangeDTO findIdRangeByStatus(@Param("status") BorrowingTransaction.TransactionStatus status);
+
+    List<BorrowingTransaction> findByTransactionIdGreaterThanOrderByTransactionIdAsc(Long transactionId, Limit limit);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t FROM BorrowingTransaction t ORDER BY t.transactionId")
+    Stream<BorrowingTransaction> streamAll();
 }
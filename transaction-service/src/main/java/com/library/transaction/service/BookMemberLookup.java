@@ -0,0 +1,119 @@
+package com.library.transaction.service;
+
+import com.library.transaction.client.BookMemberNearCache;
+import com.library.transaction.dto.BookDTO;
+import com.library.transaction.dto.MemberDTO;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fetches the book and the member of a single transaction concurrently, so the
+ * caller waits for the slower of the two calls rather than their sum. Both calls
+ * share one deadline and the first failure cancels the other one.
+ */
+@Component
+public class BookMemberLookup {
+
+    @Autowired
+    private BookMemberNearCache nearCache;
+
+    private final long timeoutMs;
+
+    // Caps lookups in flight across all requests so a slow downstream cannot pile up unbounded work
+    private final Semaphore permits;
+
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("book-member-lookup-", 0).factory());
+
+    public BookMemberLookup(@Value("${transaction.lookup.timeout-ms:6000}") long timeoutMs,
+                            @Value("${transaction.lookup.max-concurrency:400}") int maxConcurrency) {
+        this.timeoutMs = timeoutMs;
+        this.permits = new Semaphore(maxConcurrency);
+    }
+
+    public Result fetch(Long bookId, Long memberId) {
+        return fetch(bookId, memberId, false);
+    }
+
+    // freshBook skips the near-cache for the book, for callers that act on its copy counts
+    public Result fetch(Long bookId, Long memberId, boolean freshBook) {
+        ExecutorCompletionService<Object> completion = new ExecutorCompletionService<>(executor);
+        Future<Object> book = completion.submit(bounded(() -> fetchBook(bookId, freshBook)));
+        Future<Object> member = completion.submit(bounded(() -> fetchMember(memberId)));
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        try {
+            for (int done = 0; done < 2; done++) {
+                Future<Object> next = completion.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (next == null) {
+                    throw new RuntimeException("Timed out fetching book " + bookId + " and member " + memberId);
+                }
+                next.get();
+            }
+            return new Result((BookDTO) book.get(), (MemberDTO) member.get());
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while fetching book and member details");
+        } finally {
+            // No-op for finished calls, interrupts the sibling after a failure or timeout
+            book.cancel(true);
+            member.cancel(true);
+        }
+    }
+
+    private BookDTO fetchBook(Long bookId, boolean fresh) {
+        return (fresh ? nearCache.refreshBook(bookId) : nearCache.getBook(bookId))
+                .orElseThrow(() -> new RuntimeException("Book not found with ID: " + bookId));
+    }
+
+    private MemberDTO fetchMember(Long memberId) {
+        return nearCache.getMember(memberId)
+                .orElseThrow(() -> new RuntimeException("Member not found with ID: " + memberId));
+    }
+
+    private Callable<Object> bounded(Callable<?> call) {
+        return () -> {
+            permits.acquire();
+            try {
+                return call.call();
+            } finally {
+                permits.release();
+            }
+        };
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public static class Result {
+        private final BookDTO book;
+        private final MemberDTO member;
+
+        public Result(BookDTO book, MemberDTO member) {
+            this.book = book;
+            this.member = member;
+        }
+
+        public BookDTO getBook() { return book; }
+        public MemberDTO getMember() { return member; }
+    }
+}
@@ -0,0 +1,185 @@
+package com.library.transaction.service;
+
+import com.library.transaction.client.FineServiceClient;
+import com.library.transaction.dto.TransactionEventDTO;
+import com.library.transaction.dto.TransactionEventResultDTO;
+import com.library.transaction.entity.OutboxEvent;
+import com.library.transaction.repository.OutboxEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Publishes the outbox to fine-service in event ID order. A batch is claimed in a
+ * short transaction and sent with no row locks held; the outcome is recorded in a
+ * second one. An event is only marked published once fine-service applied it, so
+ * delivery is at least once. An event fine-service rejects is retried on the next
+ * ticks and dead-lettered after the attempt ceiling, so it cannot hold back the
+ * events after it. When fine-service cannot be reached at all, the batch is released
+ * and retried on the next tick without counting an attempt. A relay that dies
+ * mid-send lets its claim expire and the batch is sent again.
+ */
+@Component
+public class OutboxRelay {
+
+    @Autowired
+    private OutboxEventRepository outboxRepository;
+
+    @Autowired
+    private FineServiceClient fineServiceClient;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JobLockService jobLockService;
+
+    private int batchSize = 100;
+
+    private int retentionDays = 7;
+
+    private int maxAttempts = 5;
+
+    private Duration claimTimeout = Duration.ofMinutes(1);
+
+    @Value("${transaction.outbox.batch-size:100}")
+    void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    @Value("${transaction.outbox.retention-days:7}")
+    void setRetentionDays(int retentionDays) {
+        this.retentionDays = retentionDays;
+    }
+
+    @Value("${transaction.outbox.max-attempts:5}")
+    void setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    // Longer than a send can take, including the Feign timeouts
+    @Value("${transaction.outbox.claim-timeout:PT1M}")
+    void setClaimTimeout(Duration claimTimeout) {
+        this.claimTimeout = claimTimeout;
+    }
+
+    // Returns the number of events published by this call
+    @Scheduled(fixedDelayString = "${transaction.outbox.relay-interval-ms:2000}")
+    public int relay() {
+        int published = 0;
+        Batch batch;
+        do {
+            batch = publishBatch();
+            published += batch.published();
+            // A rejected event is retried on the next tick, not again right away
+        } while (batch.claimed() == batchSize && batch.published() == batch.claimed());
+        return published;
+    }
+
+    @Scheduled(cron = "0 30 2 * * ?") // Every day at 2:30 AM
+    public int purgePublished() {
+        Integer deleted = new TransactionTemplate(transactionManager).execute(status ->
+                outboxRepository.deletePublishedBefore(LocalDateTime.now().minusDays(retentionDays)));
+        return deleted != null ? deleted : 0;
+    }
+
+    private Batch publishBatch() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        List<OutboxEvent> events = transaction.execute(status -> claim());
+        if (events == null || events.isEmpty()) {
+            return new Batch(0, 0);
+        }
+        List<Long> eventIds = events.stream().map(OutboxEvent::getEventId).collect(Collectors.toList());
+
+        TransactionEventResultDTO result;
+        try {
+            result = fineServiceClient.publishTransactionEvents(events.stream()
+                    .map(this::toDTO)
+                    .collect(Collectors.toList()));
+        } catch (Exception e) {
+            transaction.executeWithoutResult(status -> release(eventIds, e.getMessage()));
+            System.out.println("⚠️ Unable to publish " + events.size() + " transaction events: " + e.getMessage());
+            return new Batch(events.size(), 0);
+        }
+        Map<Long, String> failures = result != null && result.getFailures() != null ? result.getFailures() : Map.of();
+        Integer published = transaction.execute(status -> record(eventIds, failures));
+        return new Batch(events.size(), published != null ? published : 0);
+    }
+
+    private List<OutboxEvent> claim() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> events = outboxRepository.lockUnpublished(Limit.of(batchSize));
+        // Another relay is still sending the oldest events; claiming past them would reorder delivery
+        if (events.stream().anyMatch(event -> event.getClaimedUntil() != null && event.getClaimedUntil().isAfter(now))) {
+            return List.of();
+        }
+        events.forEach(event -> {
+            event.setClaimedBy(jobLockService.getInstanceId());
+            event.setClaimedUntil(now.plus(claimTimeout));
+        });
+        return events;
+    }
+
+    private int record(List<Long> eventIds, Map<Long, String> failures) {
+        LocalDateTime now = LocalDateTime.now();
+        int published = 0;
+        for (OutboxEvent event : claimedByThisRelay(eventIds)) {
+            String error = failures.get(event.getEventId());
+            if (error == null) {
+                event.setPublishedAt(now);
+                event.setLastError(null);
+                published++;
+                continue;
+            }
+            event.setAttempts(event.getAttempts() + 1);
+            event.setLastError(truncate(error));
+            if (event.getAttempts() >= maxAttempts) {
+                event.setFailedAt(now);
+                System.out.println("❌ Dead-lettered transaction event " + event.getEventId() + " after "
+                        + event.getAttempts() + " attempts: " + error);
+            }
+        }
+        return published;
+    }
+
+    // fine-service was not reached, the events go out again on the next tick
+    private void release(List<Long> eventIds, String error) {
+        for (OutboxEvent event : claimedByThisRelay(eventIds)) {
+            event.setLastError(truncate(error));
+        }
+    }
+
+    // Clears this relay's claim; an event whose claim expired and was taken over is left to the new owner
+    private List<OutboxEvent> claimedByThisRelay(List<Long> eventIds) {
+        List<OutboxEvent> events = outboxRepository.findAllById(eventIds).stream()
+                .filter(event -> jobLockService.getInstanceId().equals(event.getClaimedBy()))
+                .collect(Collectors.toList());
+        events.forEach(event -> {
+            event.setClaimedBy(null);
+            event.setClaimedUntil(null);
+        });
+        return events;
+    }
+
+    private static String truncate(String error) {
+        return error != null && error.length() > 500 ? error.substring(0, 500) : error;
+    }
+
+    private TransactionEventDTO toDTO(OutboxEvent event) {
+        return new TransactionEventDTO(event.getEventId(), event.getEventType().name(), event.getTransactionId(),
+                event.getMemberId(), event.getBookId(), event.getDueDate(), event.getReturnDate(),
+                event.getOccurredAt());
+    }
+
+    private record Batch(int claimed, int published) {}
+}
@@ -0,0 +1,91 @@
+package com.library.transaction.service;
+
+import com.library.transaction.client.BookMemberNearCache;
+import com.library.transaction.dto.BookDTO;
+import com.library.transaction.dto.BorrowingTransactionResponseDTO;
+import com.library.transaction.dto.MemberDTO;
+import com.library.transaction.entity.BorrowingTransaction;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Attaches book and member details to a batch of transactions. Each distinct
+ * book and member ID is resolved once, from the near-cache or through the bulk
+ * lookup endpoints, so a listing costs a fixed number of remote calls instead of
+ * two per row.
+ */
+@Component
+public class TransactionEnricher {
+
+    @Autowired
+    private BookMemberNearCache nearCache;
+
+    // Upper bound on IDs per bulk request, keeps the query string well below URL limits
+    @Value("${transaction.enrichment.batch-size:200}")
+    private int batchSize = 200;
+
+    public List<BorrowingTransactionResponseDTO> enrich(List<BorrowingTransaction> transactions) {
+        return enrich(transactions, true);
+    }
+
+    // A book or member that no longer exists is left null instead of failing the batch;
+    // a lookup that fails still throws, so callers can tell the two apart
+    public List<BorrowingTransactionResponseDTO> enrichAllowingMissing(List<BorrowingTransaction> transactions) {
+        return enrich(transactions, false);
+    }
+
+    private List<BorrowingTransactionResponseDTO> enrich(List<BorrowingTransaction> transactions, boolean required) {
+        if (transactions.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Set<Long> bookIds = transactions.stream()
+                .map(BorrowingTransaction::getBookId)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        Set<Long> memberIds = transactions.stream()
+                .map(BorrowingTransaction::getMemberId)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+
+        Map<Long, BookDTO> books = fetchInBatches(bookIds, nearCache::getBooks, BookDTO::getBookId);
+        Map<Long, MemberDTO> members = fetchInBatches(memberIds, nearCache::getMembers, MemberDTO::getMemberId);
+
+        List<BorrowingTransactionResponseDTO> result = new ArrayList<>(transactions.size());
+        for (BorrowingTransaction transaction : transactions) {
+            BookDTO book = books.get(transaction.getBookId());
+            if (book == null && required) {
+                throw new RuntimeException("Book not found with ID: " + transaction.getBookId());
+            }
+            MemberDTO member = members.get(transaction.getMemberId());
+            if (member == null && required) {
+                throw new RuntimeException("Member not found with ID: " + transaction.getMemberId());
+            }
+            result.add(new BorrowingTransactionResponseDTO(transaction, book, member));
+        }
+        return result;
+    }
+
+    private <T> Map<Long, T> fetchInBatches(Set<Long> ids, Function<List<Long>, List<T>> loader,
+            Function<T, Long> idOf) {
+        Map<Long, T> byId = new HashMap<>();
+        List<Long> all = new ArrayList<>(ids);
+        for (int from = 0; from < all.size(); from += batchSize) {
+            List<Long> chunk = all.subList(from, Math.min(from + batchSize, all.size()));
+            List<T> loaded = loader.apply(chunk);
+            if (loaded != null) {
+                loaded.forEach(item -> byId.put(idOf.apply(item), item));
+            }
+        }
+        return byId;
+    }
+}
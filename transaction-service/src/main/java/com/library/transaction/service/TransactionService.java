@@ -3,205 +3,225 @@ package com.library.transaction.service;
 import com.library.transaction.client.*;
 import com.library.transaction.dto.*;
 import com.library.transaction.entity.BorrowingTransaction;
+import com.library.transaction.entity.OutboxEvent;
+import com.library.transaction.repository.BorrowingTransactionJdbcRepository;
 import com.library.transaction.repository.BorrowingTransactionRepository;
+import com.library.transaction.repository.OutboxEventRepository;
 
-import feign.FeignException;
-
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.ResponseEntity;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
 public class TransactionService {
 
+    private static final int MAX_PAGE_SIZE = 500;
+
+    private static final int MAX_ACTIVE_BORROWINGS = 5;
+
+    // Rows are enriched in chunks of this size while streaming
+    private static final int STREAM_CHUNK_SIZE = 500;
+
+    static final String OVERDUE_SWEEP_JOB = "overdue-sweep";
+
     @Autowired
     private BorrowingTransactionRepository transactionRepository;
 
+    @Autowired
+    private BorrowingTransactionJdbcRepository transactionJdbcRepository;
+
     @Autowired
     private BookServiceClient bookServiceClient;
 
     @Autowired
-    private MemberServiceClient memberServiceClient;
+    private TransactionEnricher transactionEnricher;
 
-    public List<BorrowingTransactionResponseDTO> getAllTransactions() {
-        return transactionRepository.findAll().stream()
-                .map(transaction -> {
-                    BorrowingTransactionResponseDTO responseDTO = mapToResponseDTO(transaction);
+    @Autowired
+    private BookMemberLookup bookMemberLookup;
 
-                    // Fetch Book
-                    try {
-                        ResponseEntity<BookDTO> bookResponse = bookServiceClient.getBookById(transaction.getBookId());
-                        responseDTO.setBook(bookResponse.getBody());
-                    } catch (FeignException.NotFound e) {
-                        throw new RuntimeException("Book not found for ID: " + transaction.getBookId());
-                    }
+    @Autowired
+    private BookMemberNearCache nearCache;
 
-                    // Fetch Member
-                    try {
-                        ResponseEntity<MemberDTO> memberResponse = memberServiceClient
-                                .getMemberById(transaction.getMemberId());
-                        responseDTO.setMember(memberResponse.getBody());
-                    } catch (FeignException.NotFound e) {
-                        throw new RuntimeException("Member not found for ID: " + transaction.getMemberId());
-                    }
+    @Autowired
+    private PlatformTransactionManager transactionManager;
 
-                    return responseDTO;
-                })
-                .collect(Collectors.toList());
-    }
+    @Autowired
+    private JobLockService jobLockService;
 
-    public Optional<BorrowingTransactionResponseDTO> getTransactionById(Long id) {
-        return transactionRepository.findById(id)
-                .map(transaction -> {
-                    BorrowingTransactionResponseDTO responseDTO = mapToResponseDTO(transaction);
+    @Autowired
+    private OutboxEventRepository outboxRepository;
 
-                    // Fetch Book
-                    try {
-                        ResponseEntity<BookDTO> bookResponse = bookServiceClient.getBookById(transaction.getBookId());
-                        responseDTO.setBook(bookResponse.getBody());
-                    } catch (FeignException.NotFound e) {
-                        throw new RuntimeException("Book not found with ID: " + transaction.getBookId());
-                    }
+    @PersistenceContext
+    private EntityManager entityManager;
 
-                    // Fetch Member
-                    try {
-                        ResponseEntity<MemberDTO> memberResponse = memberServiceClient
-                                .getMemberById(transaction.getMemberId());
-                        responseDTO.setMember(memberResponse.getBody());
-                    } catch (FeignException.NotFound e) {
-                        throw new RuntimeException("Member not found with ID: " + transaction.getMemberId());
-                    }
+    private int overdueSweepChunkSize;
 
-                    return responseDTO;
-                });
+    // Rows marked overdue per transaction, keeps row locks and undo log short
+    @Value("${transaction.overdue-sweep.chunk-size:1000}")
+    void setOverdueSweepChunkSize(int overdueSweepChunkSize) {
+        this.overdueSweepChunkSize = overdueSweepChunkSize;
     }
 
-    public List<BorrowingTransactionResponseDTO> getTransactionsByMemberId(Long memberId) {
-        return transactionRepository.findByMemberId(memberId).stream()
-                .map(transaction -> {
-                    BorrowingTransactionResponseDTO responseDTO = mapToResponseDTO(transaction);
+    public List<BorrowingTransactionResponseDTO> getAllTransactions() {
+        return transactionEnricher.enrich(transactionRepository.findAll());
+    }
 
-                    // Fetch Book
-                    try {
-                        ResponseEntity<BookDTO> bookResponse = bookServiceClient.getBookById(transaction.getBookId());
-                        responseDTO.setBook(bookResponse.getBody());
-                    } catch (FeignException.NotFound e) {
-                        throw new RuntimeException("Book not found with ID: " + transaction.getBookId());
-                    }
+    public List<BorrowingTransactionResponseDTO> getTransactionsByIds(Collection<Long> ids) {
+        return transactionEnricher.enrichAllowingMissing(transactionRepository.findAllById(ids));
+    }
 
-                    // Fetch Member (you already know memberId, but still include the full object)
-                    try {
-                        ResponseEntity<MemberDTO> memberResponse = memberServiceClient
-                                .getMemberById(transaction.getMemberId());
-                        responseDTO.setMember(memberResponse.getBody());
-                    } catch (FeignException.NotFound e) {
-                        throw new RuntimeException("Member not found with ID: " + transaction.getMemberId());
-                    }
+    @Transactional(readOnly = true)
+    public CursorPageDTO<BorrowingTransactionResponseDTO> getTransactionsPage(Long after, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // Fetch one extra row to learn whether another page exists
+        List<BorrowingTransaction> rows = transactionRepository.findByTransactionIdGreaterThanOrderByTransactionIdAsc(
+                after == null ? 0L : after, Limit.of(pageSize + 1));
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows = rows.subList(0, pageSize);
+        }
+        Long nextCursor = hasMore ? rows.get(rows.size() - 1).getTransactionId() : null;
+        return new CursorPageDTO<>(transactionEnricher.enrich(rows), nextCursor, hasMore);
+    }
 
-                    return responseDTO;
-                })
-                .collect(Collectors.toList());
+    // Raw IDs and due dates only, no book/member enrichment, for the nightly fine job
+    @Transactional(readOnly = true)
+    public CursorPageDTO<OverdueTransactionDTO> getOverdueFeed(Long after, int size) {
+        return getOverdueFeed(after, null, size);
     }
 
-    public List<BorrowingTransactionResponseDTO> getTransactionsByBookId(Long bookId) {
-        return transactionRepository.findByBookId(bookId).stream()
-                .map(transaction -> {
-                    BorrowingTransactionResponseDTO responseDTO = mapToResponseDTO(transaction);
+    // until caps the IDs at an inclusive upper bound, so the fine job can walk ID ranges in parallel
+    @Transactional(readOnly = true)
+    public CursorPageDTO<OverdueTransactionDTO> getOverdueFeed(Long after, Long until, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        Long from = after == null ? 0L : after;
+        List<BorrowingTransaction> rows = until == null
+                ? transactionRepository.findByStatusAndTransactionIdGreaterThanOrderByTransactionIdAsc(
+                        BorrowingTransaction.TransactionStatus.OVERDUE, from, Limit.of(pageSize + 1))
+                : transactionRepository.findByStatusAndTransactionIdGreaterThanAndTransactionIdLessThanEqualOrderByTransactionIdAsc(
+                        BorrowingTransaction.TransactionStatus.OVERDUE, from, until, Limit.of(pageSize + 1));
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows = rows.subList(0, pageSize);
+        }
+        Long nextCursor = hasMore ? rows.get(rows.size() - 1).getTransactionId() : null;
+        List<OverdueTransactionDTO> items = rows.stream()
+                .map(transaction -> new OverdueTransactionDTO(transaction.getTransactionId(), transaction.getBookId(),
+                        transaction.getMemberId(), transaction.getDueDate()))
+                .collect(Collectors.toList());
+        return new CursorPageDTO<>(items, nextCursor, hasMore);
+    }
 
-                    // ✅ Fetch Book
-                    try {
-                        ResponseEntity<BookDTO> bookResponse = bookServiceClient.getBookById(transaction.getBookId());
-                        responseDTO.setBook(bookResponse.getBody());
-                    } catch (FeignException.NotFound e) {
-                        throw new RuntimeException("Book not found with ID: " + transaction.getBookId());
-                    }
+    // BORROWED transactions due between from and to (inclusive), ordered by due date then ID.
+    // The next page starts after the due date and ID of the last item; only the page is enriched.
+    @Transactional(readOnly = true)
+    public CursorPageDTO<BorrowingTransactionResponseDTO> getDueTransactionsPage(LocalDate from, LocalDate to,
+                                                                                LocalDate afterDue, Long after,
+                                                                                int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        boolean firstPage = afterDue == null || after == null || afterDue.isBefore(from);
+        List<BorrowingTransaction> rows = transactionRepository.findBorrowedDueBetween(
+                firstPage ? from : afterDue, firstPage ? 0L : after, to, Limit.of(pageSize + 1));
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows = rows.subList(0, pageSize);
+        }
+        Long nextCursor = hasMore ? rows.get(rows.size() - 1).getTransactionId() : null;
+        return new CursorPageDTO<>(transactionEnricher.enrich(rows), nextCursor, hasMore);
+    }
 
-                    // ✅ Fetch Member
-                    try {
-                        ResponseEntity<MemberDTO> memberResponse = memberServiceClient
-                                .getMemberById(transaction.getMemberId());
-                        responseDTO.setMember(memberResponse.getBody());
-                    } catch (FeignException.NotFound e) {
-                        throw new RuntimeException("Member not found with ID: " + transaction.getMemberId());
-                    }
+    @Transactional(readOnly = true)
+    public IdRangeDTO getOverdueIdRange() {
+        return transactionRepository.findIdRangeByStatus(BorrowingTransaction.TransactionStatus.OVERDUE);
+    }
 
-                    return responseDTO;
-                })
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public void streamAllTransactions(Consumer<BorrowingTransactionResponseDTO> sink) {
+        List<BorrowingTransaction> chunk = new ArrayList<>(STREAM_CHUNK_SIZE);
+        try (Stream<BorrowingTransaction> transactions = transactionRepository.streamAll()) {
+            transactions.forEach(transaction -> {
+                chunk.add(transaction);
+                if (chunk.size() == STREAM_CHUNK_SIZE) {
+                    flushChunk(chunk, sink);
+                }
+            });
+        }
+        flushChunk(chunk, sink);
     }
 
-    public List<BorrowingTransactionResponseDTO> getOverdueTransactions() {
-        LocalDate today = LocalDate.now();
+    private void flushChunk(List<BorrowingTransaction> chunk, Consumer<BorrowingTransactionResponseDTO> sink) {
+        transactionEnricher.enrich(chunk).forEach(sink);
+        // Keep the persistence context from growing with the result set
+        chunk.forEach(entityManager::detach);
+        chunk.clear();
+    }
 
-        return transactionRepository.findOverdueTransactions(today).stream()
+    public Optional<BorrowingTransactionResponseDTO> getTransactionById(Long id) {
+        return transactionRepository.findById(id)
                 .map(transaction -> {
                     BorrowingTransactionResponseDTO responseDTO = mapToResponseDTO(transaction);
 
-                    // ✅ Fetch Book
-                    try {
-                        ResponseEntity<BookDTO> bookResponse = bookServiceClient.getBookById(transaction.getBookId());
-                        responseDTO.setBook(bookResponse.getBody());
-                    } catch (FeignException.NotFound e) {
-                        throw new RuntimeException("Book not found with ID: " + transaction.getBookId());
-                    }
-
-                    // ✅ Fetch Member
-                    try {
-                        ResponseEntity<MemberDTO> memberResponse = memberServiceClient
-                                .getMemberById(transaction.getMemberId());
-                        responseDTO.setMember(memberResponse.getBody());
-                    } catch (FeignException.NotFound e) {
-                        throw new RuntimeException("Member not found with ID: " + transaction.getMemberId());
-                    }
+                    // Fetch Book and Member concurrently
+                    BookMemberLookup.Result details = bookMemberLookup.fetch(
+                            transaction.getBookId(), transaction.getMemberId());
+                    responseDTO.setBook(details.getBook());
+                    responseDTO.setMember(details.getMember());
 
                     return responseDTO;
-                })
-                .collect(Collectors.toList());
+                });
+    }
+
+    public List<BorrowingTransactionResponseDTO> getTransactionsByMemberId(Long memberId) {
+        return transactionEnricher.enrich(transactionRepository.findByMemberId(memberId));
+    }
+
+    public List<BorrowingTransactionResponseDTO> getTransactionsByBookId(Long bookId) {
+        return transactionEnricher.enrich(transactionRepository.findByBookId(bookId));
+    }
+
+    public List<BorrowingTransactionResponseDTO> getOverdueTransactions() {
+        LocalDate today = LocalDate.now();
+        return transactionEnricher.enrich(transactionRepository.findOverdueTransactions(today));
     }
 
     public BorrowingTransactionResponseDTO borrowBook(BorrowingTransactionDTO transactionDTO) {
         // ✅ Validate Member borrowing limit
         long activeBorrowings = transactionRepository.countByMemberIdAndStatus(
                 transactionDTO.getMemberId(), BorrowingTransaction.TransactionStatus.BORROWED);
-        if (activeBorrowings >= 5) {
+        if (activeBorrowings >= MAX_ACTIVE_BORROWINGS) {
             throw new RuntimeException("Member has reached maximum borrowing limit.");
         }
 
-        // ✅ Fetch Book by ID
-        BookDTO book;
-        try {
-            ResponseEntity<BookDTO> bookResponse = bookServiceClient.getBookById(transactionDTO.getBookId());
-            book = bookResponse.getBody();
-            if (book == null) {
-                throw new RuntimeException("Book not found with ID: " + transactionDTO.getBookId());
-            }
-            if (book.getAvailableCopies() == 0) {
-                throw new RuntimeException("No available copies for Book ID: " + transactionDTO.getBookId());
-            }
-        } catch (FeignException.NotFound e) {
-            throw new RuntimeException("Book not found with ID: " + transactionDTO.getBookId());
-        }
-
-        // ✅ Fetch Member by ID
-        MemberDTO member;
-        try {
-            ResponseEntity<MemberDTO> memberResponse = memberServiceClient.getMemberById(transactionDTO.getMemberId());
-            member = memberResponse.getBody();
-            if (member == null) {
-                throw new RuntimeException("Member not found with ID: " + transactionDTO.getMemberId());
-            }
-        } catch (FeignException.NotFound e) {
-            throw new RuntimeException("Member not found with ID: " + transactionDTO.getMemberId());
+        // ✅ Fetch Book and Member concurrently
+        BookMemberLookup.Result details = bookMemberLookup.fetch(
+                transactionDTO.getBookId(), transactionDTO.getMemberId(), true);
+        BookDTO book = details.getBook();
+        MemberDTO member = details.getMember();
+        if (book.getAvailableCopies() == 0) {
+            throw new RuntimeException("No available copies for Book ID: " + transactionDTO.getBookId());
         }
 
         // ✅ Update book availability
@@ -210,6 +230,7 @@ public class TransactionService {
         } catch (Exception e) {
             throw new RuntimeException("Unable to update book availability: " + e.getMessage());
         }
+        nearCache.evictBooks(List.of(transactionDTO.getBookId()));
 
         // ✅ Save Transaction
         BorrowingTransaction transaction = convertToEntity(transactionDTO);
@@ -222,6 +243,92 @@ public class TransactionService {
         return new BorrowingTransactionResponseDTO(savedTransaction, book, member);
     }
 
+    public List<BorrowingTransactionResponseDTO> borrowBasket(BasketBorrowDTO basketDTO) {
+        List<Long> bookIds = basketDTO.getBookIds();
+        Set<Long> distinctBookIds = new HashSet<>(bookIds);
+        if (distinctBookIds.size() != bookIds.size()) {
+            throw new RuntimeException("A book can only appear once per basket.");
+        }
+
+        // ✅ Validate Member borrowing limit once for the whole basket
+        long activeBorrowings = transactionRepository.countByMemberIdAndStatus(
+                basketDTO.getMemberId(), BorrowingTransaction.TransactionStatus.BORROWED);
+        if (activeBorrowings + bookIds.size() > MAX_ACTIVE_BORROWINGS) {
+            throw new RuntimeException("Member has reached maximum borrowing limit.");
+        }
+
+        // ✅ Fetch Member by ID
+        MemberDTO member = nearCache.getMember(basketDTO.getMemberId())
+                .orElseThrow(() -> new RuntimeException("Member not found with ID: " + basketDTO.getMemberId()));
+
+        // ✅ Fetch all Books in one call, straight from book-service since copy counts matter here
+        Map<Long, BookDTO> books = bookServiceClient.getBooksByIds(bookIds).stream()
+                .collect(Collectors.toMap(BookDTO::getBookId, Function.identity()));
+        for (Long bookId : bookIds) {
+            BookDTO book = books.get(bookId);
+            if (book == null) {
+                throw new RuntimeException("Book not found with ID: " + bookId);
+            }
+            if (book.getAvailableCopies() == 0) {
+                throw new RuntimeException("No available copies for Book ID: " + bookId);
+            }
+        }
+
+        // ✅ Reserve every copy in one call, book-service rolls the whole batch back if any item fails
+        List<AvailabilityChangeDTO> reservations = bookIds.stream()
+                .map(bookId -> new AvailabilityChangeDTO(bookId, -1))
+                .collect(Collectors.toList());
+        List<AvailabilityChangeResultDTO> results;
+        try {
+            results = bookServiceClient.updateBookAvailabilityBatch(reservations, true);
+        } catch (Exception e) {
+            throw new RuntimeException("Unable to update book availability: " + e.getMessage());
+        }
+        String failures = results.stream()
+                .filter(result -> !result.isSuccess())
+                .map(result -> result.getBookId() + " (" + result.getError() + ")")
+                .collect(Collectors.joining(", "));
+        if (!failures.isEmpty()) {
+            throw new RuntimeException("Unable to update book availability: " + failures);
+        }
+        nearCache.evictBooks(bookIds);
+
+        // ✅ Save all Transactions as one batch
+        LocalDate today = LocalDate.now();
+        LocalDate dueDate = basketDTO.getDueDate() != null ? basketDTO.getDueDate() : today.plusDays(14);
+        List<BorrowingTransaction> transactions = new ArrayList<>(bookIds.size());
+        for (Long bookId : bookIds) {
+            BorrowingTransaction transaction = new BorrowingTransaction(bookId, basketDTO.getMemberId(), today, dueDate);
+            transaction.setStatus(BorrowingTransaction.TransactionStatus.BORROWED);
+            transactions.add(transaction);
+        }
+        try {
+            transactionJdbcRepository.insertAll(transactions);
+        } catch (RuntimeException e) {
+            releaseReservations(bookIds);
+            throw e;
+        }
+
+        // ✅ Return combined responses
+        List<BorrowingTransactionResponseDTO> responses = new ArrayList<>(transactions.size());
+        for (BorrowingTransaction transaction : transactions) {
+            responses.add(new BorrowingTransactionResponseDTO(transaction, books.get(transaction.getBookId()), member));
+        }
+        return responses;
+    }
+
+    // Gives reserved copies back when the basket could not be recorded
+    private void releaseReservations(List<Long> bookIds) {
+        List<AvailabilityChangeDTO> releases = bookIds.stream()
+                .map(bookId -> new AvailabilityChangeDTO(bookId, 1))
+                .collect(Collectors.toList());
+        try {
+            bookServiceClient.updateBookAvailabilityBatch(releases, false);
+        } catch (Exception e) {
+            System.out.println("⚠️ Unable to release reserved copies for books " + bookIds + ": " + e.getMessage());
+        }
+    }
+
     public Optional<BorrowingTransactionResponseDTO> returnBook(Long transactionId) {
         return transactionRepository.findById(transactionId)
                 .map(transaction -> {
@@ -243,45 +350,65 @@ public class TransactionService {
                     transaction.setStatus(BorrowingTransaction.TransactionStatus.RETURNED);
 
                     BorrowingTransaction updatedTransaction = transactionRepository.save(transaction);
+                    outboxRepository.save(new OutboxEvent(OutboxEvent.EventType.TRANSACTION_RETURNED, updatedTransaction));
 
                     // ✅ Prepare response DTO
                     BorrowingTransactionResponseDTO responseDTO = mapToResponseDTO(transaction);
 
-                    // ✅ Fetch and attach book
-                    try {
-                        ResponseEntity<BookDTO> bookResponse = bookServiceClient
-                                .getBookById(updatedTransaction.getBookId());
-                        responseDTO.setBook(bookResponse.getBody());
-                    } catch (FeignException.NotFound e) {
-                        throw new RuntimeException("Book not found with ID: " + updatedTransaction.getBookId());
-                    }
-
-                    // ✅ Fetch and attach member
-                    try {
-                        ResponseEntity<MemberDTO> memberResponse = memberServiceClient
-                                .getMemberById(updatedTransaction.getMemberId());
-                        responseDTO.setMember(memberResponse.getBody());
-                    } catch (FeignException.NotFound e) {
-                        throw new RuntimeException("Member not found with ID: " + updatedTransaction.getMemberId());
-                    }
+                    // ✅ Fetch and attach book and member concurrently
+                    BookMemberLookup.Result details = bookMemberLookup.fetch(
+                            updatedTransaction.getBookId(), updatedTransaction.getMemberId(), true);
+                    responseDTO.setBook(details.getBook());
+                    responseDTO.setMember(details.getMember());
 
                     return responseDTO;
                 });
     }
 
     @Scheduled(cron = "0 0 1 * * ?") // Every day at 1:00 AM
-    public void updateOverdueTransactions() {
-        LocalDate today = LocalDate.now();
-        List<BorrowingTransaction> overdueTransactions = transactionRepository.findOverdueTransactions(today);
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void scheduledOverdueSweep() {
+        // With several replicas only the one holding the lease sweeps
+        jobLockService.runExclusively(OVERDUE_SWEEP_JOB, LocalDate.now().toString(),
+                () -> updateOverdueTransactions().getUpdatedCount());
+    }
 
-        for (BorrowingTransaction transaction : overdueTransactions) {
-            if (transaction.getStatus() == BorrowingTransaction.TransactionStatus.BORROWED) {
-                transaction.setStatus(BorrowingTransaction.TransactionStatus.OVERDUE);
-                transactionRepository.save(transaction);
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public OverdueSweepResultDTO updateOverdueTransactions() {
+        LocalDate today = LocalDate.now();
+        TransactionTemplate chunkTransaction = new TransactionTemplate(transactionManager);
+        List<Long> updatedIds = new ArrayList<>();
+        int updatedCount = 0;
+
+        // Each chunk commits on its own; marked rows drop out of the WHERE clause, so no cursor is needed
+        while (true) {
+            List<Long> chunkIds = chunkTransaction.execute(status -> {
+                List<BorrowingTransaction> chunk =
+                        transactionRepository.lockOverdueChunk(today, Limit.of(overdueSweepChunkSize));
+                List<Long> ids = chunk.stream()
+                        .map(BorrowingTransaction::getTransactionId)
+                        .collect(Collectors.toList());
+                if (!ids.isEmpty()) {
+                    transactionRepository.markOverdue(ids, LocalDateTime.now());
+                    // Committed with the status change, the relay tells fine-service
+                    outboxRepository.saveAll(chunk.stream()
+                            .map(transaction -> new OutboxEvent(OutboxEvent.EventType.TRANSACTION_OVERDUE, transaction))
+                            .collect(Collectors.toList()));
+                }
+                return ids;
+            });
+            if (chunkIds == null || chunkIds.isEmpty()) {
+                break;
+            }
+            updatedIds.addAll(chunkIds);
+            updatedCount += chunkIds.size();
+            if (chunkIds.size() < overdueSweepChunkSize) {
+                break;
             }
         }
 
-        System.out.println("✅ Overdue transactions updated at: " + LocalDateTime.now());
+        System.out.println("✅ " + updatedCount + " overdue transactions updated at: " + LocalDateTime.now());
+        return new OverdueSweepResultDTO(updatedCount, updatedIds);
     }
 
     private BorrowingTransactionResponseDTO mapToResponseDTO(BorrowingTransaction transaction) {
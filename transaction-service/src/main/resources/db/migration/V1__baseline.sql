@@ -0,0 +1,15 @@
+-- Schema as Hibernate created it before migrations were introduced.
+-- Existing databases are baselined at this version and skip it.
+
+CREATE TABLE IF NOT EXISTS borrowing_transactions (
+    transaction_id BIGINT NOT NULL AUTO_INCREMENT,
+    book_id BIGINT NOT NULL,
+    member_id BIGINT NOT NULL,
+    borrow_date DATE NOT NULL,
+    due_date DATE NOT NULL,
+    return_date DATE,
+    status VARCHAR(20),
+    created_at DATETIME(6),
+    updated_at DATETIME(6),
+    PRIMARY KEY (transaction_id)
+);
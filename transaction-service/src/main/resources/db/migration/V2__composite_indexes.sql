@@ -0,0 +1,10 @@
+-- Serves the overdue feed: status filter plus keyset order by ID
+CREATE INDEX idx_borrowing_transactions_status_id ON borrowing_transactions (status, transaction_id);
+
+-- Borrow limit check and active borrowings of one member, also covers findByMemberId through its prefix
+CREATE INDEX idx_borrowing_transactions_member_status ON borrowing_transactions (member_id, status);
+
+-- Overdue sweep: equality on status, range on due_date
+CREATE INDEX idx_borrowing_transactions_status_due ON borrowing_transactions (status, due_date);
+
+CREATE INDEX idx_borrowing_transactions_book ON borrowing_transactions (book_id);
@@ -0,0 +1,23 @@
+-- Lease per scheduled job, so only one instance of the service runs it at a time
+CREATE TABLE job_locks (
+    job_name VARCHAR(100) NOT NULL,
+    locked_by VARCHAR(255),
+    locked_at DATETIME(6),
+    locked_until DATETIME(6) NOT NULL,
+    PRIMARY KEY (job_name)
+);
+
+-- Run history, read by the jobs actuator endpoint
+CREATE TABLE job_runs (
+    run_id BIGINT NOT NULL AUTO_INCREMENT,
+    job_name VARCHAR(100) NOT NULL,
+    instance_id VARCHAR(255) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    started_at DATETIME(6) NOT NULL,
+    finished_at DATETIME(6),
+    processed INT,
+    error VARCHAR(500),
+    PRIMARY KEY (run_id)
+);
+
+CREATE INDEX idx_job_runs_job_run ON job_runs (job_name, run_id);
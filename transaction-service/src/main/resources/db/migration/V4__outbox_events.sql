@@ -0,0 +1,18 @@
+-- Transactional outbox of status changes for fine-service
+CREATE TABLE outbox_events (
+    event_id BIGINT NOT NULL AUTO_INCREMENT,
+    event_type VARCHAR(30) NOT NULL,
+    transaction_id BIGINT NOT NULL,
+    member_id BIGINT NOT NULL,
+    book_id BIGINT NOT NULL,
+    due_date DATE NOT NULL,
+    return_date DATE,
+    occurred_at DATETIME(6) NOT NULL,
+    published_at DATETIME(6),
+    attempts INT NOT NULL,
+    last_error VARCHAR(500),
+    PRIMARY KEY (event_id)
+);
+
+-- Serves the relay (unpublished, oldest first) and the purge of published events
+CREATE INDEX idx_outbox_events_published_id ON outbox_events (published_at, event_id);
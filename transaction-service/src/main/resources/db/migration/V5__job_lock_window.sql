@@ -0,0 +1,3 @@
+-- Window (the date of a nightly run) the job last completed for; a replica whose trigger
+-- fires after the leader finished sees it and does not run the job a second time
+ALTER TABLE job_locks ADD COLUMN completed_window VARCHAR(50);
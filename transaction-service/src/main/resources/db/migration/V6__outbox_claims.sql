@@ -0,0 +1,11 @@
+-- The relay claims a batch in a short transaction and sends it without holding row locks;
+-- a relay that dies mid-send lets its claim expire
+ALTER TABLE outbox_events ADD COLUMN claimed_by VARCHAR(255);
+ALTER TABLE outbox_events ADD COLUMN claimed_until DATETIME(6);
+
+-- Dead letter: set once fine-service rejected the event max-attempts times, the relay skips it
+ALTER TABLE outbox_events ADD COLUMN failed_at DATETIME(6);
+
+-- Undelivered, live events oldest first, without walking past dead letters
+DROP INDEX idx_outbox_events_published_id ON outbox_events;
+CREATE INDEX idx_outbox_events_published_failed_id ON outbox_events (published_at, failed_at, event_id);
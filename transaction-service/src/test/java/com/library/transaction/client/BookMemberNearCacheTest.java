@@ -0,0 +1,94 @@
+package com.library.transaction.client;
+
+import com.library.transaction.dto.BookDTO;
+import com.library.transaction.dto.MemberDTO;
+import feign.FeignException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.ResponseEntity;
+import java.util.List;
+import java.util.Optional;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class BookMemberNearCacheTest {
+    @Mock
+    private BookServiceClient bookServiceClient;
+    @Mock
+    private MemberServiceClient memberServiceClient;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private BookMemberNearCache nearCache = new BookMemberNearCache(meterRegistry, 30, 5, 100);
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void testGetBook_SecondLookupServedFromCache() {
+        when(bookServiceClient.getBookById(1L)).thenReturn(ResponseEntity.ok(book(1L)));
+        assertTrue(nearCache.getBook(1L).isPresent());
+        assertTrue(nearCache.getBook(1L).isPresent());
+        verify(bookServiceClient, times(1)).getBookById(1L);
+    }
+
+    @Test
+    void testGetMember_NotFoundIsCached() {
+        when(memberServiceClient.getMemberById(9L)).thenThrow(mock(FeignException.NotFound.class));
+        assertEquals(Optional.empty(), nearCache.getMember(9L));
+        assertEquals(Optional.empty(), nearCache.getMember(9L));
+        verify(memberServiceClient, times(1)).getMemberById(9L);
+    }
+
+    @Test
+    void testRefreshBook_AlwaysGoesRemote() {
+        BookDTO stale = book(1L);
+        stale.setAvailableCopies(3);
+        BookDTO fresh = book(1L);
+        fresh.setAvailableCopies(0);
+        when(bookServiceClient.getBookById(1L)).thenReturn(ResponseEntity.ok(stale), ResponseEntity.ok(fresh));
+        nearCache.getBook(1L);
+        assertEquals(0, nearCache.refreshBook(1L).get().getAvailableCopies());
+        assertEquals(0, nearCache.getBook(1L).get().getAvailableCopies());
+        verify(bookServiceClient, times(2)).getBookById(1L);
+    }
+
+    @Test
+    void testGetBooks_LoadsOnlyMissingIds() {
+        when(bookServiceClient.getBookById(1L)).thenReturn(ResponseEntity.ok(book(1L)));
+        nearCache.getBook(1L);
+        when(bookServiceClient.getBooksByIds(anyList())).thenReturn(List.of(book(2L)));
+
+        List<BookDTO> books = nearCache.getBooks(List.of(1L, 2L, 3L));
+
+        assertEquals(2, books.size());
+        verify(bookServiceClient).getBooksByIds(argThat(ids -> ids.size() == 2 && ids.containsAll(List.of(2L, 3L))));
+        // 3 was not returned, so it is remembered as missing
+        nearCache.getBooks(List.of(3L));
+        verify(bookServiceClient).getBookById(1L);
+        verifyNoMoreInteractions(bookServiceClient);
+    }
+
+    @Test
+    void testMetricsRegistered() {
+        when(memberServiceClient.getMemberById(1L)).thenReturn(ResponseEntity.ok(new MemberDTO()));
+        nearCache.getMember(1L);
+        nearCache.getMember(1L);
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "memberNearCache").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    private BookDTO book(Long bookId) {
+        BookDTO book = new BookDTO();
+        book.setBookId(bookId);
+        return book;
+    }
+}
@@ -0,0 +1,83 @@
+package com.library.transaction.controller;
+
+import com.library.transaction.entity.JobLock;
+import com.library.transaction.entity.JobRun;
+import com.library.transaction.repository.JobLockRepository;
+import com.library.transaction.repository.JobRunRepository;
+import com.library.transaction.service.JobLockService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Wiring of the job lease in this service: the V3 and V5 migrations build tables the entities
+ * validate against, and the jobs endpoint reports the overdue sweep from them. The lease
+ * rules themselves are covered by JobLockServiceTest in fine-service.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+@Import({JobLockService.class, JobsEndpoint.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class JobsEndpointTest {
+
+    @Autowired
+    private JobsEndpoint jobsEndpoint;
+
+    @Autowired
+    private JobLockService jobLockService;
+
+    @Autowired
+    private JobLockRepository lockRepository;
+
+    @Autowired
+    private JobRunRepository runRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        lockRepository.deleteAll();
+        runRepository.deleteAll();
+    }
+
+    @Test
+    void migration_CreatesLeaseTables() {
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM job_locks", Integer.class));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM job_runs", Integer.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void job_ReportsLeaseAndRunsOfOverdueSweep() {
+        jobLockService.runExclusively("overdue-sweep", "2026-01-05", () -> 3);
+        lockRepository.save(new JobLock("other-job", "other:1", LocalDateTime.now(), LocalDateTime.now().plusHours(1)));
+
+        Map<String, Object> report = jobsEndpoint.job("overdue-sweep");
+
+        assertEquals(jobLockService.getInstanceId(), report.get("instance"));
+        List<JobLock> locks = (List<JobLock>) report.get("locks");
+        assertEquals(1, locks.size());
+        assertEquals("overdue-sweep", locks.get(0).getJobName());
+        assertEquals("2026-01-05", locks.get(0).getCompletedWindow());
+        List<JobRun> runs = (List<JobRun>) report.get("runs");
+        assertEquals(1, runs.size());
+        assertEquals(JobRun.RunStatus.SUCCEEDED, runs.get(0).getStatus());
+        assertEquals(3, runs.get(0).getProcessed());
+        assertEquals(2, ((List<JobLock>) jobsEndpoint.jobs().get("locks")).size());
+    }
+}
@@ -0,0 +1,136 @@
+package com.library.transaction.repository;
+
+import com.library.transaction.entity.BorrowingTransaction;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the hot transaction queries against the schema built by the migrations alone,
+ * validated against the entities, and asks H2 for the plan of the SQL Hibernate
+ * generated. Fails when a query stops using its index and scans the table.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.library.transaction.repository.TransactionQueryPlanTest$CapturingInspector"
+})
+class TransactionQueryPlanTest {
+
+    @Autowired
+    private BorrowingTransactionRepository transactionRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        CapturingInspector.statements.clear();
+    }
+
+    @Test
+    void countByMemberIdAndStatus_UsesMemberStatusIndex() {
+        transactionRepository.countByMemberIdAndStatus(1L, BorrowingTransaction.TransactionStatus.BORROWED);
+
+        assertUsesIndex("IDX_BORROWING_TRANSACTIONS_MEMBER_STATUS");
+    }
+
+    @Test
+    void findActiveBorrowingsByMemberId_UsesMemberStatusIndex() {
+        transactionRepository.findActiveBorrowingsByMemberId(1L);
+
+        assertUsesIndex("IDX_BORROWING_TRANSACTIONS_MEMBER_STATUS");
+    }
+
+    @Test
+    void findOverdueTransactions_UsesStatusDueIndex() {
+        transactionRepository.findOverdueTransactions(LocalDate.now());
+
+        assertUsesIndex("IDX_BORROWING_TRANSACTIONS_STATUS_DUE");
+    }
+
+    @Test
+    void lockOverdueChunk_UsesStatusDueIndex() {
+        transactionRepository.lockOverdueChunk(LocalDate.now(), Limit.of(10));
+
+        assertUsesIndex("IDX_BORROWING_TRANSACTIONS_STATUS_DUE");
+    }
+
+    @Test
+    void overdueFeed_UsesStatusIdIndex() {
+        transactionRepository.findByStatusAndTransactionIdGreaterThanOrderByTransactionIdAsc(
+                BorrowingTransaction.TransactionStatus.OVERDUE, 0L, Limit.of(10));
+
+        assertUsesIndex("IDX_BORROWING_TRANSACTIONS_STATUS_ID");
+    }
+
+    @Test
+    void overdueFeedPartition_UsesStatusIdIndex() {
+        transactionRepository.findByStatusAndTransactionIdGreaterThanAndTransactionIdLessThanEqualOrderByTransactionIdAsc(
+                BorrowingTransaction.TransactionStatus.OVERDUE, 0L, 1000L, Limit.of(10));
+
+        assertUsesIndex("IDX_BORROWING_TRANSACTIONS_STATUS_ID");
+    }
+
+    @Test
+    void overdueIdRange_UsesStatusIdIndex() {
+        transactionRepository.findIdRangeByStatus(BorrowingTransaction.TransactionStatus.OVERDUE);
+
+        assertUsesIndex("IDX_BORROWING_TRANSACTIONS_STATUS_ID");
+    }
+
+    @Test
+    void findByBookId_UsesBookIndex() {
+        transactionRepository.findByBookId(1L);
+
+        assertUsesIndex("IDX_BORROWING_TRANSACTIONS_BOOK");
+    }
+
+    @Test
+    void dueWindow_UsesStatusDueIndex() {
+        transactionRepository.findBorrowedDueBetween(LocalDate.now(), 0L, LocalDate.now().plusDays(3), Limit.of(10));
+
+        assertUsesIndex("IDX_BORROWING_TRANSACTIONS_STATUS_DUE");
+    }
+
+    @Test
+    void lockUnpublished_UsesPublishedFailedIdIndex() {
+        outboxRepository.lockUnpublished(Limit.of(10));
+
+        assertUsesIndex("IDX_OUTBOX_EVENTS_PUBLISHED_FAILED_ID");
+    }
+
+    private void assertUsesIndex(String index) {
+        assertFalse(CapturingInspector.statements.isEmpty(), "No SQL was captured");
+        String sql = CapturingInspector.statements.get(CapturingInspector.statements.size() - 1);
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+
+        assertFalse(plan.contains("tableScan"), () -> "Full scan in plan:\n" + plan);
+        assertTrue(plan.contains(index), () -> "Expected " + index + " in plan:\n" + plan);
+    }
+
+    public static class CapturingInspector implements StatementInspector {
+        static final List<String> statements = new ArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.library.transaction.service;
+
+import com.library.transaction.client.BookMemberNearCache;
+import com.library.transaction.dto.BookDTO;
+import com.library.transaction.dto.MemberDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class BookMemberLookupTest {
+    @Mock
+    private BookMemberNearCache nearCache;
+    @InjectMocks
+    private BookMemberLookup bookMemberLookup = new BookMemberLookup(1000, 10);
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookMemberLookup.shutdown();
+    }
+
+    @Test
+    void testFetch_CallsRunConcurrently() {
+        // Each call waits for the other to start, so this only completes if both are in flight together
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        when(nearCache.getBook(1L)).thenAnswer(invocation -> {
+            bothStarted.countDown();
+            assertTrue(bothStarted.await(500, TimeUnit.MILLISECONDS));
+            return Optional.of(book(1L));
+        });
+        when(nearCache.getMember(2L)).thenAnswer(invocation -> {
+            bothStarted.countDown();
+            assertTrue(bothStarted.await(500, TimeUnit.MILLISECONDS));
+            return Optional.of(new MemberDTO());
+        });
+
+        BookMemberLookup.Result result = bookMemberLookup.fetch(1L, 2L);
+
+        assertEquals(1L, result.getBook().getBookId());
+        assertNotNull(result.getMember());
+    }
+
+    @Test
+    void testFetch_FirstFailureCancelsSibling() throws InterruptedException {
+        CountDownLatch memberStarted = new CountDownLatch(1);
+        CountDownLatch memberInterrupted = new CountDownLatch(1);
+        AtomicBoolean memberFinished = new AtomicBoolean();
+        when(nearCache.getBook(1L)).thenAnswer(invocation -> {
+            memberStarted.await(500, TimeUnit.MILLISECONDS);
+            return Optional.empty();
+        });
+        when(nearCache.getMember(2L)).thenAnswer(invocation -> {
+            memberStarted.countDown();
+            try {
+                Thread.sleep(5_000);
+                memberFinished.set(true);
+            } catch (InterruptedException e) {
+                memberInterrupted.countDown();
+            }
+            return Optional.of(new MemberDTO());
+        });
+
+        long started = System.nanoTime();
+        RuntimeException ex = assertThrows(RuntimeException.class, () -> bookMemberLookup.fetch(1L, 2L));
+
+        assertEquals("Book not found with ID: 1", ex.getMessage());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started) < 1000);
+        assertTrue(memberInterrupted.await(1, TimeUnit.SECONDS));
+        assertFalse(memberFinished.get());
+    }
+
+    @Test
+    void testFetch_CombinedTimeout() {
+        when(nearCache.getBook(1L)).thenReturn(Optional.of(book(1L)));
+        when(nearCache.getMember(2L)).thenAnswer(invocation -> {
+            Thread.sleep(5_000);
+            return Optional.of(new MemberDTO());
+        });
+
+        RuntimeException ex = assertThrows(RuntimeException.class, () -> bookMemberLookup.fetch(1L, 2L));
+
+        assertTrue(ex.getMessage().startsWith("Timed out"));
+    }
+
+    @Test
+    void testFetch_FreshBookBypassesCache() {
+        when(nearCache.refreshBook(1L)).thenReturn(Optional.of(book(1L)));
+        when(nearCache.getMember(2L)).thenReturn(Optional.of(new MemberDTO()));
+
+        bookMemberLookup.fetch(1L, 2L, true);
+
+        verify(nearCache).refreshBook(1L);
+        verify(nearCache, never()).getBook(any());
+    }
+
+    private BookDTO book(Long bookId) {
+        BookDTO book = new BookDTO();
+        book.setBookId(bookId);
+        return book;
+    }
+}
@@ -0,0 +1,181 @@
+package com.library.transaction.service;
+
+import com.library.transaction.client.FineServiceClient;
+import com.library.transaction.dto.TransactionEventResultDTO;
+import com.library.transaction.entity.BorrowingTransaction;
+import com.library.transaction.entity.OutboxEvent;
+import com.library.transaction.repository.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+class OutboxRelayTest {
+    @Mock
+    private OutboxEventRepository outboxRepository;
+    @Mock
+    private FineServiceClient fineServiceClient;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private JobLockService jobLockService;
+    @InjectMocks
+    private OutboxRelay outboxRelay;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        outboxRelay.setBatchSize(2);
+        outboxRelay.setMaxAttempts(3);
+        when(jobLockService.getInstanceId()).thenReturn("relay-1");
+    }
+
+    @Test
+    void testRelay_PublishesInOrderAndMarksPublished() {
+        OutboxEvent first = event(1L, OutboxEvent.EventType.TRANSACTION_OVERDUE);
+        OutboxEvent second = event(2L, OutboxEvent.EventType.TRANSACTION_OVERDUE);
+        OutboxEvent third = event(3L, OutboxEvent.EventType.TRANSACTION_RETURNED);
+        when(outboxRepository.lockUnpublished(Limit.of(2)))
+                .thenReturn(List.of(first, second))
+                .thenReturn(List.of(third));
+        when(outboxRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(first, second));
+        when(outboxRepository.findAllById(List.of(3L))).thenReturn(List.of(third));
+        when(fineServiceClient.publishTransactionEvents(anyList()))
+                .thenReturn(new TransactionEventResultDTO(2, Map.of()))
+                .thenReturn(new TransactionEventResultDTO(1, Map.of()));
+
+        assertEquals(3, outboxRelay.relay());
+
+        verify(fineServiceClient).publishTransactionEvents(argThat(events -> events.size() == 2
+                && events.get(0).getEventId().equals(1L)
+                && events.get(0).getEventType().equals("TRANSACTION_OVERDUE")));
+        verify(fineServiceClient).publishTransactionEvents(argThat(events -> events.size() == 1
+                && events.get(0).getEventType().equals("TRANSACTION_RETURNED")));
+        assertNotNull(first.getPublishedAt());
+        assertNotNull(third.getPublishedAt());
+        assertNull(first.getClaimedBy());
+        assertNull(first.getClaimedUntil());
+        // The short second batch means nothing is left, no third query
+        verify(outboxRepository, times(2)).lockUnpublished(Limit.of(2));
+    }
+
+    @Test
+    void testRelay_UnreachableFineServiceReleasesBatchWithoutCountingAttempt() {
+        OutboxEvent event = event(1L, OutboxEvent.EventType.TRANSACTION_OVERDUE);
+        when(outboxRepository.lockUnpublished(Limit.of(2))).thenReturn(List.of(event));
+        when(outboxRepository.findAllById(List.of(1L))).thenReturn(List.of(event));
+        when(fineServiceClient.publishTransactionEvents(anyList())).thenAnswer(invocation -> {
+            // Claimed while the request is in flight
+            assertEquals("relay-1", event.getClaimedBy());
+            assertNotNull(event.getClaimedUntil());
+            throw new RuntimeException("fine-service down");
+        });
+
+        assertEquals(0, outboxRelay.relay());
+
+        assertNull(event.getPublishedAt());
+        assertNull(event.getFailedAt());
+        assertNull(event.getClaimedBy());
+        assertEquals(0, event.getAttempts());
+        assertEquals("fine-service down", event.getLastError());
+    }
+
+    @Test
+    void testRelay_RejectedEventDoesNotHoldBackOthers() {
+        OutboxEvent rejected = event(1L, OutboxEvent.EventType.TRANSACTION_OVERDUE);
+        OutboxEvent applied = event(2L, OutboxEvent.EventType.TRANSACTION_RETURNED);
+        when(outboxRepository.lockUnpublished(Limit.of(2))).thenReturn(List.of(rejected, applied));
+        when(outboxRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(rejected, applied));
+        when(fineServiceClient.publishTransactionEvents(anyList()))
+                .thenReturn(new TransactionEventResultDTO(1, Map.of(1L, "Event 1 has no due date")));
+
+        assertEquals(1, outboxRelay.relay());
+
+        assertNotNull(applied.getPublishedAt());
+        assertNull(rejected.getPublishedAt());
+        assertNull(rejected.getFailedAt());
+        assertEquals(1, rejected.getAttempts());
+        assertEquals("Event 1 has no due date", rejected.getLastError());
+        // Retried on the next tick, not in a loop within this one
+        verify(fineServiceClient, times(1)).publishTransactionEvents(anyList());
+    }
+
+    @Test
+    void testRelay_DeadLettersEventAfterMaxAttempts() {
+        OutboxEvent event = event(1L, OutboxEvent.EventType.TRANSACTION_OVERDUE);
+        event.setAttempts(2);
+        when(outboxRepository.lockUnpublished(Limit.of(2))).thenReturn(List.of(event));
+        when(outboxRepository.findAllById(List.of(1L))).thenReturn(List.of(event));
+        when(fineServiceClient.publishTransactionEvents(anyList()))
+                .thenReturn(new TransactionEventResultDTO(0, Map.of(1L, "Event 1 has no due date")));
+
+        assertEquals(0, outboxRelay.relay());
+
+        assertEquals(3, event.getAttempts());
+        assertNotNull(event.getFailedAt());
+        assertNull(event.getPublishedAt());
+    }
+
+    @Test
+    void testRelay_WaitsWhileAnotherRelayHoldsTheOldestEvents() {
+        OutboxEvent event = event(1L, OutboxEvent.EventType.TRANSACTION_OVERDUE);
+        event.setClaimedBy("relay-2");
+        event.setClaimedUntil(LocalDateTime.now().plusSeconds(30));
+        when(outboxRepository.lockUnpublished(Limit.of(2))).thenReturn(List.of(event));
+
+        assertEquals(0, outboxRelay.relay());
+
+        verifyNoInteractions(fineServiceClient);
+        assertEquals("relay-2", event.getClaimedBy());
+    }
+
+    @Test
+    void testRelay_TakesOverExpiredClaim() {
+        OutboxEvent event = event(1L, OutboxEvent.EventType.TRANSACTION_OVERDUE);
+        event.setClaimedBy("relay-2");
+        event.setClaimedUntil(LocalDateTime.now().minusSeconds(1));
+        when(outboxRepository.lockUnpublished(Limit.of(2))).thenReturn(List.of(event));
+        when(outboxRepository.findAllById(List.of(1L))).thenReturn(List.of(event));
+        when(fineServiceClient.publishTransactionEvents(anyList()))
+                .thenReturn(new TransactionEventResultDTO(1, Map.of()));
+
+        assertEquals(1, outboxRelay.relay());
+
+        assertNotNull(event.getPublishedAt());
+        assertNull(event.getClaimedBy());
+    }
+
+    @Test
+    void testRelay_NothingToPublish() {
+        when(outboxRepository.lockUnpublished(Limit.of(2))).thenReturn(Collections.emptyList());
+
+        assertEquals(0, outboxRelay.relay());
+
+        verifyNoInteractions(fineServiceClient);
+    }
+
+    private OutboxEvent event(Long eventId, OutboxEvent.EventType eventType) {
+        BorrowingTransaction transaction = new BorrowingTransaction();
+        transaction.setTransactionId(eventId * 10);
+        transaction.setMemberId(1L);
+        transaction.setBookId(2L);
+        transaction.setDueDate(LocalDate.now().minusDays(3));
+        OutboxEvent event = new OutboxEvent(eventType, transaction);
+        event.setEventId(eventId);
+        return event;
+    }
+}
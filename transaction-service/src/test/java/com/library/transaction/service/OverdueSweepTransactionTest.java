@@ -0,0 +1,111 @@
+package com.library.transaction.service;
+
+import com.library.transaction.client.BookMemberNearCache;
+import com.library.transaction.client.BookServiceClient;
+import com.library.transaction.entity.BorrowingTransaction;
+import com.library.transaction.repository.BorrowingTransactionJdbcRepository;
+import com.library.transaction.repository.BorrowingTransactionRepository;
+import com.library.transaction.repository.JobLockRepository;
+import com.library.transaction.repository.JobRunRepository;
+import com.library.transaction.repository.OutboxEventRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the scheduled sweep through the Spring proxy, so the transaction attributes are the
+ * real ones: each chunk has to be committed, and visible to other connections, before the
+ * next chunk starts.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "transaction.overdue-sweep.chunk-size=1"
+})
+@Import({TransactionService.class, BorrowingTransactionJdbcRepository.class, JobLockService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OverdueSweepTransactionTest {
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private BorrowingTransactionRepository transactionRepository;
+
+    @Autowired
+    private JobLockRepository lockRepository;
+
+    @Autowired
+    private JobRunRepository runRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private OutboxEventRepository outboxRepository;
+
+    @MockBean
+    private BookServiceClient bookServiceClient;
+
+    @MockBean
+    private TransactionEnricher transactionEnricher;
+
+    @MockBean
+    private BookMemberLookup bookMemberLookup;
+
+    @MockBean
+    private BookMemberNearCache nearCache;
+
+    @AfterEach
+    void tearDown() {
+        transactionRepository.deleteAll();
+        lockRepository.deleteAll();
+        runRepository.deleteAll();
+    }
+
+    @Test
+    void scheduledOverdueSweep_CommitsEachChunk() {
+        transactionRepository.save(borrowed(1L));
+        transactionRepository.save(borrowed(2L));
+        transactionRepository.save(borrowed(3L));
+        List<Integer> committedBeforeChunk = new ArrayList<>();
+        when(outboxRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            // Another thread gets its own connection and only sees committed rows
+            committedBeforeChunk.add(CompletableFuture.supplyAsync(() -> jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM borrowing_transactions WHERE status = 'OVERDUE'", Integer.class)).join());
+            return invocation.getArgument(0);
+        });
+
+        transactionService.scheduledOverdueSweep();
+
+        assertEquals(List.of(0, 1, 2), committedBeforeChunk);
+        assertEquals(3, transactionRepository.findAll().stream()
+                .filter(transaction -> transaction.getStatus() == BorrowingTransaction.TransactionStatus.OVERDUE)
+                .count());
+    }
+
+    private BorrowingTransaction borrowed(Long bookId) {
+        BorrowingTransaction transaction = new BorrowingTransaction();
+        transaction.setBookId(bookId);
+        transaction.setMemberId(10L);
+        transaction.setBorrowDate(LocalDate.now().minusDays(30));
+        transaction.setDueDate(LocalDate.now().minusDays(2));
+        return transaction;
+    }
+}
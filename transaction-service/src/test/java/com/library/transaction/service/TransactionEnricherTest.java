@@ -0,0 +1,103 @@
+package com.library.transaction.service;
+
+import com.library.transaction.client.BookMemberNearCache;
+import com.library.transaction.dto.BookDTO;
+import com.library.transaction.dto.BorrowingTransactionResponseDTO;
+import com.library.transaction.dto.MemberDTO;
+import com.library.transaction.entity.BorrowingTransaction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class TransactionEnricherTest {
+    @Mock
+    private BookMemberNearCache nearCache;
+    @InjectMocks
+    private TransactionEnricher transactionEnricher;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void testEnrich_ResolvesEachIdOnce() {
+        List<BorrowingTransaction> rows = new ArrayList<>();
+        for (long i = 1; i <= 50; i++) {
+            rows.add(transaction(i, i % 2 + 1, i % 3 + 1));
+        }
+        when(nearCache.getBooks(any())).thenReturn(List.of(book(1L), book(2L)));
+        when(nearCache.getMembers(any())).thenReturn(List.of(member(1L), member(2L), member(3L)));
+
+        List<BorrowingTransactionResponseDTO> result = transactionEnricher.enrich(rows);
+
+        assertEquals(50, result.size());
+        assertEquals(2L, result.get(0).getBook().getBookId());
+        assertEquals(2L, result.get(0).getMember().getMemberId());
+        verify(nearCache, times(1)).getBooks(any());
+        verify(nearCache, times(1)).getMembers(any());
+        verify(nearCache, never()).getBook(any());
+        verify(nearCache, never()).getMember(any());
+    }
+
+    @Test
+    void testEnrich_MissingBook() {
+        when(nearCache.getBooks(any())).thenReturn(List.of());
+        when(nearCache.getMembers(any())).thenReturn(List.of(member(1L)));
+        assertThrows(RuntimeException.class, () -> transactionEnricher.enrich(List.of(transaction(1L, 9L, 1L))));
+    }
+
+    @Test
+    void testEnrichAllowingMissing_LeavesDeletedMemberNull() {
+        when(nearCache.getBooks(any())).thenReturn(List.of(book(1L)));
+        when(nearCache.getMembers(any())).thenReturn(List.of());
+
+        List<BorrowingTransactionResponseDTO> result =
+                transactionEnricher.enrichAllowingMissing(List.of(transaction(1L, 1L, 9L)));
+
+        assertEquals(1, result.size());
+        assertEquals(1L, result.get(0).getBook().getBookId());
+        assertNull(result.get(0).getMember());
+    }
+
+    @Test
+    void testEnrichAllowingMissing_LookupFailureStillThrows() {
+        when(nearCache.getBooks(any())).thenReturn(List.of(book(1L)));
+        when(nearCache.getMembers(any())).thenThrow(new RuntimeException("member-service down"));
+
+        assertThrows(RuntimeException.class,
+                () -> transactionEnricher.enrichAllowingMissing(List.of(transaction(1L, 1L, 9L))));
+    }
+
+    @Test
+    void testEnrich_Empty() {
+        assertTrue(transactionEnricher.enrich(List.of()).isEmpty());
+        verifyNoInteractions(nearCache);
+    }
+
+    private BorrowingTransaction transaction(Long id, Long bookId, Long memberId) {
+        BorrowingTransaction tx = new BorrowingTransaction(bookId, memberId, LocalDate.now(), LocalDate.now().plusDays(14));
+        tx.setTransactionId(id);
+        return tx;
+    }
+
+    private BookDTO book(Long id) {
+        BookDTO book = new BookDTO();
+        book.setBookId(id);
+        return book;
+    }
+
+    private MemberDTO member(Long id) {
+        MemberDTO member = new MemberDTO();
+        member.setMemberId(id);
+        return member;
+    }
+}
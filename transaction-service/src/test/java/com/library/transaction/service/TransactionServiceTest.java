@@ -3,18 +3,36 @@ package com.library.transaction.service;
 import com.library.transaction.dto.BorrowingTransactionDTO;
 import com.library.transaction.dto.BorrowingTransactionResponseDTO;
 import com.library.transaction.entity.BorrowingTransaction;
+import com.library.transaction.entity.OutboxEvent;
+import com.library.transaction.repository.OutboxEventRepository;
 import com.library.transaction.repository.BorrowingTransactionRepository;
+import com.library.transaction.client.BookMemberNearCache;
 import com.library.transaction.client.BookServiceClient;
+import com.library.transaction.dto.AvailabilityChangeResultDTO;
+import com.library.transaction.dto.BasketBorrowDTO;
+import com.library.transaction.dto.BookDTO;
+import com.library.transaction.dto.MemberDTO;
+import com.library.transaction.repository.BorrowingTransactionJdbcRepository;
+import com.library.transaction.dto.CursorPageDTO;
+import com.library.transaction.dto.OverdueSweepResultDTO;
+import com.library.transaction.dto.OverdueTransactionDTO;
+import org.springframework.data.domain.Limit;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
 import java.time.LocalDate;
 import java.util.Optional;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.IntSupplier;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class TransactionServiceTest {
@@ -22,12 +40,132 @@ class TransactionServiceTest {
     private BorrowingTransactionRepository transactionRepository;
     @Mock
     private BookServiceClient bookServiceClient;
+    @Mock
+    private BorrowingTransactionJdbcRepository transactionJdbcRepository;
+    @Mock
+    private TransactionEnricher transactionEnricher;
+    @Mock
+    private BookMemberLookup bookMemberLookup;
+    @Mock
+    private BookMemberNearCache nearCache;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private JobLockService jobLockService;
+    @Mock
+    private OutboxEventRepository outboxRepository;
     @InjectMocks
     private TransactionService transactionService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        transactionService.setOverdueSweepChunkSize(2);
+    }
+
+    @Test
+    void testUpdateOverdueTransactions_SweepsInChunks() {
+        when(transactionRepository.lockOverdueChunk(any(LocalDate.class), eq(Limit.of(2))))
+                .thenReturn(List.of(transaction(1L), transaction(2L)))
+                .thenReturn(List.of(transaction(5L)));
+
+        OverdueSweepResultDTO result = transactionService.updateOverdueTransactions();
+
+        assertEquals(3, result.getUpdatedCount());
+        assertEquals(List.of(1L, 2L, 5L), result.getTransactionIds());
+        verify(transactionRepository).markOverdue(eq(List.of(1L, 2L)), any());
+        verify(transactionRepository).markOverdue(eq(List.of(5L)), any());
+        verify(outboxRepository).saveAll(argThat(events -> events instanceof List<?> list && list.size() == 2
+                && ((OutboxEvent) list.get(0)).getEventType() == OutboxEvent.EventType.TRANSACTION_OVERDUE));
+        verify(transactionManager, times(2)).commit(any());
+        // The short second chunk means nothing is left, no third query
+        verify(transactionRepository, times(2)).lockOverdueChunk(any(LocalDate.class), any(Limit.class));
+    }
+
+    @Test
+    void testGetOverdueFeed_SkipsEnrichment() {
+        BorrowingTransaction first = transaction(4L);
+        first.setMemberId(40L);
+        first.setDueDate(LocalDate.now().minusDays(2));
+        when(transactionRepository.findByStatusAndTransactionIdGreaterThanOrderByTransactionIdAsc(
+                BorrowingTransaction.TransactionStatus.OVERDUE, 0L, Limit.of(2)))
+                .thenReturn(List.of(first, transaction(6L)));
+
+        CursorPageDTO<OverdueTransactionDTO> page = transactionService.getOverdueFeed(null, 1);
+
+        assertEquals(1, page.getItems().size());
+        assertEquals(40L, page.getItems().get(0).getMemberId());
+        assertEquals(4L, page.getNextCursor());
+        assertTrue(page.isHasMore());
+        verifyNoInteractions(transactionEnricher);
+    }
+
+    @Test
+    void testGetOverdueFeed_StopsAtUpperBound() {
+        when(transactionRepository.findByStatusAndTransactionIdGreaterThanAndTransactionIdLessThanEqualOrderByTransactionIdAsc(
+                BorrowingTransaction.TransactionStatus.OVERDUE, 100L, 200L, Limit.of(501)))
+                .thenReturn(List.of(transaction(150L)));
+
+        CursorPageDTO<OverdueTransactionDTO> page = transactionService.getOverdueFeed(100L, 200L, 500);
+
+        assertEquals(1, page.getItems().size());
+        assertFalse(page.isHasMore());
+        assertNull(page.getNextCursor());
+        verify(transactionRepository, never()).findByStatusAndTransactionIdGreaterThanOrderByTransactionIdAsc(
+                any(), any(), any());
+    }
+
+    @Test
+    void testUpdateOverdueTransactions_NothingOverdue() {
+        when(transactionRepository.lockOverdueChunk(any(LocalDate.class), any(Limit.class)))
+                .thenReturn(Collections.emptyList());
+
+        OverdueSweepResultDTO result = transactionService.updateOverdueTransactions();
+
+        assertEquals(0, result.getUpdatedCount());
+        assertTrue(result.getTransactionIds().isEmpty());
+        verify(transactionRepository, never()).markOverdue(anyList(), any());
+        verifyNoInteractions(outboxRepository);
+    }
+
+    @Test
+    void testReturnBook_WritesReturnedEvent() {
+        BorrowingTransaction tx = transaction(7L);
+        tx.setBookId(3L);
+        tx.setMemberId(9L);
+        tx.setDueDate(LocalDate.now().minusDays(2));
+        tx.setStatus(BorrowingTransaction.TransactionStatus.OVERDUE);
+        when(transactionRepository.findById(7L)).thenReturn(Optional.of(tx));
+        when(transactionRepository.save(tx)).thenReturn(tx);
+        when(bookMemberLookup.fetch(3L, 9L, true)).thenReturn(new BookMemberLookup.Result(null, null));
+
+        transactionService.returnBook(7L);
+
+        verify(outboxRepository).save(argThat(event -> event.getEventType() == OutboxEvent.EventType.TRANSACTION_RETURNED
+                && event.getTransactionId().equals(7L)
+                && event.getMemberId().equals(9L)
+                && LocalDate.now().equals(event.getReturnDate())));
+    }
+
+    @Test
+    void testScheduledOverdueSweep_RunsUnderLease() {
+        when(jobLockService.runExclusively(eq("overdue-sweep"), eq(LocalDate.now().toString()), any()))
+                .thenAnswer(invocation -> Optional.of(invocation.<IntSupplier>getArgument(2).getAsInt()));
+        when(transactionRepository.lockOverdueChunk(any(LocalDate.class), any(Limit.class)))
+                .thenReturn(Collections.emptyList());
+
+        transactionService.scheduledOverdueSweep();
+
+        verify(transactionRepository).lockOverdueChunk(any(LocalDate.class), any(Limit.class));
+    }
+
+    @Test
+    void testScheduledOverdueSweep_SkippedWhenLeaseHeldElsewhere() {
+        when(jobLockService.runExclusively(eq("overdue-sweep"), eq(LocalDate.now().toString()), any())).thenReturn(Optional.empty());
+
+        transactionService.scheduledOverdueSweep();
+
+        verifyNoInteractions(transactionRepository);
     }
 
     @Test
@@ -35,7 +173,9 @@ class TransactionServiceTest {
         BorrowingTransaction tx = new BorrowingTransaction();
         tx.setTransactionId(1L);
         tx.setBookId(2L);
+        tx.setMemberId(4L);
         when(transactionRepository.findById(1L)).thenReturn(Optional.of(tx));
+        when(bookMemberLookup.fetch(2L, 4L)).thenReturn(new BookMemberLookup.Result(book(2L), new MemberDTO()));
         Optional<BorrowingTransactionResponseDTO> result = transactionService.getTransactionById(1L);
         assertTrue(result.isPresent());
         assertEquals(1L, result.get().getTransactionId());
@@ -49,6 +189,16 @@ class TransactionServiceTest {
         assertFalse(result.isPresent());
     }
 
+    @Test
+    void testGetTransactionsByIds_EnrichesInOneBatch() {
+        List<BorrowingTransaction> rows = List.of(transaction(1L), transaction(3L));
+        when(transactionRepository.findAllById(List.of(1L, 3L, 9L))).thenReturn(rows);
+        when(transactionEnricher.enrichAllowingMissing(rows)).thenReturn(List.of(new BorrowingTransactionResponseDTO(),
+                new BorrowingTransactionResponseDTO()));
+        assertEquals(2, transactionService.getTransactionsByIds(List.of(1L, 3L, 9L)).size());
+        verify(transactionEnricher, times(1)).enrichAllowingMissing(anyList());
+    }
+
     @Test
     void testGetAllTransactions_Empty() {
         when(transactionRepository.findAll()).thenReturn(Collections.emptyList());
@@ -56,5 +206,134 @@ class TransactionServiceTest {
         assertTrue(result.isEmpty());
     }
 
+    @Test
+    void testGetTransactionsByMemberId_UsesBatchEnrichment() {
+        BorrowingTransaction tx = new BorrowingTransaction();
+        tx.setTransactionId(5L);
+        tx.setMemberId(3L);
+        List<BorrowingTransaction> rows = List.of(tx);
+        BorrowingTransactionResponseDTO dto = new BorrowingTransactionResponseDTO();
+        dto.setTransactionId(5L);
+        when(transactionRepository.findByMemberId(3L)).thenReturn(rows);
+        when(transactionEnricher.enrich(rows)).thenReturn(List.of(dto));
+        List<BorrowingTransactionResponseDTO> result = transactionService.getTransactionsByMemberId(3L);
+        assertEquals(1, result.size());
+        assertEquals(5L, result.get(0).getTransactionId());
+        verifyNoInteractions(bookServiceClient);
+    }
+
+    @Test
+    void testBorrowBasket_SingleReservationAndBatchInsert() {
+        BasketBorrowDTO basket = new BasketBorrowDTO(3L, List.of(10L, 11L), null);
+        MemberDTO member = new MemberDTO();
+        member.setMemberId(3L);
+        when(transactionRepository.countByMemberIdAndStatus(3L, BorrowingTransaction.TransactionStatus.BORROWED))
+                .thenReturn(1L);
+        when(nearCache.getMember(3L)).thenReturn(Optional.of(member));
+        when(bookServiceClient.getBooksByIds(basket.getBookIds())).thenReturn(List.of(book(10L), book(11L)));
+        when(bookServiceClient.updateBookAvailabilityBatch(anyList(), eq(true))).thenReturn(List.of(
+                new AvailabilityChangeResultDTO(10L, -1, true, null),
+                new AvailabilityChangeResultDTO(11L, -1, true, null)));
+
+        List<BorrowingTransactionResponseDTO> result = transactionService.borrowBasket(basket);
+
+        assertEquals(2, result.size());
+        assertEquals(10L, result.get(0).getBook().getBookId());
+        assertEquals("BORROWED", result.get(1).getStatus());
+        verify(bookServiceClient, times(1)).updateBookAvailabilityBatch(anyList(), eq(true));
+        verify(transactionJdbcRepository, times(1)).insertAll(anyList());
+        verify(bookServiceClient, never()).getBookById(any());
+        verify(nearCache).evictBooks(basket.getBookIds());
+    }
+
+    @Test
+    void testBorrowBasket_ExceedsLimit() {
+        BasketBorrowDTO basket = new BasketBorrowDTO(3L, List.of(10L, 11L), null);
+        when(transactionRepository.countByMemberIdAndStatus(3L, BorrowingTransaction.TransactionStatus.BORROWED))
+                .thenReturn(4L);
+        RuntimeException ex = assertThrows(RuntimeException.class, () -> transactionService.borrowBasket(basket));
+        assertEquals("Member has reached maximum borrowing limit.", ex.getMessage());
+        verifyNoInteractions(bookServiceClient, transactionJdbcRepository);
+    }
+
+    @Test
+    void testBorrowBasket_ReservationFailureSavesNothing() {
+        BasketBorrowDTO basket = new BasketBorrowDTO(3L, List.of(10L, 11L), null);
+        MemberDTO member = new MemberDTO();
+        member.setMemberId(3L);
+        when(nearCache.getMember(3L)).thenReturn(Optional.of(member));
+        when(bookServiceClient.getBooksByIds(basket.getBookIds())).thenReturn(List.of(book(10L), book(11L)));
+        when(bookServiceClient.updateBookAvailabilityBatch(anyList(), eq(true))).thenReturn(List.of(
+                new AvailabilityChangeResultDTO(10L, -1, false, "Rolled back because another change in the batch failed"),
+                new AvailabilityChangeResultDTO(11L, -1, false, "Unable to update book availability")));
+        assertThrows(RuntimeException.class, () -> transactionService.borrowBasket(basket));
+        verifyNoInteractions(transactionJdbcRepository);
+    }
+
+    private BorrowingTransaction transaction(Long transactionId) {
+        BorrowingTransaction tx = new BorrowingTransaction();
+        tx.setTransactionId(transactionId);
+        tx.setStatus(BorrowingTransaction.TransactionStatus.BORROWED);
+        return tx;
+    }
+
+    private BookDTO book(Long bookId) {
+        BookDTO book = new BookDTO();
+        book.setBookId(bookId);
+        book.setAvailableCopies(1);
+        return book;
+    }
+
     // Add more tests for borrow, return, overdue, and edge cases
+
+    @Test
+    void testGetTransactionsPage_EnrichesOnlyCurrentPage() {
+        BorrowingTransaction first = new BorrowingTransaction();
+        first.setTransactionId(21L);
+        BorrowingTransaction second = new BorrowingTransaction();
+        second.setTransactionId(22L);
+        when(transactionRepository.findByTransactionIdGreaterThanOrderByTransactionIdAsc(20L, Limit.of(2)))
+                .thenReturn(List.of(first, second));
+        when(transactionEnricher.enrich(List.of(first))).thenReturn(List.of(new BorrowingTransactionResponseDTO()));
+        CursorPageDTO<BorrowingTransactionResponseDTO> page = transactionService.getTransactionsPage(20L, 1);
+        assertEquals(1, page.getItems().size());
+        assertTrue(page.isHasMore());
+        assertEquals(21L, page.getNextCursor());
+    }
+
+    @Test
+    void testGetDueTransactionsPage_QueriesOnlyTheWindow() {
+        LocalDate from = LocalDate.now();
+        LocalDate to = from.plusDays(3);
+        BorrowingTransaction first = transaction(31L);
+        first.setDueDate(from.plusDays(1));
+        BorrowingTransaction second = transaction(35L);
+        when(transactionRepository.findBorrowedDueBetween(from, 0L, to, Limit.of(2)))
+                .thenReturn(List.of(first, second));
+        when(transactionEnricher.enrich(List.of(first))).thenReturn(List.of(new BorrowingTransactionResponseDTO()));
+
+        CursorPageDTO<BorrowingTransactionResponseDTO> page =
+                transactionService.getDueTransactionsPage(from, to, null, null, 1);
+
+        assertEquals(1, page.getItems().size());
+        assertTrue(page.isHasMore());
+        assertEquals(31L, page.getNextCursor());
+        verify(transactionRepository, never()).findAll();
+    }
+
+    @Test
+    void testGetDueTransactionsPage_ContinuesAfterLastDueDateAndId() {
+        LocalDate from = LocalDate.now();
+        LocalDate to = from.plusDays(3);
+        when(transactionRepository.findBorrowedDueBetween(from.plusDays(1), 31L, to, Limit.of(51)))
+                .thenReturn(Collections.emptyList());
+        when(transactionEnricher.enrich(Collections.emptyList())).thenReturn(Collections.emptyList());
+
+        CursorPageDTO<BorrowingTransactionResponseDTO> page =
+                transactionService.getDueTransactionsPage(from, to, from.plusDays(1), 31L, 50);
+
+        assertTrue(page.getItems().isEmpty());
+        assertFalse(page.isHasMore());
+        assertNull(page.getNextCursor());
+    }
 }